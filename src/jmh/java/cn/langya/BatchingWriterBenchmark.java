@@ -0,0 +1,90 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 逐条写出小消息与经 BatchingChannelWriter 合并写出的对比, 通道只统计 write 调用次数
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchingWriterBenchmark {
+    private static final int MESSAGES = 256;
+
+    @Param({"32", "4096"})
+    public int messageSize;
+
+    private final CountingChannel channel = new CountingChannel();
+
+    @Benchmark
+    public long writeEachMessage() throws Exception {
+        for (int i = 0; i < MESSAGES; i++) {
+            ByteBuf msg = newMessage();
+            msg.readBytes(channel, msg.readableBytes());
+            msg.release();
+        }
+        return channel.writeCalls;
+    }
+
+    @Benchmark
+    public long batchingWriter() throws Exception {
+        BatchingChannelWriter writer = new BatchingChannelWriter(channel);
+        for (int i = 0; i < MESSAGES; i++) {
+            writer.write(newMessage());
+        }
+        writer.close();
+        return channel.writeCalls;
+    }
+
+    private ByteBuf newMessage() {
+        ByteBuf msg = ByteBufPool.acquire(messageSize);
+        msg.writeInt(messageSize);
+        msg.writerIndex(messageSize);
+        return msg;
+    }
+
+    private static final class CountingChannel implements GatheringByteChannel {
+        long writeCalls;
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            writeCalls++;
+            long total = 0;
+            for (int i = offset; i < offset + length; i++) {
+                total += srcs[i].remaining();
+                ((Buffer) srcs[i]).position(srcs[i].limit());
+            }
+            return total;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[]{src}, 0, 1);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package cn.langya;
+
+/**
+ * 基准测试共用的 ByteBuf 构造, 各基准通过 @Param 选择实现
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+final class BenchmarkBuffers {
+    static final String HEAP = "heap";
+    static final String POOLED_HEAP = "pooledHeap";
+    static final String DIRECT = "direct";
+    static final String POOLED_DIRECT = "pooledDirect";
+    static final String COMPOSITE = "composite";
+
+    private BenchmarkBuffers() {
+    }
+
+    /**
+     * 组合 ByteBuf 由 4 个等长组件拼成, 写指针归零后可写满整个容量
+     */
+    static ByteBuf create(String type, int capacity) {
+        switch (type) {
+            case HEAP:
+                return new UnpooledByteBuf(capacity);
+            case POOLED_HEAP:
+                return ByteBufPool.acquire(capacity);
+            case DIRECT:
+                return new DirectByteBuf(capacity);
+            case POOLED_DIRECT:
+                return ByteBufPool.acquireDirect(capacity);
+            case COMPOSITE: {
+                int part = (capacity + 3) / 4;
+                CompositeByteBuf composite = new CompositeByteBuf();
+                for (int i = 0; i < 4; i++) {
+                    composite.addComponent(new UnpooledByteBuf(part).writerIndex(part));
+                }
+                return composite.writerIndex(0);
+            }
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+}
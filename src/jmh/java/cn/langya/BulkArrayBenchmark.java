@@ -0,0 +1,70 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基本类型数组整块读写与逐个 writeFloat / readFloat 对比, order 与本机字节序一致时走整块内存复制
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkArrayBenchmark {
+    private static final int COUNT = 4096;
+
+    @State(Scope.Thread)
+    public static class BufState {
+        @Param({BenchmarkBuffers.HEAP, BenchmarkBuffers.DIRECT, BenchmarkBuffers.COMPOSITE})
+        public String type;
+
+        @Param({"BIG_ENDIAN", "LITTLE_ENDIAN"})
+        public String order;
+
+        ByteBuf buf;
+        final float[] floats = new float[COUNT];
+        final float[] out = new float[COUNT];
+
+        @Setup
+        public void setup() {
+            ByteOrder byteOrder = "BIG_ENDIAN".equals(order) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            buf = BenchmarkBuffers.create(type, COUNT * 4).order(byteOrder);
+            for (int i = 0; i < COUNT; i++) {
+                floats[i] = i * 0.5f;
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public float[] bulkFloats(BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        buf.writeFloats(state.floats, 0, COUNT);
+        buf.readFloats(state.out, 0, COUNT);
+        return state.out;
+    }
+
+    @Benchmark
+    public float[] singleFloats(BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        float[] floats = state.floats;
+        for (int i = 0; i < COUNT; i++) {
+            buf.writeFloat(floats[i]);
+        }
+        float[] out = state.out;
+        for (int i = 0; i < COUNT; i++) {
+            out[i] = buf.readFloat();
+        }
+        return out;
+    }
+}
@@ -0,0 +1,85 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 组合 ByteBuf 的顺序与随机读取, 与同样大小的单块堆内存对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositeAccessBenchmark {
+    private static final int SIZE = 64 * 1024;
+
+    @Param({"4", "64", "1024"})
+    public int components;
+
+    private CompositeByteBuf composite;
+    private ByteBuf heap;
+    private int[] randomIndexes;
+
+    @Setup
+    public void setup() {
+        composite = new CompositeByteBuf();
+        int part = SIZE / components;
+        for (int i = 0; i < components; i++) {
+            composite.addComponent(new UnpooledByteBuf(part).writerIndex(part));
+        }
+        heap = new UnpooledByteBuf(SIZE).writerIndex(SIZE);
+        java.util.Random random = new java.util.Random(42);
+        randomIndexes = new int[1024];
+        for (int i = 0; i < randomIndexes.length; i++) {
+            randomIndexes[i] = random.nextInt(SIZE - 8);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        composite.release();
+    }
+
+    @Benchmark
+    public long compositeSequential() {
+        return sequential(composite);
+    }
+
+    @Benchmark
+    public long compositeRandom() {
+        return random(composite);
+    }
+
+    @Benchmark
+    public long baselineHeapSequential() {
+        return sequential(heap);
+    }
+
+    @Benchmark
+    public long baselineHeapRandom() {
+        return random(heap);
+    }
+
+    private static long sequential(ByteBuf buf) {
+        buf.readerIndex(0);
+        long sum = 0;
+        while (buf.readableBytes() >= 8) {
+            sum += buf.readLong();
+        }
+        return sum;
+    }
+
+    private long random(ByteBuf buf) {
+        long sum = 0;
+        for (int index : randomIndexes) {
+            sum += buf.getLong(index);
+        }
+        return sum;
+    }
+}
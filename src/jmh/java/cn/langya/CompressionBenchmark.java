@@ -0,0 +1,86 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * ByteBuf 到 ByteBuf 的压缩: 先 readBytes 到数组再 Deflater 再 writeBytes 的旧做法, 与 DeflateCodec / Lz4Codec 对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+    private static final int SIZE = 256 * 1024;
+
+    @Param({BenchmarkBuffers.HEAP, BenchmarkBuffers.DIRECT, BenchmarkBuffers.COMPOSITE})
+    public String type;
+
+    private ByteBuf src;
+    private ByteBuf dst;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final DeflateCodec deflateCodec = new DeflateCodec(Deflater.BEST_SPEED, false);
+    private final Lz4Codec lz4Codec = new Lz4Codec();
+
+    @Setup
+    public void setup() {
+        // 日志风格的可压缩数据
+        Random random = new Random(1);
+        byte[] data = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            data[i] = (byte) (i % 13 == 0 ? random.nextInt(256) : "level=INFO msg=replicated ".charAt(i % 26));
+        }
+        src = BenchmarkBuffers.create(type, SIZE);
+        src.writeBytes(data, 0, SIZE);
+        dst = BenchmarkBuffers.create(type, SIZE * 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        src.release();
+        dst.release();
+        deflater.end();
+        deflateCodec.close();
+        lz4Codec.close();
+    }
+
+    @Benchmark
+    public int deflateViaArrays() {
+        src.readerIndex(0);
+        dst.writerIndex(0);
+        byte[] in = new byte[src.readableBytes()];
+        src.readBytes(in, 0, in.length);
+        deflater.reset();
+        deflater.setInput(in);
+        deflater.finish();
+        byte[] out = new byte[in.length + 64];
+        int n = 0;
+        while (!deflater.finished()) {
+            n += deflater.deflate(out, n, out.length - n);
+        }
+        dst.writeBytes(out, 0, n);
+        return n;
+    }
+
+    @Benchmark
+    public int deflateCodec() {
+        src.readerIndex(0);
+        dst.writerIndex(0);
+        return deflateCodec.compress(src, dst);
+    }
+
+    @Benchmark
+    public int lz4Codec() {
+        src.readerIndex(0);
+        dst.writerIndex(0);
+        return lz4Codec.compress(src, dst);
+    }
+}
@@ -0,0 +1,87 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 30 个定长字段的消息只取其中 2 个: flyweight 原地读取与顺序解码全部字段的对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlyweightBenchmark {
+    private static final int FIELDS = 30;
+    private static final int MESSAGES = 64;
+
+    @Param({BenchmarkBuffers.HEAP, BenchmarkBuffers.DIRECT})
+    public String type;
+
+    private ByteBuf buf;
+    private int messageLength;
+    private Flyweight flyweight;
+    private FlyweightSchema.Field price;
+    private FlyweightSchema.Field qty;
+
+    @Setup
+    public void setup() {
+        FlyweightSchema.Builder builder = FlyweightSchema.builder();
+        for (int i = 0; i < FIELDS; i++) {
+            if (i % 2 == 0) {
+                builder.int64("f" + i);
+            } else {
+                builder.int32("f" + i);
+            }
+        }
+        FlyweightSchema schema = builder.build();
+        messageLength = schema.fixedLength();
+        price = schema.field("f20");
+        qty = schema.field("f21");
+        flyweight = schema.newFlyweight();
+        buf = BenchmarkBuffers.create(type, messageLength * MESSAGES);
+        for (int m = 0; m < MESSAGES; m++) {
+            for (int i = 0; i < FIELDS; i++) {
+                if (i % 2 == 0) {
+                    buf.writeLong(m * 31L + i);
+                } else {
+                    buf.writeInt(m * 17 + i);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+    }
+
+    @Benchmark
+    public long flyweightTwoFields() {
+        long sum = 0;
+        for (int m = 0; m < MESSAGES; m++) {
+            flyweight.wrap(buf, m * messageLength);
+            sum += flyweight.getLong(price) + flyweight.getInt(qty);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long decodeAllFields() {
+        long sum = 0;
+        buf.readerIndex(0);
+        long[] fields = new long[FIELDS];
+        for (int m = 0; m < MESSAGES; m++) {
+            for (int i = 0; i < FIELDS; i++) {
+                fields[i] = i % 2 == 0 ? buf.readLong() : buf.readInt();
+            }
+            sum += fields[20] + fields[21];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,58 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从 16 字节开始写到 size 字节, 覆盖 ensureWritable 的多次扩容
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowthBenchmark {
+    @Param({"4096", "262144"})
+    public int size;
+
+    private final byte[] chunk = new byte[64];
+
+    @Benchmark
+    public int unpooledHeap() {
+        return fill(new UnpooledByteBuf(16));
+    }
+
+    @Benchmark
+    public int pooledHeap() {
+        return fill(ByteBufPool.acquire(16));
+    }
+
+    @Benchmark
+    public int pooledDirect() {
+        return fill(ByteBufPool.acquireDirect(16));
+    }
+
+    private int fill(ByteBuf buf) {
+        while (buf.writerIndex() < size) {
+            buf.writeBytes(chunk);
+        }
+        int capacity = buf.capacity();
+        buf.release();
+        return capacity;
+    }
+
+    @Benchmark
+    public int baselineByteArrayOutputStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+        while (out.size() < size) {
+            out.write(chunk, 0, chunk.length);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,114 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 跨线程交接 ByteBuf 的吞吐, SPSC/MPSC 环形队列与 ConcurrentLinkedQueue 对比
+ * 消费者释放收到的池化 ByteBuf, 内存经由生产者线程缓存的远程归还队列回到生产者
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandoffBenchmark {
+    private static final int CAPACITY = 1024;
+    private static final int BUFFER_SIZE = 256;
+
+    @State(Scope.Group)
+    public static class Queues {
+        final SpscRingQueue<ByteBuf> spsc = new SpscRingQueue<>(CAPACITY);
+        final MpscRingQueue<ByteBuf> mpsc = new MpscRingQueue<>(CAPACITY);
+        final Queue<ByteBuf> clq = new ConcurrentLinkedQueue<>();
+
+        @TearDown(Level.Iteration)
+        public void drain() {
+            release(spsc.poll());
+            release(mpsc.poll());
+            release(clq.poll());
+            spsc.drain(ByteBuf::release);
+            mpsc.drain(ByteBuf::release);
+            for (ByteBuf buf; (buf = clq.poll()) != null; ) {
+                buf.release();
+            }
+        }
+
+        private static void release(ByteBuf buf) {
+            if (buf != null) {
+                buf.release();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public boolean spscOffer(Queues queues) {
+        return offer(queues.spsc::offer);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public int spscPoll(Queues queues) {
+        return release(queues.spsc.poll());
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(3)
+    public boolean mpscOffer(Queues queues) {
+        return offer(queues.mpsc::offer);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public int mpscDrain(Queues queues) {
+        return queues.mpsc.drain(ByteBuf::release, 64);
+    }
+
+    @Benchmark
+    @Group("clq")
+    @GroupThreads(3)
+    public boolean clqOffer(Queues queues) {
+        // ConcurrentLinkedQueue 无界, 积压过多时不再生产以免撑爆内存
+        if (queues.clq.size() >= CAPACITY) {
+            return false;
+        }
+        return offer(queues.clq::offer);
+    }
+
+    @Benchmark
+    @Group("clq")
+    @GroupThreads(1)
+    public int clqPoll(Queues queues) {
+        return release(queues.clq.poll());
+    }
+
+    private static boolean offer(Predicate<ByteBuf> queue) {
+        ByteBuf buf = ByteBufPool.acquire(BUFFER_SIZE);
+        buf.writeLong(1L);
+        if (queue.test(buf)) {
+            return true;
+        }
+        buf.release();
+        return false;
+    }
+
+    private static int release(ByteBuf buf) {
+        if (buf == null) {
+            return 0;
+        }
+        buf.release();
+        return 1;
+    }
+}
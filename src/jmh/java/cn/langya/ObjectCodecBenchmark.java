@@ -0,0 +1,80 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * writeObject / readObject: Java 序列化回退、注册的 FieldCodec 与手写编解码器对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectCodecBenchmark {
+    public static class Order implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        long id;
+        int quantity;
+        double price;
+        String symbol;
+    }
+
+    private static final ByteBufCodec<Order> HAND_WRITTEN = new ByteBufCodec<Order>() {
+        @Override
+        public void encode(ByteBuf buf, Order value) {
+            buf.writeLong(value.id).writeInt(value.quantity).writeDouble(value.price).writeString(value.symbol, true);
+        }
+
+        @Override
+        public Order decode(ByteBuf buf) {
+            Order order = new Order();
+            order.id = buf.readLong();
+            order.quantity = buf.readInt();
+            order.price = buf.readDouble();
+            order.symbol = buf.readString(true);
+            return order;
+        }
+    };
+
+    private final ByteBufCodecRegistry registry = new ByteBufCodecRegistry().register(ByteBufCodecRegistry.MIN_USER_ID, Order.class);
+    private final ByteBuf buf = new UnpooledByteBuf(4096);
+    private final Order order = new Order();
+
+    @Setup
+    public void setup() {
+        order.id = 123456789L;
+        order.quantity = 42;
+        order.price = 99.5;
+        order.symbol = "LANGYA";
+    }
+
+    @Benchmark
+    public Object javaSerialization() throws IOException, ClassNotFoundException {
+        ByteBuf buf = this.buf.writerIndex(0).readerIndex(0);
+        buf.writeObject(order);
+        return buf.readObject();
+    }
+
+    @Benchmark
+    public Object registeredFieldCodec() {
+        ByteBuf buf = this.buf.writerIndex(0).readerIndex(0);
+        registry.writeObject(buf, order);
+        return registry.readObject(buf);
+    }
+
+    @Benchmark
+    public Object handWrittenCodec() {
+        ByteBuf buf = this.buf.writerIndex(0).readerIndex(0);
+        buf.writeObject(order, HAND_WRITTEN);
+        return buf.readObject(HAND_WRITTEN);
+    }
+}
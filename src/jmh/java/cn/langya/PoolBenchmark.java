@@ -0,0 +1,68 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ByteBufPool.acquire / release 在 1 到 N 个线程下的开销, 与每次新建对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolBenchmark {
+    @State(Scope.Benchmark)
+    public static class SizeState {
+        @Param({"256", "65536"})
+        public int size;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int acquireRelease1Thread(SizeState state) {
+        return acquireRelease(state.size);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int acquireRelease4Threads(SizeState state) {
+        return acquireRelease(state.size);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int acquireReleaseMaxThreads(SizeState state) {
+        return acquireRelease(state.size);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int acquireReleaseDirect4Threads(SizeState state) {
+        ByteBuf buf = ByteBufPool.acquireDirect(state.size);
+        buf.writeLong(1L);
+        int capacity = buf.capacity();
+        buf.release();
+        return capacity;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int baselineNewUnpooled4Threads(SizeState state) {
+        ByteBuf buf = new UnpooledByteBuf(state.size);
+        buf.writeLong(1L);
+        return buf.capacity();
+    }
+
+    private static int acquireRelease(int size) {
+        ByteBuf buf = ByteBufPool.acquire(size);
+        buf.writeLong(1L);
+        int capacity = buf.capacity();
+        buf.release();
+        return capacity;
+    }
+}
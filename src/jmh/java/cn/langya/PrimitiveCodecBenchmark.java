@@ -0,0 +1,154 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基本类型编解码: 每次写满再读回 1024 个值, 与 ByteBuffer 和手写数组移位对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveCodecBenchmark {
+    private static final int COUNT = 1024;
+
+    @State(Scope.Thread)
+    public static class BufState {
+        @Param({BenchmarkBuffers.HEAP, BenchmarkBuffers.POOLED_HEAP, BenchmarkBuffers.DIRECT,
+                BenchmarkBuffers.POOLED_DIRECT, BenchmarkBuffers.COMPOSITE})
+        public String type;
+
+        ByteBuf buf;
+
+        @Setup
+        public void setup() {
+            buf = BenchmarkBuffers.create(type, COUNT * 8);
+        }
+
+        @TearDown
+        public void tearDown() {
+            buf.release();
+        }
+    }
+
+    /**
+     * 基线只需跑一次, 不随 type 参数展开
+     */
+    @State(Scope.Thread)
+    public static class BaselineState {
+        final ByteBuffer heapBuffer = ByteBuffer.allocate(COUNT * 8);
+        final ByteBuffer directBuffer = ByteBuffer.allocateDirect(COUNT * 8);
+        final byte[] array = new byte[COUNT * 8];
+    }
+
+    @Benchmark
+    public long writeReadInt(BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        for (int i = 0; i < COUNT; i++) {
+            buf.writeInt(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buf.readInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long writeReadLong(BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        for (int i = 0; i < COUNT; i++) {
+            buf.writeLong(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buf.readLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long writeReadLongLE(BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        for (int i = 0; i < COUNT; i++) {
+            buf.writeLongLE(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buf.readLongLE();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long writeReadVarInt(BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        for (int i = 0; i < COUNT; i++) {
+            buf.writeVarInt(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buf.readVarInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long baselineHeapByteBufferLong(BaselineState state) {
+        return byteBufferLong(state.heapBuffer);
+    }
+
+    @Benchmark
+    public long baselineDirectByteBufferLong(BaselineState state) {
+        return byteBufferLong(state.directBuffer);
+    }
+
+    private static long byteBufferLong(ByteBuffer buffer) {
+        ((Buffer) buffer).clear();
+        for (int i = 0; i < COUNT; i++) {
+            buffer.putLong(i);
+        }
+        ((Buffer) buffer).flip();
+        long sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buffer.getLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long baselineArrayLong(BaselineState state) {
+        byte[] array = state.array;
+        for (int i = 0, index = 0; i < COUNT; i++, index += 8) {
+            long v = i;
+            array[index] = (byte) (v >>> 56);
+            array[index + 1] = (byte) (v >>> 48);
+            array[index + 2] = (byte) (v >>> 40);
+            array[index + 3] = (byte) (v >>> 32);
+            array[index + 4] = (byte) (v >>> 24);
+            array[index + 5] = (byte) (v >>> 16);
+            array[index + 6] = (byte) (v >>> 8);
+            array[index + 7] = (byte) v;
+        }
+        long sum = 0;
+        for (int i = 0, index = 0; i < COUNT; i++, index += 8) {
+            sum += (array[index] & 0xFFL) << 56 |
+                    (array[index + 1] & 0xFFL) << 48 |
+                    (array[index + 2] & 0xFFL) << 40 |
+                    (array[index + 3] & 0xFFL) << 32 |
+                    (array[index + 4] & 0xFFL) << 24 |
+                    (array[index + 5] & 0xFFL) << 16 |
+                    (array[index + 6] & 0xFFL) << 8 |
+                    array[index + 7] & 0xFFL;
+        }
+        return sum;
+    }
+}
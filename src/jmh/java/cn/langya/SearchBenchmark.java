@@ -0,0 +1,63 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在 4 KiB 数据末尾查找分隔符: SWAR 的 indexOf、ByteProcessor 遍历与逐个 getByte 对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    private static final int SIZE = 4096;
+
+    @State(Scope.Thread)
+    public static class BufState {
+        @Param({BenchmarkBuffers.HEAP, BenchmarkBuffers.DIRECT, BenchmarkBuffers.COMPOSITE})
+        public String type;
+
+        ByteBuf buf;
+
+        @Setup
+        public void setup() {
+            buf = BenchmarkBuffers.create(type, SIZE);
+            for (int i = 0; i < SIZE - 1; i++) {
+                buf.writeByte((byte) ('a' + i % 26));
+            }
+            buf.writeByte((byte) '\n');
+        }
+
+        @TearDown
+        public void tearDown() {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public int indexOf(BufState state) {
+        return state.buf.indexOf(0, SIZE, (byte) '\n');
+    }
+
+    @Benchmark
+    public int forEachByte(BufState state) {
+        return state.buf.forEachByte(ByteProcessor.FIND_LF);
+    }
+
+    @Benchmark
+    public int getByteLoop(BufState state) {
+        ByteBuf buf = state.buf;
+        for (int i = 0; i < SIZE; i++) {
+            if (buf.getByte(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,91 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * writeString / readString 往返, 与 getBytes + ByteBuffer 的常见写法对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringCodecBenchmark {
+    @State(Scope.Thread)
+    public static class StringState {
+        @Param({"ascii", "utf8"})
+        public String content;
+
+        @Param({"16", "256"})
+        public int length;
+
+        String value;
+
+        @Setup
+        public void setup() {
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append("ascii".equals(content) ? (char) ('a' + i % 26) : (char) (0x4e00 + i % 512));
+            }
+            value = sb.toString();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BufState {
+        @Param({BenchmarkBuffers.HEAP, BenchmarkBuffers.DIRECT, BenchmarkBuffers.COMPOSITE})
+        public String type;
+
+        ByteBuf buf;
+
+        @Setup
+        public void setup() {
+            buf = BenchmarkBuffers.create(type, 4096);
+        }
+
+        @TearDown
+        public void tearDown() {
+            buf.release();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BaselineState {
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+    }
+
+    @Benchmark
+    public String writeReadString(StringState s, BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        buf.writeString(s.value);
+        return buf.readString();
+    }
+
+    @Benchmark
+    public String writeReadStringVarIntLength(StringState s, BufState state) {
+        ByteBuf buf = state.buf.writerIndex(0).readerIndex(0);
+        buf.writeString(s.value, true);
+        return buf.readString(true);
+    }
+
+    @Benchmark
+    public String baselineByteBuffer(StringState s, BaselineState state) {
+        ByteBuffer buffer = state.buffer;
+        ((Buffer) buffer).clear();
+        byte[] data = s.value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(data.length);
+        buffer.put(data);
+        ((Buffer) buffer).flip();
+        byte[] read = new byte[buffer.getInt()];
+        buffer.get(read);
+        return new String(read, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,67 @@
+package cn.langya;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 创建 slice / duplicate 视图并读取一个值, 与 ByteBuffer 的同名操作对比
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewBenchmark {
+    @Param({BenchmarkBuffers.HEAP, BenchmarkBuffers.DIRECT, BenchmarkBuffers.COMPOSITE})
+    public String type;
+
+    private ByteBuf buf;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    @Setup
+    public void setup() {
+        buf = BenchmarkBuffers.create(type, 1024);
+        buf.writerIndex(1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+    }
+
+    @Benchmark
+    public long slice() {
+        return buf.slice(128, 256).getLong(8);
+    }
+
+    @Benchmark
+    public long duplicate() {
+        return buf.duplicate().getLong(136);
+    }
+
+    @Benchmark
+    public long retainedSlice() {
+        ByteBuf slice = buf.retainedSlice(128, 256);
+        long v = slice.getLong(8);
+        slice.release();
+        return v;
+    }
+
+    @Benchmark
+    public long baselineByteBufferSlice() {
+        ByteBuffer view = buffer.duplicate();
+        ((java.nio.Buffer) view).position(128).limit(384);
+        return view.slice().getLong(8);
+    }
+
+    @Benchmark
+    public long baselineByteBufferDuplicate() {
+        return buffer.duplicate().getLong(136);
+    }
+}
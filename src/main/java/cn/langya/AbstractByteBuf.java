@@ -0,0 +1,1624 @@
+package cn.langya;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * ByteBuf 公共基类, 负责读写指针、引用计数以及建立在基本读写之上的编解码
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public abstract class AbstractByteBuf implements ByteBuf {
+    private static final AtomicIntegerFieldUpdater<AbstractByteBuf> REF_CNT_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractByteBuf.class, "refCnt");
+
+    public int readerIndex;
+    public int writerIndex;
+    private volatile int refCnt = 1;
+    private int maxCapacity = Integer.MAX_VALUE;
+    private GrowthPolicy growthPolicy = GrowthPolicy.DEFAULT;
+    ResourceLeakDetector.LeakTracker leak;
+    private SwappedByteBuf swappedBuf;
+
+    @Override
+    public int readerIndex() {
+        return readerIndex;
+    }
+
+    @Override
+    public int writerIndex() {
+        return writerIndex;
+    }
+
+    @Override
+    public ByteBuf readerIndex(int readerIndex) {
+        this.readerIndex = readerIndex;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writerIndex(int writerIndex) {
+        this.writerIndex = writerIndex;
+        return this;
+    }
+
+    @Override
+    public int readableBytes() {
+        return writerIndex - readerIndex;
+    }
+
+    @Override
+    public int writableBytes() {
+        return capacity() - writerIndex;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return false;
+    }
+
+    public void clear() {
+        readerIndex = 0;
+        writerIndex = 0;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return maxCapacity;
+    }
+
+    @Override
+    public ByteBuf maxCapacity(int maxCapacity) {
+        if (maxCapacity < capacity()) {
+            throw new IllegalArgumentException("maxCapacity: " + maxCapacity + " (expected: >= capacity " + capacity() + ")");
+        }
+        this.maxCapacity = maxCapacity;
+        return this;
+    }
+
+    @Override
+    public int maxWritableBytes() {
+        // 池化内存按尺寸等级取整, 实际容量可能略大于 maxCapacity
+        return Math.max(maxCapacity(), capacity()) - writerIndex;
+    }
+
+    @Override
+    public ByteBuf growthPolicy(GrowthPolicy growthPolicy) {
+        if (growthPolicy == null) {
+            throw new NullPointerException("growthPolicy");
+        }
+        this.growthPolicy = growthPolicy;
+        return this;
+    }
+
+    GrowthPolicy growthPolicy() {
+        return growthPolicy;
+    }
+
+    /**
+     * 调整容量, 缩容时丢弃 newCapacity 之后的内容, 读写指针随之收回
+     */
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > maxCapacity()) {
+            throw new IllegalArgumentException("newCapacity: " + newCapacity + " (expected: 0-" + maxCapacity() + ")");
+        }
+        if (newCapacity != capacity()) {
+            adjustCapacity(newCapacity);
+        }
+        if (writerIndex > newCapacity) {
+            writerIndex = newCapacity;
+            readerIndex = Math.min(readerIndex, newCapacity);
+        }
+        return this;
+    }
+
+    /**
+     * 把未读的字节移到开头, 释放已读部分供后续写入, 容量不变
+     */
+    @Override
+    public ByteBuf discardReadBytes() {
+        int readerIndex = this.readerIndex;
+        if (readerIndex == 0) {
+            return this;
+        }
+        checkReadableBytes(0);
+        int length = writerIndex - readerIndex;
+        if (length > 0) {
+            moveBytes(readerIndex, length);
+        }
+        this.writerIndex = length;
+        this.readerIndex = 0;
+        return this;
+    }
+
+    /**
+     * 全部读完时只重置指针, 已读部分超过容量一半时才移动数据, 适合在每次读取后调用
+     */
+    @Override
+    public ByteBuf discardSomeReadBytes() {
+        int readerIndex = this.readerIndex;
+        if (readerIndex == 0) {
+            return this;
+        }
+        if (readerIndex == writerIndex) {
+            checkReadableBytes(0);
+            this.readerIndex = this.writerIndex = 0;
+        } else if (readerIndex >= capacity() >>> 1) {
+            discardReadBytes();
+        }
+        return this;
+    }
+
+    /**
+     * 把 [srcIndex, srcIndex + length) 复制到开头, 目标在源之前, 按 8 字节从前向后复制不会覆盖未读数据
+     */
+    protected void moveBytes(int srcIndex, int length) {
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            _setLong(i, _getLong(srcIndex + i));
+        }
+        for (; i < length; i++) {
+            _setByte(i, _getByte(srcIndex + i));
+        }
+    }
+
+    /**
+     * 读写指针是公开字段, 这里同时校验它们仍在容量范围内, 之后的无检查访问才是安全的
+     */
+    protected void checkReadableBytes(int minimumReadableBytes) {
+        int readerIndex = this.readerIndex;
+        int writerIndex = this.writerIndex;
+        if (readerIndex < 0 || minimumReadableBytes < 0 || minimumReadableBytes > writerIndex - readerIndex || writerIndex > capacity()) {
+            throw new IndexOutOfBoundsException("Not enough readable bytes. Required: " + minimumReadableBytes + ", Available: " + (writerIndex - readerIndex));
+        }
+    }
+
+    protected void checkIndex(int index, int fieldLength) {
+        if (index < 0 || fieldLength < 0 || index > capacity() - fieldLength) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + fieldLength + " (expected: range(0, " + capacity() + "))");
+        }
+    }
+
+    protected static void checkRangeBounds(int arrayLength, int index, int length) {
+        if (index < 0 || length < 0 || index > arrayLength - length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + " (expected: range(0, " + arrayLength + "))");
+        }
+    }
+
+    @Override
+    public ByteBuf ensureWritable(int minWritableBytes) {
+        int writerIndex = this.writerIndex;
+        int capacity = capacity();
+        if (writerIndex < 0 || minWritableBytes < 0 || writerIndex > capacity) {
+            throw new IndexOutOfBoundsException("writerIndex: " + writerIndex + ", minWritableBytes: " + minWritableBytes + " (capacity: " + capacity + ")");
+        }
+        if (minWritableBytes > capacity - writerIndex) {
+            // 通过方法读取上限和增长策略, 让视图使用父 ByteBuf 的设置
+            int maxCapacity = maxCapacity();
+            if (minWritableBytes > maxCapacity - writerIndex) {
+                throw new IndexOutOfBoundsException("writerIndex(" + writerIndex + ") + minWritableBytes(" + minWritableBytes +
+                        ") exceeds maxCapacity(" + maxCapacity + ")");
+            }
+            int required = writerIndex + minWritableBytes;
+            int newCapacity = growthPolicy().newCapacity(capacity, required, maxCapacity);
+            if (newCapacity < required || newCapacity > maxCapacity) {
+                throw new IllegalStateException("growth policy returned " + newCapacity + " (expected: " + required + "-" + maxCapacity + ")");
+            }
+            adjustCapacity(newCapacity);
+        }
+        return this;
+    }
+
+    /**
+     * 将底层存储调整到 newCapacity 并保留两者中较小长度的内容, 不可调整的实现抛出 IndexOutOfBoundsException
+     */
+    protected abstract void adjustCapacity(int newCapacity);
+
+    // 底层存储只需实现以下不做边界检查的大端序访问, 调用方负责检查
+    protected abstract byte _getByte(int index);
+
+    protected abstract void _setByte(int index, byte value);
+
+    protected abstract short _getShort(int index);
+
+    protected abstract void _setShort(int index, short value);
+
+    protected abstract int _getInt(int index);
+
+    protected abstract void _setInt(int index, int value);
+
+    protected abstract long _getLong(int index);
+
+    protected abstract void _setLong(int index, long value);
+
+    // 小端序访问默认由大端序结果翻转得到, 能直接按本机字节序读写的存储应覆盖
+    protected short _getShortLE(int index) {
+        return Short.reverseBytes(_getShort(index));
+    }
+
+    protected void _setShortLE(int index, short value) {
+        _setShort(index, Short.reverseBytes(value));
+    }
+
+    protected int _getIntLE(int index) {
+        return Integer.reverseBytes(_getInt(index));
+    }
+
+    protected void _setIntLE(int index, int value) {
+        _setInt(index, Integer.reverseBytes(value));
+    }
+
+    protected long _getLongLE(int index) {
+        return Long.reverseBytes(_getLong(index));
+    }
+
+    protected void _setLongLE(int index, long value) {
+        _setLong(index, Long.reverseBytes(value));
+    }
+
+    @Override
+    public byte readByte() {
+        checkReadableBytes(1);
+        return _getByte(readerIndex++);
+    }
+
+    @Override
+    public ByteBuf writeByte(byte b) {
+        ensureWritable(1);
+        _setByte(writerIndex++, b);
+        return this;
+    }
+
+    @Override
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        return _getByte(index);
+    }
+
+    @Override
+    public ByteBuf setByte(int index, byte b) {
+        checkIndex(index, 1);
+        _setByte(index, b);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeBytes(byte[] src) {
+        return writeBytes(src, 0, src.length);
+    }
+
+    @Override
+    public ByteBuf writeBytes(byte[] src, int srcIndex, int length) {
+        checkRangeBounds(src.length, srcIndex, length);
+        ensureWritable(length);
+        setBytes(writerIndex, src, srcIndex, length);
+        writerIndex += length;
+        return this;
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        if (length < 0 || readerIndex + length > writerIndex) {
+            throw new IndexOutOfBoundsException("readBytes: Not enough readable bytes. Required: " + length + ", Available: " + (writerIndex - readerIndex));
+        }
+        byte[] dst = new byte[length];
+        getBytes(readerIndex, dst, 0, length);
+        readerIndex += length;
+        return dst;
+    }
+
+    @Override
+    public ByteBuf readBytes(byte[] dst, int dstIndex, int length) {
+        checkReadableBytes(length);
+        getBytes(readerIndex, dst, dstIndex, length);
+        readerIndex += length;
+        return this;
+    }
+
+    @Override
+    public int writeBytes(ReadableByteChannel in, int length) throws IOException {
+        ensureWritable(length);
+        int written = setBytes(writerIndex, in, length);
+        if (written > 0) {
+            writerIndex += written;
+        }
+        return written;
+    }
+
+    @Override
+    public int writeBytes(FileChannel in, long position, int length) throws IOException {
+        ensureWritable(length);
+        int written = setBytes(writerIndex, in, position, length);
+        if (written > 0) {
+            writerIndex += written;
+        }
+        return written;
+    }
+
+    @Override
+    public int readBytes(WritableByteChannel out, int length) throws IOException {
+        checkReadableBytes(length);
+        int read = getBytes(readerIndex, out, length);
+        readerIndex += read;
+        return read;
+    }
+
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        checkReadableBytes(length);
+        int read = getBytes(readerIndex, out, position, length);
+        readerIndex += read;
+        return read;
+    }
+
+    /**
+     * 多段内存时对支持聚集写的通道只调用一次 write, 否则逐段写直到通道写不下
+     */
+    @Override
+    public int getBytes(int index, WritableByteChannel out, int length) throws IOException {
+        ByteBuffer[] buffers = nioBuffers(index, length);
+        if (buffers.length == 1) {
+            return out.write(buffers[0]);
+        }
+        if (out instanceof GatheringByteChannel) {
+            return (int) ((GatheringByteChannel) out).write(buffers);
+        }
+        int total = 0;
+        for (ByteBuffer buffer : buffers) {
+            int expected = buffer.remaining();
+            int written = out.write(buffer);
+            total += written;
+            if (written < expected) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        int total = 0;
+        for (ByteBuffer buffer : nioBuffers(index, length)) {
+            int expected = buffer.remaining();
+            int written = out.write(buffer, position + total);
+            total += written;
+            if (written < expected) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int setBytes(int index, ReadableByteChannel in, int length) throws IOException {
+        ByteBuffer[] buffers = nioBuffers(index, length);
+        if (buffers.length == 1) {
+            return in.read(buffers[0]);
+        }
+        if (in instanceof ScatteringByteChannel) {
+            return (int) ((ScatteringByteChannel) in).read(buffers);
+        }
+        int total = 0;
+        for (ByteBuffer buffer : buffers) {
+            int expected = buffer.remaining();
+            int read = in.read(buffer);
+            if (read < 0) {
+                return total == 0 ? -1 : total;
+            }
+            total += read;
+            if (read < expected) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        int total = 0;
+        for (ByteBuffer buffer : nioBuffers(index, length)) {
+            int expected = buffer.remaining();
+            int read = in.read(buffer, position + total);
+            if (read < 0) {
+                return total == 0 ? -1 : total;
+            }
+            total += read;
+            if (read < expected) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return 1;
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers() {
+        return nioBuffers(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        return new ByteBuffer[]{nioBuffer(index, length)};
+    }
+
+    @Override
+    public ByteBuf writeShort(short value) {
+        ensureWritable(2);
+        _setShort(writerIndex, value);
+        writerIndex += 2;
+        return this;
+    }
+
+    @Override
+    public short readShort() {
+        checkReadableBytes(2);
+        short v = _getShort(readerIndex);
+        readerIndex += 2;
+        return v;
+    }
+
+    @Override
+    public short getShort(int index) {
+        checkIndex(index, 2);
+        return _getShort(index);
+    }
+
+    @Override
+    public ByteBuf setShort(int index, short value) {
+        checkIndex(index, 2);
+        _setShort(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeInt(int value) {
+        ensureWritable(4);
+        _setInt(writerIndex, value);
+        writerIndex += 4;
+        return this;
+    }
+
+    @Override
+    public int readInt() {
+        checkReadableBytes(4);
+        int v = _getInt(readerIndex);
+        readerIndex += 4;
+        return v;
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index, 4);
+        return _getInt(index);
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        checkIndex(index, 4);
+        _setInt(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLong(long value) {
+        ensureWritable(8);
+        _setLong(writerIndex, value);
+        writerIndex += 8;
+        return this;
+    }
+
+    @Override
+    public long readLong() {
+        checkReadableBytes(8);
+        long v = _getLong(readerIndex);
+        readerIndex += 8;
+        return v;
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index, 8);
+        return _getLong(index);
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        checkIndex(index, 8);
+        _setLong(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeChar(char value) {
+        return writeShort((short) value);
+    }
+
+    @Override
+    public char readChar() {
+        return (char) readShort();
+    }
+
+    @Override
+    public char getChar(int index) {
+        return (char) getShort(index);
+    }
+
+    @Override
+    public ByteBuf setChar(int index, char value) {
+        return setShort(index, (short) value);
+    }
+
+    @Override
+    public ByteBuf writeFloat(float value) {
+        return writeInt(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public float getFloat(int index) {
+        return Float.intBitsToFloat(getInt(index));
+    }
+
+    @Override
+    public ByteBuf setFloat(int index, float value) {
+        return setInt(index, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public ByteBuf writeDouble(double value) {
+        return writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return Double.longBitsToDouble(getLong(index));
+    }
+
+    @Override
+    public ByteBuf setDouble(int index, double value) {
+        return setLong(index, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public ByteBuf writeShortLE(short value) {
+        ensureWritable(2);
+        _setShortLE(writerIndex, value);
+        writerIndex += 2;
+        return this;
+    }
+
+    @Override
+    public short readShortLE() {
+        checkReadableBytes(2);
+        short v = _getShortLE(readerIndex);
+        readerIndex += 2;
+        return v;
+    }
+
+    @Override
+    public short getShortLE(int index) {
+        checkIndex(index, 2);
+        return _getShortLE(index);
+    }
+
+    @Override
+    public ByteBuf setShortLE(int index, short value) {
+        checkIndex(index, 2);
+        _setShortLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        ensureWritable(4);
+        _setIntLE(writerIndex, value);
+        writerIndex += 4;
+        return this;
+    }
+
+    @Override
+    public int readIntLE() {
+        checkReadableBytes(4);
+        int v = _getIntLE(readerIndex);
+        readerIndex += 4;
+        return v;
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        checkIndex(index, 4);
+        return _getIntLE(index);
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        checkIndex(index, 4);
+        _setIntLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        ensureWritable(8);
+        _setLongLE(writerIndex, value);
+        writerIndex += 8;
+        return this;
+    }
+
+    @Override
+    public long readLongLE() {
+        checkReadableBytes(8);
+        long v = _getLongLE(readerIndex);
+        readerIndex += 8;
+        return v;
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        checkIndex(index, 8);
+        return _getLongLE(index);
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        checkIndex(index, 8);
+        _setLongLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeFloatLE(float value) {
+        return writeIntLE(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public float readFloatLE() {
+        return Float.intBitsToFloat(readIntLE());
+    }
+
+    @Override
+    public float getFloatLE(int index) {
+        return Float.intBitsToFloat(getIntLE(index));
+    }
+
+    @Override
+    public ByteBuf setFloatLE(int index, float value) {
+        return setIntLE(index, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public ByteBuf writeDoubleLE(double value) {
+        return writeLongLE(Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public double readDoubleLE() {
+        return Double.longBitsToDouble(readLongLE());
+    }
+
+    @Override
+    public double getDoubleLE(int index) {
+        return Double.longBitsToDouble(getLongLE(index));
+    }
+
+    @Override
+    public ByteBuf setDoubleLE(int index, double value) {
+        return setLongLE(index, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public int indexOf(int fromIndex, int toIndex, byte value) {
+        int capacity = capacity();
+        if (fromIndex <= toIndex) {
+            fromIndex = Math.max(fromIndex, 0);
+            toIndex = Math.min(toIndex, capacity);
+            return fromIndex >= toIndex ? -1 : firstIndexOf(fromIndex, toIndex, value);
+        }
+        fromIndex = Math.min(fromIndex, capacity);
+        toIndex = Math.max(toIndex, 0);
+        return fromIndex <= toIndex ? -1 : lastIndexOf(fromIndex, toIndex, value);
+    }
+
+    /**
+     * 在 [fromIndex, toIndex) 中从前向后查找, 调用方已把范围限制在容量内
+     * 默认实现每次读 8 字节按 SWAR 同时比较, 剩余不足 8 字节时逐字节比较
+     */
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        long pattern = swarPattern(value);
+        int i = fromIndex;
+        for (; i <= toIndex - 8; i += 8) {
+            long match = swarMatch(_getLong(i), pattern);
+            if (match != 0) {
+                return i + (Long.numberOfLeadingZeros(match) >>> 3);
+            }
+        }
+        for (; i < toIndex; i++) {
+            if (_getByte(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 在 [toIndex, fromIndex) 中从后向前查找
+     */
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        long pattern = swarPattern(value);
+        int i = fromIndex;
+        for (; i >= toIndex + 8; i -= 8) {
+            long match = swarMatch(_getLong(i - 8), pattern);
+            if (match != 0) {
+                return i - 8 + (63 - Long.numberOfTrailingZeros(match) >>> 3);
+            }
+        }
+        while (--i >= toIndex) {
+            if (_getByte(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static long swarPattern(byte value) {
+        return (value & 0xFFL) * 0x0101010101010101L;
+    }
+
+    /**
+     * 按大端序读出的 word 中与 pattern 相等的字节置 0x80, 其余为 0, 不会误报
+     */
+    static long swarMatch(long word, long pattern) {
+        long input = word ^ pattern;
+        long tmp = (input & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL;
+        return ~(tmp | input | 0x7F7F7F7F7F7F7F7FL);
+    }
+
+    @Override
+    public int bytesBefore(byte value) {
+        return bytesBefore(readerIndex, readableBytes(), value);
+    }
+
+    @Override
+    public int bytesBefore(int length, byte value) {
+        checkReadableBytes(length);
+        return bytesBefore(readerIndex, length, value);
+    }
+
+    @Override
+    public int bytesBefore(int index, int length, byte value) {
+        checkIndex(index, length);
+        int found = indexOf(index, index + length, value);
+        return found < 0 ? -1 : found - index;
+    }
+
+    @Override
+    public int forEachByte(ByteProcessor processor) {
+        return forEachByte(readerIndex, readableBytes(), processor);
+    }
+
+    @Override
+    public int forEachByte(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        for (int i = index, end = index + length; i < end; i++) {
+            if (!processor.process(_getByte(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int forEachByteDesc(ByteProcessor processor) {
+        return forEachByteDesc(readerIndex, readableBytes(), processor);
+    }
+
+    @Override
+    public int forEachByteDesc(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        for (int i = index + length - 1; i >= index; i--) {
+            if (!processor.process(_getByte(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 字节序与本机一致时可以整块复制内存, 否则逐个元素宽读写
+     */
+    private static final boolean RAW_COPY = PlatformDependent.hasUnsafe();
+    private static final boolean LITTLE_ENDIAN_NATIVE_ORDER = !PlatformDependent.BIG_ENDIAN_NATIVE_ORDER;
+
+    /**
+     * 把 src 对象从 srcOffset 开始的 length 字节原样复制到 index 处, 偏移含义同 Unsafe.copyMemory
+     * 调用方已做边界检查; 不支持直接访问内存的实现返回 false, 由调用方逐个元素写入
+     */
+    protected boolean _setRaw(int index, Object src, long srcOffset, int length) {
+        return false;
+    }
+
+    protected boolean _getRaw(int index, Object dst, long dstOffset, int length) {
+        return false;
+    }
+
+    /**
+     * length 个宽度为 1 << shift 的元素占用的字节数
+     */
+    static int bulkBytes(int length, int shift) {
+        if (length > Integer.MAX_VALUE >> shift) {
+            throw new IndexOutOfBoundsException("length: " + length + " exceeds Integer.MAX_VALUE bytes");
+        }
+        return length << shift;
+    }
+
+    private int beginBulkWrite(int arrayLength, int srcIndex, int length, int shift) {
+        checkRangeBounds(arrayLength, srcIndex, length);
+        int bytes = bulkBytes(length, shift);
+        ensureWritable(bytes);
+        return bytes;
+    }
+
+    private int beginBulkRead(int arrayLength, int dstIndex, int length, int shift) {
+        checkRangeBounds(arrayLength, dstIndex, length);
+        int bytes = bulkBytes(length, shift);
+        checkReadableBytes(bytes);
+        return bytes;
+    }
+
+    @Override
+    public ByteBuf writeShorts(short[] src, int srcIndex, int length) {
+        return writeShorts(src, srcIndex, length, false);
+    }
+
+    ByteBuf writeShorts(short[] src, int srcIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkWrite(src.length, srcIndex, length, 1);
+        int index = writerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _setRaw(index, src, PlatformDependent.SHORT_ARRAY_BASE_OFFSET + ((long) srcIndex << 1), bytes))) {
+            for (int i = srcIndex, end = srcIndex + length; i < end; i++, index += 2) {
+                if (littleEndian) {
+                    _setShortLE(index, src[i]);
+                } else {
+                    _setShort(index, src[i]);
+                }
+            }
+        }
+        writerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf readShorts(short[] dst, int dstIndex, int length) {
+        return readShorts(dst, dstIndex, length, false);
+    }
+
+    ByteBuf readShorts(short[] dst, int dstIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkRead(dst.length, dstIndex, length, 1);
+        int index = readerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _getRaw(index, dst, PlatformDependent.SHORT_ARRAY_BASE_OFFSET + ((long) dstIndex << 1), bytes))) {
+            for (int i = dstIndex, end = dstIndex + length; i < end; i++, index += 2) {
+                dst[i] = littleEndian ? _getShortLE(index) : _getShort(index);
+            }
+        }
+        readerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeChars(char[] src, int srcIndex, int length) {
+        return writeChars(src, srcIndex, length, false);
+    }
+
+    ByteBuf writeChars(char[] src, int srcIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkWrite(src.length, srcIndex, length, 1);
+        int index = writerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _setRaw(index, src, PlatformDependent.CHAR_ARRAY_BASE_OFFSET + ((long) srcIndex << 1), bytes))) {
+            for (int i = srcIndex, end = srcIndex + length; i < end; i++, index += 2) {
+                if (littleEndian) {
+                    _setShortLE(index, (short) src[i]);
+                } else {
+                    _setShort(index, (short) src[i]);
+                }
+            }
+        }
+        writerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf readChars(char[] dst, int dstIndex, int length) {
+        return readChars(dst, dstIndex, length, false);
+    }
+
+    ByteBuf readChars(char[] dst, int dstIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkRead(dst.length, dstIndex, length, 1);
+        int index = readerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _getRaw(index, dst, PlatformDependent.CHAR_ARRAY_BASE_OFFSET + ((long) dstIndex << 1), bytes))) {
+            for (int i = dstIndex, end = dstIndex + length; i < end; i++, index += 2) {
+                dst[i] = (char) (littleEndian ? _getShortLE(index) : _getShort(index));
+            }
+        }
+        readerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeInts(int[] src, int srcIndex, int length) {
+        return writeInts(src, srcIndex, length, false);
+    }
+
+    ByteBuf writeInts(int[] src, int srcIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkWrite(src.length, srcIndex, length, 2);
+        int index = writerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _setRaw(index, src, PlatformDependent.INT_ARRAY_BASE_OFFSET + ((long) srcIndex << 2), bytes))) {
+            for (int i = srcIndex, end = srcIndex + length; i < end; i++, index += 4) {
+                if (littleEndian) {
+                    _setIntLE(index, src[i]);
+                } else {
+                    _setInt(index, src[i]);
+                }
+            }
+        }
+        writerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf readInts(int[] dst, int dstIndex, int length) {
+        return readInts(dst, dstIndex, length, false);
+    }
+
+    ByteBuf readInts(int[] dst, int dstIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkRead(dst.length, dstIndex, length, 2);
+        int index = readerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _getRaw(index, dst, PlatformDependent.INT_ARRAY_BASE_OFFSET + ((long) dstIndex << 2), bytes))) {
+            for (int i = dstIndex, end = dstIndex + length; i < end; i++, index += 4) {
+                dst[i] = littleEndian ? _getIntLE(index) : _getInt(index);
+            }
+        }
+        readerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongs(long[] src, int srcIndex, int length) {
+        return writeLongs(src, srcIndex, length, false);
+    }
+
+    ByteBuf writeLongs(long[] src, int srcIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkWrite(src.length, srcIndex, length, 3);
+        int index = writerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _setRaw(index, src, PlatformDependent.LONG_ARRAY_BASE_OFFSET + ((long) srcIndex << 3), bytes))) {
+            for (int i = srcIndex, end = srcIndex + length; i < end; i++, index += 8) {
+                if (littleEndian) {
+                    _setLongLE(index, src[i]);
+                } else {
+                    _setLong(index, src[i]);
+                }
+            }
+        }
+        writerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf readLongs(long[] dst, int dstIndex, int length) {
+        return readLongs(dst, dstIndex, length, false);
+    }
+
+    ByteBuf readLongs(long[] dst, int dstIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkRead(dst.length, dstIndex, length, 3);
+        int index = readerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _getRaw(index, dst, PlatformDependent.LONG_ARRAY_BASE_OFFSET + ((long) dstIndex << 3), bytes))) {
+            for (int i = dstIndex, end = dstIndex + length; i < end; i++, index += 8) {
+                dst[i] = littleEndian ? _getLongLE(index) : _getLong(index);
+            }
+        }
+        readerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeFloats(float[] src, int srcIndex, int length) {
+        return writeFloats(src, srcIndex, length, false);
+    }
+
+    ByteBuf writeFloats(float[] src, int srcIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkWrite(src.length, srcIndex, length, 2);
+        int index = writerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _setRaw(index, src, PlatformDependent.FLOAT_ARRAY_BASE_OFFSET + ((long) srcIndex << 2), bytes))) {
+            for (int i = srcIndex, end = srcIndex + length; i < end; i++, index += 4) {
+                int bits = Float.floatToRawIntBits(src[i]);
+                if (littleEndian) {
+                    _setIntLE(index, bits);
+                } else {
+                    _setInt(index, bits);
+                }
+            }
+        }
+        writerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf readFloats(float[] dst, int dstIndex, int length) {
+        return readFloats(dst, dstIndex, length, false);
+    }
+
+    ByteBuf readFloats(float[] dst, int dstIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkRead(dst.length, dstIndex, length, 2);
+        int index = readerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _getRaw(index, dst, PlatformDependent.FLOAT_ARRAY_BASE_OFFSET + ((long) dstIndex << 2), bytes))) {
+            for (int i = dstIndex, end = dstIndex + length; i < end; i++, index += 4) {
+                dst[i] = Float.intBitsToFloat(littleEndian ? _getIntLE(index) : _getInt(index));
+            }
+        }
+        readerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeDoubles(double[] src, int srcIndex, int length) {
+        return writeDoubles(src, srcIndex, length, false);
+    }
+
+    ByteBuf writeDoubles(double[] src, int srcIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkWrite(src.length, srcIndex, length, 3);
+        int index = writerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _setRaw(index, src, PlatformDependent.DOUBLE_ARRAY_BASE_OFFSET + ((long) srcIndex << 3), bytes))) {
+            for (int i = srcIndex, end = srcIndex + length; i < end; i++, index += 8) {
+                long bits = Double.doubleToRawLongBits(src[i]);
+                if (littleEndian) {
+                    _setLongLE(index, bits);
+                } else {
+                    _setLong(index, bits);
+                }
+            }
+        }
+        writerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public ByteBuf readDoubles(double[] dst, int dstIndex, int length) {
+        return readDoubles(dst, dstIndex, length, false);
+    }
+
+    ByteBuf readDoubles(double[] dst, int dstIndex, int length, boolean littleEndian) {
+        int bytes = beginBulkRead(dst.length, dstIndex, length, 3);
+        int index = readerIndex;
+        if (!(RAW_COPY && littleEndian == LITTLE_ENDIAN_NATIVE_ORDER
+                && _getRaw(index, dst, PlatformDependent.DOUBLE_ARRAY_BASE_OFFSET + ((long) dstIndex << 3), bytes))) {
+            for (int i = dstIndex, end = dstIndex + length; i < end; i++, index += 8) {
+                dst[i] = Double.longBitsToDouble(littleEndian ? _getLongLE(index) : _getLong(index));
+            }
+        }
+        readerIndex += bytes;
+        return this;
+    }
+
+    @Override
+    public IntBuffer asIntBuffer(int index, int count) {
+        return nioBuffer(index, bulkBytes(count, 2)).order(order()).asIntBuffer();
+    }
+
+    @Override
+    public LongBuffer asLongBuffer(int index, int count) {
+        return nioBuffer(index, bulkBytes(count, 3)).order(order()).asLongBuffer();
+    }
+
+    @Override
+    public FloatBuffer asFloatBuffer(int index, int count) {
+        return nioBuffer(index, bulkBytes(count, 2)).order(order()).asFloatBuffer();
+    }
+
+    @Override
+    public DoubleBuffer asDoubleBuffer(int index, int count) {
+        return nioBuffer(index, bulkBytes(count, 3)).order(order()).asDoubleBuffer();
+    }
+
+    /**
+     * 无符号 LEB128, 与 protobuf 的 uint32 编码一致, 负数固定占 5 字节, 有符号值请用 ZigZag 版本
+     */
+    @Override
+    public ByteBuf writeVarInt(int value) {
+        if ((value & ~0x7F) == 0) {
+            ensureWritable(1);
+            _setByte(writerIndex++, (byte) value);
+            return this;
+        }
+        ensureWritable(ByteBufUtil.varIntSize(value));
+        writerIndex += _setVarInt(writerIndex, value);
+        return this;
+    }
+
+    /**
+     * 在 index 处写入 varint, 调用方负责容量检查, 返回写入的字节数
+     */
+    private int _setVarInt(int index, int value) {
+        int start = index;
+        while ((value & ~0x7F) != 0) {
+            _setByte(index++, (byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        _setByte(index++, (byte) value);
+        return index - start;
+    }
+
+    @Override
+    public ByteBuf writeVarLong(long value) {
+        if ((value & ~0x7FL) == 0) {
+            ensureWritable(1);
+            _setByte(writerIndex++, (byte) value);
+            return this;
+        }
+        ensureWritable(ByteBufUtil.varLongSize(value));
+        int index = writerIndex;
+        while ((value & ~0x7FL) != 0) {
+            _setByte(index++, (byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        _setByte(index++, (byte) value);
+        writerIndex = index;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeSignedVarInt(int value) {
+        return writeVarInt(ByteBufUtil.encodeZigZag32(value));
+    }
+
+    @Override
+    public ByteBuf writeSignedVarLong(long value) {
+        return writeVarLong(ByteBufUtil.encodeZigZag64(value));
+    }
+
+    /**
+     * 可读字节足够时展开成无逐字节检查的快速路径, 只有缓冲区末尾才走逐字节检查
+     * 与 protobuf 一样接受按 64 位符号扩展写出的 10 字节负数, 高位被丢弃
+     */
+    @Override
+    public int readVarInt() {
+        if (readableBytes() < 10) {
+            return readVarIntSlow();
+        }
+        checkReadableBytes(10);
+        int i = readerIndex;
+        int x;
+        if ((x = _getByte(i++)) >= 0) {
+            readerIndex = i;
+            return x;
+        } else if ((x ^= _getByte(i++) << 7) < 0) {
+            x ^= ~0 << 7;
+        } else if ((x ^= _getByte(i++) << 14) >= 0) {
+            x ^= ~0 << 7 ^ ~0 << 14;
+        } else if ((x ^= _getByte(i++) << 21) < 0) {
+            x ^= ~0 << 7 ^ ~0 << 14 ^ ~0 << 21;
+        } else {
+            int y = _getByte(i++);
+            x ^= y << 28;
+            x ^= ~0 << 7 ^ ~0 << 14 ^ ~0 << 21 ^ ~0 << 28;
+            if (y < 0
+                    && _getByte(i++) < 0
+                    && _getByte(i++) < 0
+                    && _getByte(i++) < 0
+                    && _getByte(i++) < 0
+                    && _getByte(i++) < 0) {
+                throw new IllegalStateException("malformed varint");
+            }
+        }
+        readerIndex = i;
+        return x;
+    }
+
+    private int readVarIntSlow() {
+        int result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            if (shift < 32) {
+                result |= (b & 0x7F) << shift;
+            }
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("malformed varint");
+    }
+
+    @Override
+    public long readVarLong() {
+        if (readableBytes() < 10) {
+            return readVarLongSlow();
+        }
+        checkReadableBytes(10);
+        int i = readerIndex;
+        long x;
+        int y;
+        if ((y = _getByte(i++)) >= 0) {
+            readerIndex = i;
+            return y;
+        } else if ((y ^= _getByte(i++) << 7) < 0) {
+            x = y ^ ~0 << 7;
+        } else if ((y ^= _getByte(i++) << 14) >= 0) {
+            x = y ^ (~0 << 7 ^ ~0 << 14);
+        } else if ((y ^= _getByte(i++) << 21) < 0) {
+            x = y ^ (~0 << 7 ^ ~0 << 14 ^ ~0 << 21);
+        } else if ((x = y ^ (long) _getByte(i++) << 28) >= 0L) {
+            x ^= ~0L << 7 ^ ~0L << 14 ^ ~0L << 21 ^ ~0L << 28;
+        } else if ((x ^= (long) _getByte(i++) << 35) < 0L) {
+            x ^= ~0L << 7 ^ ~0L << 14 ^ ~0L << 21 ^ ~0L << 28 ^ ~0L << 35;
+        } else if ((x ^= (long) _getByte(i++) << 42) >= 0L) {
+            x ^= ~0L << 7 ^ ~0L << 14 ^ ~0L << 21 ^ ~0L << 28 ^ ~0L << 35 ^ ~0L << 42;
+        } else if ((x ^= (long) _getByte(i++) << 49) < 0L) {
+            x ^= ~0L << 7 ^ ~0L << 14 ^ ~0L << 21 ^ ~0L << 28 ^ ~0L << 35 ^ ~0L << 42 ^ ~0L << 49;
+        } else {
+            x ^= (long) _getByte(i++) << 56;
+            x ^= ~0L << 7 ^ ~0L << 14 ^ ~0L << 21 ^ ~0L << 28 ^ ~0L << 35 ^ ~0L << 42 ^ ~0L << 49 ^ ~0L << 56;
+            if (x < 0L && _getByte(i++) < 0) {
+                throw new IllegalStateException("malformed varint");
+            }
+        }
+        readerIndex = i;
+        return x;
+    }
+
+    private long readVarLongSlow() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("malformed varint");
+    }
+
+    @Override
+    public int readSignedVarInt() {
+        return ByteBufUtil.decodeZigZag32(readVarInt());
+    }
+
+    @Override
+    public long readSignedVarLong() {
+        return ByteBufUtil.decodeZigZag64(readVarLong());
+    }
+
+    @Override
+    public boolean hasArray() {
+        return false;
+    }
+
+    @Override
+    public byte[] array() {
+        throw new UnsupportedOperationException("buffer is not backed by an accessible byte array");
+    }
+
+    @Override
+    public int arrayOffset() {
+        throw new UnsupportedOperationException("buffer is not backed by an accessible byte array");
+    }
+
+    @Override
+    public ByteOrder order() {
+        return ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    public ByteBuf order(ByteOrder endianness) {
+        if (endianness == null) {
+            throw new NullPointerException("endianness");
+        }
+        if (endianness == ByteOrder.BIG_ENDIAN) {
+            return this;
+        }
+        SwappedByteBuf swappedBuf = this.swappedBuf;
+        if (swappedBuf == null) {
+            this.swappedBuf = swappedBuf = new SwappedByteBuf(this);
+        }
+        return swappedBuf;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    @Override
+    public ByteBuf writeBoolean(boolean value) {
+        writeByte(value ? (byte) 1 : (byte) 0);
+        return this;
+    }
+
+    /**
+     * 先算出 UTF-8 长度写入前缀, 再直接编码到底层存储
+     */
+    @Override
+    public ByteBuf writeString(String s) {
+        int len = ByteBufUtil.utf8Length(s);
+        ensureWritable(4 + len);
+        _setInt(writerIndex, len);
+        ByteBufUtil.writeUtf8(this, writerIndex + 4, s);
+        writerIndex += 4 + len;
+        return this;
+    }
+
+    @Override
+    public String readString() {
+        checkReadableBytes(4);
+        int len = _getInt(readerIndex);
+        if (len < 0) {
+            throw new IllegalStateException("negative string length: " + len);
+        }
+        checkReadableBytes(4 + len);
+        String s = ByteBufUtil.decodeString(this, readerIndex + 4, len, StandardCharsets.UTF_8);
+        readerIndex += 4 + len;
+        return s;
+    }
+
+    @Override
+    public ByteBuf writeString(String s, boolean varIntLength) {
+        if (!varIntLength) {
+            return writeString(s);
+        }
+        int len = ByteBufUtil.utf8Length(s);
+        int prefix = ByteBufUtil.varIntSize(len);
+        ensureWritable(prefix + len);
+        _setVarInt(writerIndex, len);
+        ByteBufUtil.writeUtf8(this, writerIndex + prefix, s);
+        writerIndex += prefix + len;
+        return this;
+    }
+
+    @Override
+    public String readString(boolean varIntLength) {
+        if (!varIntLength) {
+            return readString();
+        }
+        int len = readVarInt();
+        if (len < 0) {
+            throw new IllegalStateException("negative string length: " + len);
+        }
+        checkReadableBytes(len);
+        String s = ByteBufUtil.decodeString(this, readerIndex, len, StandardCharsets.UTF_8);
+        readerIndex += len;
+        return s;
+    }
+
+    @Override
+    public int writeCharSequence(CharSequence seq, Charset charset) {
+        int len;
+        if (charset == StandardCharsets.UTF_8) {
+            len = ByteBufUtil.utf8Length(seq);
+            ensureWritable(len);
+            ByteBufUtil.writeUtf8(this, writerIndex, seq);
+        } else if (charset == StandardCharsets.US_ASCII || charset == StandardCharsets.ISO_8859_1) {
+            len = seq.length();
+            ensureWritable(len);
+            ByteBufUtil.writeSingleByte(this, writerIndex, seq,
+                    charset == StandardCharsets.US_ASCII ? (char) 0x7F : (char) 0xFF);
+        } else {
+            byte[] data = seq.toString().getBytes(charset);
+            len = data.length;
+            ensureWritable(len);
+            setBytes(writerIndex, data, 0, len);
+        }
+        writerIndex += len;
+        return len;
+    }
+
+    @Override
+    public CharSequence readCharSequence(int length, Charset charset) {
+        checkReadableBytes(length);
+        String s = ByteBufUtil.decodeString(this, readerIndex, length, charset);
+        readerIndex += length;
+        return s;
+    }
+
+    /**
+     * 已在 ByteBufCodecRegistry.DEFAULT 注册的类型走编解码器, 其余退化为 Java 序列化
+     */
+    @Override
+    public ByteBuf writeObject(Serializable obj) throws IOException {
+        try {
+            ByteBufCodecRegistry.DEFAULT.writeObject(this, obj);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T readObject() throws IOException, ClassNotFoundException {
+        try {
+            return (T) ByteBufCodecRegistry.DEFAULT.readObject(this);
+        } catch (UncheckedIOException e) {
+            IOException cause = e.getCause();
+            if (cause.getCause() instanceof ClassNotFoundException) {
+                throw (ClassNotFoundException) cause.getCause();
+            }
+            throw cause;
+        }
+    }
+
+    @Override
+    public <T> ByteBuf writeObject(T obj, ByteBufCodec<T> codec) {
+        codec.encode(this, obj);
+        return this;
+    }
+
+    @Override
+    public <T> T readObject(ByteBufCodec<T> codec) {
+        return codec.decode(this);
+    }
+
+    @Override
+    public ByteBuf slice(int index, int length) {
+        checkIndex(index, length);
+        return new SlicedByteBuf(this, index, length);
+    }
+
+    @Override
+    public ByteBuf slice() {
+        return slice(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuf duplicate() {
+        return new DuplicatedByteBuf(this);
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        ByteBuf slice = slice(index, length);
+        retain();
+        return slice;
+    }
+
+    @Override
+    public ByteBuf retainedSlice() {
+        return retainedSlice(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        ByteBuf duplicate = duplicate();
+        retain();
+        return duplicate;
+    }
+
+    @Override
+    public ByteBuf copy() {
+        return copy(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuf copy(int index, int length) {
+        checkIndex(index, length);
+        UnpooledByteBuf copy = new UnpooledByteBuf(length);
+        getBytes(index, copy.buffer, 0, length);
+        copy.writerIndex = length;
+        return copy;
+    }
+
+    @Override
+    public int refCnt() {
+        return refCnt;
+    }
+
+    @Override
+    public ByteBuf retain() {
+        return retain(1);
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        checkPositive(increment, "increment");
+        for (;;) {
+            int cnt = refCnt;
+            if (cnt == 0 || cnt + increment < cnt) {
+                throw new IllegalReferenceCountException(cnt, increment);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, cnt, cnt + increment)) {
+                break;
+            }
+        }
+        if (leak != null) {
+            leak.record(null);
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf touch(Object hint) {
+        if (leak != null) {
+            leak.record(hint);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        checkPositive(decrement, "decrement");
+        for (;;) {
+            int cnt = refCnt;
+            if (cnt < decrement) {
+                throw new IllegalReferenceCountException(cnt, -decrement);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, cnt, cnt - decrement)) {
+                if (cnt == decrement) {
+                    if (leak != null) {
+                        leak.close(this);
+                        leak = null;
+                    }
+                    deallocate();
+                    return true;
+                }
+                if (leak != null) {
+                    leak.record(null);
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 引用计数归零时调用, 释放底层内存
+     */
+    protected abstract void deallocate();
+
+    private static void checkPositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + ": " + value + " (expected: > 0)");
+        }
+    }
+}
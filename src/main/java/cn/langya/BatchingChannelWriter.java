@@ -0,0 +1,180 @@
+package cn.langya;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 把许多小消息合并后一次性写入通道的写出管道
+ * 小于 copyThreshold 的 ByteBuf 复制进共享的聚合缓冲区, 较大的 ByteBuf 直接作为组件挂到 CompositeByteBuf 上, 不复制
+ * 待写字节达到 flushThreshold 或最早的待写消息已等待 flushIntervalNanos 时, 用一次聚集写把所有待写数据写出
+ * <p>
+ * 非线程安全, 通常由一个 I/O 线程独占; 没有新消息时由调用方定时调用 flushIfDue 处理时间阈值
+ * 通道不由本类关闭
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class BatchingChannelWriter implements Closeable {
+    public static final int DEFAULT_COPY_THRESHOLD = 1024;
+    public static final int DEFAULT_AGGREGATION_CAPACITY = 16 * 1024;
+    public static final int DEFAULT_FLUSH_THRESHOLD = 64 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_NANOS = 1_000_000L;
+
+    private final WritableByteChannel channel;
+    private final int copyThreshold;
+    private final int aggregationCapacity;
+    private final int flushThreshold;
+    private final long flushIntervalNanos;
+
+    private CompositeByteBuf pending = new CompositeByteBuf();
+    // 正在填充的聚合缓冲区, 封存后才加入 pending
+    private ByteBuf aggregation;
+    private long firstPendingNanos;
+    private boolean hasPending;
+
+    public BatchingChannelWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_COPY_THRESHOLD, DEFAULT_AGGREGATION_CAPACITY, DEFAULT_FLUSH_THRESHOLD, DEFAULT_FLUSH_INTERVAL_NANOS);
+    }
+
+    public BatchingChannelWriter(WritableByteChannel channel, int copyThreshold, int aggregationCapacity,
+                                 int flushThreshold, long flushIntervalNanos) {
+        if (channel == null) {
+            throw new NullPointerException("channel");
+        }
+        if (copyThreshold < 0 || copyThreshold > aggregationCapacity) {
+            throw new IllegalArgumentException("copyThreshold: " + copyThreshold + " (expected: 0-" + aggregationCapacity + ")");
+        }
+        if (flushThreshold <= 0) {
+            throw new IllegalArgumentException("flushThreshold: " + flushThreshold + " (expected: > 0)");
+        }
+        if (flushIntervalNanos < 0) {
+            throw new IllegalArgumentException("flushIntervalNanos: " + flushIntervalNanos + " (expected: >= 0)");
+        }
+        this.channel = channel;
+        this.copyThreshold = copyThreshold;
+        this.aggregationCapacity = aggregationCapacity;
+        this.flushThreshold = flushThreshold;
+        this.flushIntervalNanos = flushIntervalNanos;
+    }
+
+    /**
+     * 排队写出 buf 的可读字节, 接管 buf 的引用计数; 达到阈值时立即写出
+     */
+    public void write(ByteBuf buf) throws IOException {
+        if (pending == null) {
+            buf.release();
+            throw new IllegalStateException("writer already closed");
+        }
+        int length = buf.readableBytes();
+        if (length == 0) {
+            buf.release();
+            return;
+        }
+        if (!hasPending) {
+            hasPending = true;
+            firstPendingNanos = System.nanoTime();
+        }
+        if (length < copyThreshold) {
+            try {
+                if (aggregation == null || aggregation.capacity() - aggregation.writerIndex() < length) {
+                    seal();
+                    aggregation = ByteBufPool.acquire(aggregationCapacity);
+                }
+                // 从 buf 直接复制进聚合缓冲区的数组, 不经过中间数组
+                int writerIndex = aggregation.writerIndex();
+                buf.getBytes(buf.readerIndex(), aggregation.array(), aggregation.arrayOffset() + writerIndex, length);
+                aggregation.writerIndex(writerIndex + length);
+            } finally {
+                buf.release();
+            }
+        } else {
+            seal();
+            pending.addComponent(buf);
+        }
+        if (pendingBytes() >= flushThreshold || System.nanoTime() - firstPendingNanos >= flushIntervalNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * 最早的待写消息已等待超过 flushIntervalNanos 时写出, 返回写出的字节数
+     */
+    public long flushIfDue() throws IOException {
+        if (hasPending && System.nanoTime() - firstPendingNanos >= flushIntervalNanos) {
+            return flush();
+        }
+        return 0;
+    }
+
+    /**
+     * 用聚集写把待写数据写入通道, 非阻塞通道写不下时保留剩余部分, 返回写出的字节数
+     */
+    public long flush() throws IOException {
+        if (pending == null) {
+            throw new IllegalStateException("writer already closed");
+        }
+        seal();
+        CompositeByteBuf pending = this.pending;
+        long total = 0;
+        try {
+            while (pending.readableBytes() > 0) {
+                int written = pending.readBytes(channel, pending.readableBytes());
+                if (written <= 0) {
+                    break;
+                }
+                total += written;
+            }
+        } finally {
+            pending.discardReadComponents();
+            if (pending.readableBytes() == 0) {
+                hasPending = false;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 尚未写出的字节数
+     */
+    public int pendingBytes() {
+        if (pending == null) {
+            return 0;
+        }
+        return pending.readableBytes() + (aggregation == null ? 0 : aggregation.readableBytes());
+    }
+
+    /**
+     * 把正在填充的聚合缓冲区作为组件加入待写队列
+     */
+    private void seal() {
+        ByteBuf aggregation = this.aggregation;
+        if (aggregation == null) {
+            return;
+        }
+        this.aggregation = null;
+        if (aggregation.readableBytes() == 0) {
+            aggregation.release();
+        } else {
+            pending.addComponent(aggregation);
+        }
+    }
+
+    /**
+     * 写出剩余数据后释放所有缓冲区, 写出失败时同样释放
+     */
+    @Override
+    public void close() throws IOException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            seal();
+            pending.release();
+            pending = null;
+            hasPending = false;
+        }
+    }
+}
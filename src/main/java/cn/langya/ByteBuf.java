@@ -1,6 +1,16 @@
 package cn.langya;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 
 /**
  * @author LangYa466
@@ -19,6 +29,62 @@ public interface ByteBuf {
 
     int writableBytes();
 
+    int capacity();
+
+    /**
+     * 调整容量, 缩容时丢弃 newCapacity 之后的内容, 读写指针不超过新容量; 不能超过 maxCapacity
+     */
+    ByteBuf capacity(int newCapacity);
+
+    /**
+     * 自动扩容的上限, 默认 Integer.MAX_VALUE
+     */
+    int maxCapacity();
+
+    ByteBuf maxCapacity(int maxCapacity);
+
+    /**
+     * 扩容到 maxCapacity 后还能写入的字节数
+     */
+    int maxWritableBytes();
+
+    /**
+     * 保证至少还能写入 minWritableBytes 字节, 容量不足时按 growthPolicy 扩容, 超过 maxCapacity 时抛出 IndexOutOfBoundsException
+     */
+    ByteBuf ensureWritable(int minWritableBytes);
+
+    /**
+     * 替换自动扩容时使用的增长策略, 默认 GrowthPolicy.DEFAULT
+     */
+    ByteBuf growthPolicy(GrowthPolicy growthPolicy);
+
+    /**
+     * 丢弃已读字节, 未读内容移到索引 0 处
+     */
+    ByteBuf discardReadBytes();
+
+    /**
+     * 只在划算时丢弃已读字节: 全部读完或已读部分超过容量一半
+     */
+    ByteBuf discardSomeReadBytes();
+
+    /**
+     * 是否由堆外内存支撑
+     */
+    boolean isDirect();
+
+    /**
+     * 是否由可直接访问的 byte[] 支撑, 为 true 时 array() 与 arrayOffset() 可用
+     */
+    boolean hasArray();
+
+    byte[] array();
+
+    /**
+     * 本 ByteBuf 的索引 0 在 array() 中的位置
+     */
+    int arrayOffset();
+
     byte readByte();
 
     ByteBuf writeByte(byte b);
@@ -31,7 +97,67 @@ public interface ByteBuf {
 
     byte[] readBytes(int length);
 
+    ByteBuf writeBytes(byte[] src, int srcIndex, int length);
+
+    ByteBuf readBytes(byte[] dst, int dstIndex, int length);
+
+    /**
+     * 从 index 开始复制 length 字节到 dst, 不移动读写指针
+     */
+    ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length);
+
+    ByteBuf setBytes(int index, byte[] src, int srcIndex, int length);
+
+    // 与 NIO 通道直接交换数据, 不经过中间数组, 返回实际传输的字节数
+    /**
+     * 从 in 读取最多 length 字节追加到写指针处, 通道已到末尾时返回 -1
+     */
+    int writeBytes(ReadableByteChannel in, int length) throws IOException;
+
+    /**
+     * 从 in 的 position 处读取最多 length 字节追加到写指针处, 不改变通道自身的位置
+     */
+    int writeBytes(FileChannel in, long position, int length) throws IOException;
+
+    /**
+     * 把最多 length 字节可读数据写到 out, 多段内存时使用一次聚集写
+     */
+    int readBytes(WritableByteChannel out, int length) throws IOException;
+
+    int readBytes(FileChannel out, long position, int length) throws IOException;
+
+    int getBytes(int index, WritableByteChannel out, int length) throws IOException;
+
+    int getBytes(int index, FileChannel out, long position, int length) throws IOException;
+
+    int setBytes(int index, ReadableByteChannel in, int length) throws IOException;
+
+    int setBytes(int index, FileChannel in, long position, int length) throws IOException;
+
+    /**
+     * nioBuffers() 返回的 ByteBuffer 个数
+     */
+    int nioBufferCount();
+
+    /**
+     * 可读区域的 NIO 视图, 与本 ByteBuf 共享内存但不影响其读写指针; 多段内存时返回一份拷贝
+     */
+    ByteBuffer nioBuffer();
+
+    ByteBuffer nioBuffer(int index, int length);
+
+    /**
+     * 可读区域按底层内存分段的 NIO 视图, 均与本 ByteBuf 共享内存
+     */
+    ByteBuffer[] nioBuffers();
+
+    ByteBuffer[] nioBuffers(int index, int length);
+
     // Primitive and object support
+    ByteBuf writeShort(short value);
+
+    short readShort();
+
     ByteBuf writeInt(int value);
 
     int readInt();
@@ -51,6 +177,169 @@ public interface ByteBuf {
     ByteBuf writeChar(char value);
 
     char readChar();
+
+    // 绝对位置读写, 不移动读写指针
+    short getShort(int index);
+
+    ByteBuf setShort(int index, short value);
+
+    int getInt(int index);
+
+    ByteBuf setInt(int index, int value);
+
+    long getLong(int index);
+
+    ByteBuf setLong(int index, long value);
+
+    char getChar(int index);
+
+    ByteBuf setChar(int index, char value);
+
+    float getFloat(int index);
+
+    ByteBuf setFloat(int index, float value);
+
+    double getDouble(int index);
+
+    ByteBuf setDouble(int index, double value);
+
+    // 小端序读写, 与大端序版本一样只做一次宽访问
+    ByteBuf writeShortLE(short value);
+
+    short readShortLE();
+
+    short getShortLE(int index);
+
+    ByteBuf setShortLE(int index, short value);
+
+    ByteBuf writeIntLE(int value);
+
+    int readIntLE();
+
+    int getIntLE(int index);
+
+    ByteBuf setIntLE(int index, int value);
+
+    ByteBuf writeLongLE(long value);
+
+    long readLongLE();
+
+    long getLongLE(int index);
+
+    ByteBuf setLongLE(int index, long value);
+
+    ByteBuf writeFloatLE(float value);
+
+    float readFloatLE();
+
+    float getFloatLE(int index);
+
+    ByteBuf setFloatLE(int index, float value);
+
+    ByteBuf writeDoubleLE(double value);
+
+    double readDoubleLE();
+
+    double getDoubleLE(int index);
+
+    ByteBuf setDoubleLE(int index, double value);
+
+    // 查找, 索引均为绝对位置, 不移动读写指针; 找不到时返回 -1
+    /**
+     * 在 [fromIndex, toIndex) 中查找 value 第一次出现的位置, fromIndex > toIndex 时从 fromIndex - 1 向前查找到 toIndex
+     * 超出容量的部分被忽略
+     */
+    int indexOf(int fromIndex, int toIndex, byte value);
+
+    /**
+     * 可读区域中 value 之前的字节数
+     */
+    int bytesBefore(byte value);
+
+    /**
+     * 可读区域前 length 字节中 value 之前的字节数
+     */
+    int bytesBefore(int length, byte value);
+
+    int bytesBefore(int index, int length, byte value);
+
+    /**
+     * 按顺序把可读区域的每个字节交给 processor, 返回 processor 返回 false 时的索引, 遍历完返回 -1
+     */
+    int forEachByte(ByteProcessor processor);
+
+    int forEachByte(int index, int length, ByteProcessor processor);
+
+    /**
+     * 与 forEachByte 相同, 但从后向前遍历
+     */
+    int forEachByteDesc(ByteProcessor processor);
+
+    int forEachByteDesc(int index, int length, ByteProcessor processor);
+
+    // 基本类型数组整块读写, 按 order() 的字节序, 只做一次边界检查; 字节序与本机一致时直接复制内存
+    ByteBuf writeShorts(short[] src, int srcIndex, int length);
+
+    ByteBuf readShorts(short[] dst, int dstIndex, int length);
+
+    ByteBuf writeChars(char[] src, int srcIndex, int length);
+
+    ByteBuf readChars(char[] dst, int dstIndex, int length);
+
+    ByteBuf writeInts(int[] src, int srcIndex, int length);
+
+    ByteBuf readInts(int[] dst, int dstIndex, int length);
+
+    ByteBuf writeLongs(long[] src, int srcIndex, int length);
+
+    ByteBuf readLongs(long[] dst, int dstIndex, int length);
+
+    ByteBuf writeFloats(float[] src, int srcIndex, int length);
+
+    ByteBuf readFloats(float[] dst, int dstIndex, int length);
+
+    ByteBuf writeDoubles(double[] src, int srcIndex, int length);
+
+    ByteBuf readDoubles(double[] dst, int dstIndex, int length);
+
+    /**
+     * 把从 index 开始的 count 个 int 视为按 order() 排列的 IntBuffer, 与 nioBuffer 一样只有单段内存时共享内容
+     */
+    IntBuffer asIntBuffer(int index, int count);
+
+    LongBuffer asLongBuffer(int index, int count);
+
+    FloatBuffer asFloatBuffer(int index, int count);
+
+    DoubleBuffer asDoubleBuffer(int index, int count);
+
+    // varint (LEB128, 与 protobuf 兼容) 按 7 位一组编码, 小于 128 的值只占 1 字节; Signed 版本先做 ZigZag 变换
+    ByteBuf writeVarInt(int value);
+
+    int readVarInt();
+
+    ByteBuf writeVarLong(long value);
+
+    long readVarLong();
+
+    ByteBuf writeSignedVarInt(int value);
+
+    int readSignedVarInt();
+
+    ByteBuf writeSignedVarLong(long value);
+
+    long readSignedVarLong();
+
+    /**
+     * 不带 LE 后缀的基本类型读写所用的字节序, 默认 BIG_ENDIAN
+     */
+    ByteOrder order();
+
+    /**
+     * 返回按指定字节序读写基本类型的视图, 与本 ByteBuf 共享内存、读写指针和引用计数
+     * 字符串和对象的长度前缀不受影响
+     */
+    ByteBuf order(ByteOrder endianness);
     
     boolean readBoolean();
     
@@ -60,14 +349,76 @@ public interface ByteBuf {
 
     String readString();
 
+    /**
+     * varIntLength 为 true 时用 varint 作为长度前缀, 读写两端需使用相同的设置
+     */
+    ByteBuf writeString(String s, boolean varIntLength);
+
+    String readString(boolean varIntLength);
+
+    /**
+     * 按 charset 编码写入, 不带长度前缀, 返回写入的字节数
+     */
+    int writeCharSequence(CharSequence seq, Charset charset);
+
+    CharSequence readCharSequence(int length, Charset charset);
+
     ByteBuf writeObject(Serializable obj) throws IOException;
 
     <T> T readObject() throws IOException, ClassNotFoundException;
 
+    /**
+     * 直接用 codec 写出 obj, 不写类 ID, 读取时需使用同一个 codec
+     */
+    <T> ByteBuf writeObject(T obj, ByteBufCodec<T> codec);
+
+    <T> T readObject(ByteBufCodec<T> codec);
+
+    // 切片与副本是共享内存和引用计数的视图, 各自拥有独立的读写指针, 不复制数据
     ByteBuf slice(int index, int length);
 
+    /**
+     * 可读区域 [readerIndex, writerIndex) 的切片
+     */
+    ByteBuf slice();
+
     ByteBuf duplicate();
 
+    /**
+     * 同 slice, 但额外 retain 一次, 切片需要单独 release
+     */
+    ByteBuf retainedSlice(int index, int length);
+
+    ByteBuf retainedSlice();
+
+    ByteBuf retainedDuplicate();
+
+    /**
+     * 复制可读区域到一个新的独立 ByteBuf
+     */
+    ByteBuf copy();
+
+    ByteBuf copy(int index, int length);
+
+    // 引用计数, 新建的 ByteBuf 计数为 1, 归零时释放底层内存; 切片与父 ByteBuf 共享计数
+    int refCnt();
+
+    ByteBuf retain();
+
+    ByteBuf retain(int increment);
+
+    /**
+     * 为泄漏检测记录当前访问位置
+     */
+    ByteBuf touch(Object hint);
+
+    /**
+     * 计数减 1, 归零并释放底层内存时返回 true
+     */
+    boolean release();
+
+    boolean release(int decrement);
+
     static CompositeByteBuf compositeBuffer(ByteBuf... buffers) {
         return new CompositeByteBuf(buffers);
     }
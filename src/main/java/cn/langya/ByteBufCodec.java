@@ -0,0 +1,20 @@
+package cn.langya;
+
+/**
+ * 对象与 ByteBuf 之间的编解码器, 直接使用 ByteBuf 的基本类型读写, 不经过 Java 序列化
+ * 通过 ByteBufCodecRegistry 按类 ID 注册后可用于 ByteBuf.writeObject / readObject
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public interface ByteBufCodec<T> {
+    /**
+     * 把 value 写到 buf 的写指针处
+     */
+    void encode(ByteBuf buf, T value);
+
+    /**
+     * 从 buf 的读指针处读出一个对象
+     */
+    T decode(ByteBuf buf);
+}
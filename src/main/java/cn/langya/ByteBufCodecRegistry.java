@@ -0,0 +1,310 @@
+package cn.langya;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类 ID 与编解码器的注册表, 对象以 varint 类 ID 开头, 之后是编解码器写出的内容
+ * 未注册的 Serializable 对象退化为 Java 序列化
+ * 与旧版 writeObject 的 "4 字节长度 + Java 序列化" 格式不兼容, readObject 识别出旧格式时抛出异常而不是当作 null
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public final class ByteBufCodecRegistry {
+    public static final int NULL_ID = 0;
+    public static final int JAVA_SERIALIZATION_ID = 1;
+
+    /**
+     * 小于此值的 ID 保留给内置类型
+     */
+    public static final int MIN_USER_ID = 32;
+
+    // Java 序列化流的 STREAM_MAGIC 与 STREAM_VERSION
+    private static final int JAVA_STREAM_HEADER = 0xACED0005;
+
+    /**
+     * ByteBuf.writeObject / readObject 使用的全局注册表
+     */
+    public static final ByteBufCodecRegistry DEFAULT = new ByteBufCodecRegistry();
+
+    private final ConcurrentHashMap<Class<?>, Registration<?>> byClass = new ConcurrentHashMap<>();
+    private volatile Registration<?>[] byId = new Registration<?>[MIN_USER_ID * 2];
+
+    public ByteBufCodecRegistry() {
+        registerBuiltin(2, String.class, new ByteBufCodec<String>() {
+            @Override
+            public void encode(ByteBuf buf, String value) {
+                buf.writeString(value, true);
+            }
+
+            @Override
+            public String decode(ByteBuf buf) {
+                return buf.readString(true);
+            }
+        });
+        registerBuiltin(3, Integer.class, new ByteBufCodec<Integer>() {
+            @Override
+            public void encode(ByteBuf buf, Integer value) {
+                buf.writeSignedVarInt(value);
+            }
+
+            @Override
+            public Integer decode(ByteBuf buf) {
+                return buf.readSignedVarInt();
+            }
+        });
+        registerBuiltin(4, Long.class, new ByteBufCodec<Long>() {
+            @Override
+            public void encode(ByteBuf buf, Long value) {
+                buf.writeSignedVarLong(value);
+            }
+
+            @Override
+            public Long decode(ByteBuf buf) {
+                return buf.readSignedVarLong();
+            }
+        });
+        registerBuiltin(5, Short.class, new ByteBufCodec<Short>() {
+            @Override
+            public void encode(ByteBuf buf, Short value) {
+                buf.writeShort(value);
+            }
+
+            @Override
+            public Short decode(ByteBuf buf) {
+                return buf.readShort();
+            }
+        });
+        registerBuiltin(6, Byte.class, new ByteBufCodec<Byte>() {
+            @Override
+            public void encode(ByteBuf buf, Byte value) {
+                buf.writeByte(value);
+            }
+
+            @Override
+            public Byte decode(ByteBuf buf) {
+                return buf.readByte();
+            }
+        });
+        registerBuiltin(7, Boolean.class, new ByteBufCodec<Boolean>() {
+            @Override
+            public void encode(ByteBuf buf, Boolean value) {
+                buf.writeBoolean(value);
+            }
+
+            @Override
+            public Boolean decode(ByteBuf buf) {
+                return buf.readBoolean();
+            }
+        });
+        registerBuiltin(8, Character.class, new ByteBufCodec<Character>() {
+            @Override
+            public void encode(ByteBuf buf, Character value) {
+                buf.writeChar(value);
+            }
+
+            @Override
+            public Character decode(ByteBuf buf) {
+                return buf.readChar();
+            }
+        });
+        registerBuiltin(9, Float.class, new ByteBufCodec<Float>() {
+            @Override
+            public void encode(ByteBuf buf, Float value) {
+                buf.writeFloat(value);
+            }
+
+            @Override
+            public Float decode(ByteBuf buf) {
+                return buf.readFloat();
+            }
+        });
+        registerBuiltin(10, Double.class, new ByteBufCodec<Double>() {
+            @Override
+            public void encode(ByteBuf buf, Double value) {
+                buf.writeDouble(value);
+            }
+
+            @Override
+            public Double decode(ByteBuf buf) {
+                return buf.readDouble();
+            }
+        });
+        registerBuiltin(11, byte[].class, new ByteBufCodec<byte[]>() {
+            @Override
+            public void encode(ByteBuf buf, byte[] value) {
+                buf.writeVarInt(value.length);
+                buf.writeBytes(value);
+            }
+
+            @Override
+            public byte[] decode(ByteBuf buf) {
+                return buf.readBytes(buf.readVarInt());
+            }
+        });
+    }
+
+    /**
+     * 为 type 注册编解码器, id 不小于 MIN_USER_ID, 读写两端需使用相同的 ID
+     */
+    public <T> ByteBufCodecRegistry register(int id, Class<T> type, ByteBufCodec<T> codec) {
+        if (id < MIN_USER_ID) {
+            throw new IllegalArgumentException("id: " + id + " (expected: >= " + MIN_USER_ID + ")");
+        }
+        registerBuiltin(id, type, codec);
+        return this;
+    }
+
+    /**
+     * 为 type 注册按字段读写的 FieldCodec
+     */
+    public <T> ByteBufCodecRegistry register(int id, Class<T> type) {
+        return register(id, type, new FieldCodec<>(type, this));
+    }
+
+    private synchronized <T> void registerBuiltin(int id, Class<T> type, ByteBufCodec<T> codec) {
+        if (codec == null) {
+            throw new NullPointerException("codec");
+        }
+        if (byClass.containsKey(type)) {
+            throw new IllegalArgumentException(type.getName() + " is already registered");
+        }
+        Registration<?>[] byId = this.byId;
+        if (id < byId.length && byId[id] != null) {
+            throw new IllegalArgumentException("id " + id + " is already registered for " + byId[id].type.getName());
+        }
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length << 1));
+        } else {
+            byId = byId.clone();
+        }
+        Registration<T> registration = new Registration<>(id, type, codec);
+        byId[id] = registration;
+        byClass.put(type, registration);
+        this.byId = byId;
+    }
+
+    /**
+     * type 已注册的编解码器, 未注册时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ByteBufCodec<T> codec(Class<T> type) {
+        Registration<?> registration = byClass.get(type);
+        return registration == null ? null : (ByteBufCodec<T>) registration.codec;
+    }
+
+    /**
+     * 写入类 ID 和对象内容, obj 可以为 null
+     * 未注册的类型必须实现 Serializable, Java 序列化失败时抛出 UncheckedIOException
+     */
+    @SuppressWarnings("unchecked")
+    public void writeObject(ByteBuf buf, Object obj) {
+        if (obj == null) {
+            buf.writeVarInt(NULL_ID);
+            return;
+        }
+        Registration<Object> registration = (Registration<Object>) byClass.get(obj.getClass());
+        if (registration != null) {
+            buf.writeVarInt(registration.id);
+            registration.codec.encode(buf, obj);
+            return;
+        }
+        if (!(obj instanceof Serializable)) {
+            throw new IllegalArgumentException("no codec registered for " + obj.getClass().getName());
+        }
+        buf.writeVarInt(JAVA_SERIALIZATION_ID);
+        writeSerializable(buf, (Serializable) obj);
+    }
+
+    /**
+     * 读出 writeObject 写入的对象, Java 反序列化失败时抛出 UncheckedIOException
+     */
+    public Object readObject(ByteBuf buf) {
+        int id = buf.readVarInt();
+        if (id == NULL_ID) {
+            checkLegacyFormat(buf);
+            return null;
+        }
+        if (id == JAVA_SERIALIZATION_ID) {
+            return readSerializable(buf);
+        }
+        Registration<?>[] byId = this.byId;
+        Registration<?> registration = id > 0 && id < byId.length ? byId[id] : null;
+        if (registration == null) {
+            throw new IllegalStateException("unknown class id: " + id);
+        }
+        return registration.codec.decode(buf);
+    }
+
+    /**
+     * 旧版格式为 4 字节大端长度 + Java 序列化流, 16 MB 以下的对象首字节为 0, 会被误读为 null
+     * 紧随其后的是与长度相符的序列化流头时判定为旧格式, 读指针退回到对象开头
+     */
+    private static void checkLegacyFormat(ByteBuf buf) {
+        int start = buf.readerIndex() - 1;
+        if (buf.writerIndex() - start < 8 || buf.getInt(start + 4) != JAVA_STREAM_HEADER) {
+            return;
+        }
+        int legacyLength = buf.getInt(start);
+        if (legacyLength >= 4 && legacyLength <= buf.writerIndex() - start - 4) {
+            buf.readerIndex(start);
+            throw new IllegalStateException("legacy length-prefixed Java serialization data at " + start +
+                    " is not supported by this format, re-encode it with the current writeObject");
+        }
+    }
+
+    /**
+     * 先占住 4 字节长度, 直接序列化进 buf 后回填实际长度
+     */
+    private static void writeSerializable(ByteBuf buf, Serializable obj) {
+        int lengthIndex = buf.writerIndex();
+        buf.writeInt(0);
+        try {
+            ByteBufOutputStream out = new ByteBufOutputStream(buf);
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(obj);
+            oos.flush();
+            buf.setInt(lengthIndex, out.writtenBytes());
+        } catch (IOException e) {
+            buf.writerIndex(lengthIndex);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 直接从 buf 中反序列化, 最多读取长度前缀给出的字节数, 之后读指针跳过整段数据
+     */
+    private static Object readSerializable(ByteBuf buf) {
+        int len = buf.readInt();
+        int start = buf.readerIndex();
+        ByteBufInputStream in = new ByteBufInputStream(buf, len);
+        try {
+            ObjectInputStream ois = new ObjectInputStream(in);
+            return ois.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new UncheckedIOException(new IOException(e.getMessage(), e));
+        } finally {
+            buf.readerIndex(start + len);
+        }
+    }
+
+    private static final class Registration<T> {
+        final int id;
+        final Class<T> type;
+        final ByteBufCodec<T> codec;
+
+        Registration(int id, Class<T> type, ByteBufCodec<T> codec) {
+            this.id = id;
+            this.type = type;
+            this.codec = codec;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package cn.langya;
+
+import java.io.InputStream;
+
+/**
+ * 从 ByteBuf 读指针处读取的 InputStream, 读取时移动 ByteBuf 的读指针, 最多读到创建时的写指针
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class ByteBufInputStream extends InputStream {
+    private final ByteBuf buffer;
+    private final int endIndex;
+    private int markReaderIndex;
+
+    public ByteBufInputStream(ByteBuf buffer) {
+        this(buffer, buffer.readableBytes());
+    }
+
+    /**
+     * 只读取接下来的 length 字节
+     */
+    public ByteBufInputStream(ByteBuf buffer, int length) {
+        if (length < 0 || length > buffer.readableBytes()) {
+            throw new IndexOutOfBoundsException("length: " + length + " (expected: range(0, " + buffer.readableBytes() + "))");
+        }
+        this.buffer = buffer;
+        this.markReaderIndex = buffer.readerIndex();
+        this.endIndex = markReaderIndex + length;
+    }
+
+    @Override
+    public int available() {
+        return Math.max(0, endIndex - buffer.readerIndex());
+    }
+
+    @Override
+    public int read() {
+        if (available() == 0) {
+            return -1;
+        }
+        return buffer.readByte() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        int available = available();
+        if (available == 0) {
+            return len == 0 ? 0 : -1;
+        }
+        len = Math.min(available, len);
+        buffer.readBytes(b, off, len);
+        return len;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, available()));
+        buffer.readerIndex(buffer.readerIndex() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readLimit) {
+        markReaderIndex = buffer.readerIndex();
+    }
+
+    @Override
+    public void reset() {
+        buffer.readerIndex(markReaderIndex);
+    }
+
+    public ByteBuf buffer() {
+        return buffer;
+    }
+}
@@ -0,0 +1,362 @@
+package cn.langya;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 内存池与扩容的运行指标, 计数使用 LongAdder, 多线程同时计数时不争用同一缓存行
+ * 默认关闭, 关闭时每个埋点只多一次 volatile 读; 开关切换前后获取与释放的 ByteBuf 可能使活跃数略有偏差
+ *
+ * 可通过系统属性调整:
+ * lbytebuf.metrics.enabled  是否开启, 默认 false
+ * lbytebuf.metrics.jmx      是否在首次使用时注册到平台 MBeanServer, 默认 false
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public final class ByteBufMetrics implements ByteBufPoolMXBean {
+    public static final String OBJECT_NAME = "cn.langya:type=ByteBufPool";
+
+    /**
+     * 分配的内存来自哪里
+     */
+    public enum Source {
+        /** 线程私有缓存 */
+        THREAD_CACHE,
+        /** 共享 arena */
+        ARENA,
+        /** 池中没有空闲内存, 新分配 */
+        NEW,
+        /** 超过最大池化容量, 不经过内存池 */
+        UNPOOLED
+    }
+
+    private static final Logger logger = Logger.getLogger(ByteBufMetrics.class.getName());
+    private static final ByteBufMetricsListener[] NO_LISTENERS = new ByteBufMetricsListener[0];
+    // int 范围内的尺寸等级最多 26 个
+    private static final int MAX_SIZE_CLASSES = 26;
+
+    static final ByteBufMetrics INSTANCE = new ByteBufMetrics();
+
+    private static volatile boolean enabled = Boolean.getBoolean("lbytebuf.metrics.enabled");
+    private static volatile ByteBufMetricsListener[] listeners = NO_LISTENERS;
+
+    private final LongAdder[] heapAllocations = newAdders(MAX_SIZE_CLASSES);
+    private final LongAdder[] directAllocations = newAdders(MAX_SIZE_CLASSES);
+    private final LongAdder[] sources = newAdders(Source.values().length);
+    private final LongAdder discards = new LongAdder();
+    private final LongAdder activeHeapBuffers = new LongAdder();
+    private final LongAdder activeDirectBuffers = new LongAdder();
+    private final LongAdder reallocations = new LongAdder();
+    private final LongAdder reallocationBytesCopied = new LongAdder();
+    private final LongAdder consolidations = new LongAdder();
+    private final LongAdder consolidationBytesCopied = new LongAdder();
+
+    static {
+        if (Boolean.getBoolean("lbytebuf.metrics.jmx")) {
+            try {
+                registerMBean();
+            } catch (IllegalStateException e) {
+                logger.log(Level.WARNING, "Failed to register " + OBJECT_NAME, e);
+            }
+        }
+    }
+
+    private ByteBufMetrics() {
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * 注册到平台 MBeanServer, 已注册时直接返回
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static synchronized void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static synchronized void addListener(ByteBufMetricsListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("listener");
+        }
+        ByteBufMetricsListener[] current = listeners;
+        ByteBufMetricsListener[] updated = new ByteBufMetricsListener[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    public static synchronized void removeListener(ByteBufMetricsListener listener) {
+        ByteBufMetricsListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                ByteBufMetricsListener[] updated = new ByteBufMetricsListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    // 以下埋点由内存池和 ByteBuf 实现调用, 关闭时立即返回
+    static void recordAllocation(boolean direct, int sizeClass, Source source) {
+        if (!enabled) {
+            return;
+        }
+        ByteBufMetrics metrics = INSTANCE;
+        metrics.sources[source.ordinal()].increment();
+        (direct ? metrics.directAllocations : metrics.heapAllocations)[sizeClass].increment();
+        ByteBufMetricsListener[] listeners = ByteBufMetrics.listeners;
+        if (listeners.length != 0) {
+            int capacity = ByteBufPool.sizeOf(sizeClass);
+            for (ByteBufMetricsListener listener : listeners) {
+                try {
+                    listener.onAllocate(direct, capacity, source);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "ByteBufMetricsListener.onAllocate() threw an exception", e);
+                }
+            }
+        }
+    }
+
+    static void recordUnpooledAllocation(boolean direct, int capacity) {
+        if (!enabled) {
+            return;
+        }
+        INSTANCE.sources[Source.UNPOOLED.ordinal()].increment();
+        for (ByteBufMetricsListener listener : listeners) {
+            try {
+                listener.onAllocate(direct, capacity, Source.UNPOOLED);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "ByteBufMetricsListener.onAllocate() threw an exception", e);
+            }
+        }
+    }
+
+    static void recordDiscard() {
+        if (enabled) {
+            INSTANCE.discards.increment();
+        }
+    }
+
+    static void recordAcquire(boolean direct) {
+        if (enabled) {
+            (direct ? INSTANCE.activeDirectBuffers : INSTANCE.activeHeapBuffers).increment();
+        }
+    }
+
+    static void recordRelease(boolean direct) {
+        if (enabled) {
+            (direct ? INSTANCE.activeDirectBuffers : INSTANCE.activeHeapBuffers).decrement();
+        }
+    }
+
+    static void recordReallocation(ByteBuf buf, int oldCapacity, int newCapacity, int bytesCopied) {
+        if (!enabled) {
+            return;
+        }
+        INSTANCE.reallocations.increment();
+        INSTANCE.reallocationBytesCopied.add(bytesCopied);
+        for (ByteBufMetricsListener listener : listeners) {
+            try {
+                listener.onReallocate(buf, oldCapacity, newCapacity, bytesCopied);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "ByteBufMetricsListener.onReallocate() threw an exception", e);
+            }
+        }
+    }
+
+    static void recordConsolidation(CompositeByteBuf buf, int numComponents, int bytesCopied) {
+        if (!enabled) {
+            return;
+        }
+        INSTANCE.consolidations.increment();
+        INSTANCE.consolidationBytesCopied.add(bytesCopied);
+        for (ByteBufMetricsListener listener : listeners) {
+            try {
+                listener.onConsolidate(buf, numComponents, bytesCopied);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "ByteBufMetricsListener.onConsolidate() threw an exception", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        ByteBufMetrics.enabled = enabled;
+    }
+
+    @Override
+    public long[] getHeapAllocationsBySizeClass() {
+        return sums(heapAllocations);
+    }
+
+    @Override
+    public long[] getDirectAllocationsBySizeClass() {
+        return sums(directAllocations);
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[ByteBufPool.sizeClass(ByteBufPool.MAX_POOLED_CAPACITY) + 1];
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    @Override
+    public long getHeapAllocations() {
+        return total(heapAllocations);
+    }
+
+    @Override
+    public long getDirectAllocations() {
+        return total(directAllocations);
+    }
+
+    private static long total(LongAdder[] adders) {
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getThreadCacheHits() {
+        return sources[Source.THREAD_CACHE.ordinal()].sum();
+    }
+
+    @Override
+    public long getArenaHits() {
+        return sources[Source.ARENA.ordinal()].sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return sources[Source.NEW.ordinal()].sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = getThreadCacheHits() + getArenaHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long getUnpooledAllocations() {
+        return sources[Source.UNPOOLED.ordinal()].sum();
+    }
+
+    @Override
+    public long getDiscards() {
+        return discards.sum();
+    }
+
+    @Override
+    public long getRetainedBytes() {
+        return ByteBufPool.retainedBytes();
+    }
+
+    @Override
+    public long getActiveHeapBuffers() {
+        return activeHeapBuffers.sum();
+    }
+
+    @Override
+    public long getActiveDirectBuffers() {
+        return activeDirectBuffers.sum();
+    }
+
+    @Override
+    public long getReallocations() {
+        return reallocations.sum();
+    }
+
+    @Override
+    public long getReallocationBytesCopied() {
+        return reallocationBytesCopied.sum();
+    }
+
+    @Override
+    public long getConsolidations() {
+        return consolidations.sum();
+    }
+
+    @Override
+    public long getConsolidationBytesCopied() {
+        return consolidationBytesCopied.sum();
+    }
+
+    /**
+     * 活跃 ByteBuf 数是当前状态而不是累计值, 不清零, 否则重置前借出的 ByteBuf 释放后会变成负数
+     */
+    @Override
+    public void reset() {
+        for (LongAdder adder : heapAllocations) {
+            adder.reset();
+        }
+        for (LongAdder adder : directAllocations) {
+            adder.reset();
+        }
+        for (LongAdder adder : sources) {
+            adder.reset();
+        }
+        discards.reset();
+        reallocations.reset();
+        reallocationBytesCopied.reset();
+        consolidations.reset();
+        consolidationBytesCopied.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufMetrics(heapAllocations: " + getHeapAllocations() +
+                ", directAllocations: " + getDirectAllocations() +
+                ", threadCacheHits: " + getThreadCacheHits() +
+                ", arenaHits: " + getArenaHits() +
+                ", misses: " + getMisses() +
+                ", unpooled: " + getUnpooledAllocations() +
+                ", retainedBytes: " + getRetainedBytes() +
+                ", activeBuffers: " + (getActiveHeapBuffers() + getActiveDirectBuffers()) +
+                ", reallocations: " + getReallocations() +
+                ", consolidations: " + getConsolidations() + ")";
+    }
+}
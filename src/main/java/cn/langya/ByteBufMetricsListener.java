@@ -0,0 +1,28 @@
+package cn.langya;
+
+/**
+ * 内存池事件回调, 通过 ByteBufMetrics.addListener 注册, 只在指标开启时调用
+ * 回调在触发事件的线程上同步执行, 实现应尽量轻量; 抛出的异常会被记录并忽略
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public interface ByteBufMetricsListener {
+    /**
+     * 从内存池或直接分配了一块容量为 capacity 的内存
+     */
+    default void onAllocate(boolean direct, int capacity, ByteBufMetrics.Source source) {
+    }
+
+    /**
+     * buf 的底层内存从 oldCapacity 调整到 newCapacity, 复制了 bytesCopied 字节
+     */
+    default void onReallocate(ByteBuf buf, int oldCapacity, int newCapacity, int bytesCopied) {
+    }
+
+    /**
+     * buf 的 numComponents 个组件合并为一块连续内存, 复制了 bytesCopied 字节
+     */
+    default void onConsolidate(CompositeByteBuf buf, int numComponents, int bytesCopied) {
+    }
+}
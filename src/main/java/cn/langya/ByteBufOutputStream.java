@@ -0,0 +1,46 @@
+package cn.langya;
+
+import java.io.OutputStream;
+
+/**
+ * 把写入的数据直接追加到 ByteBuf 写指针处的 OutputStream, 不经过中间数组
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class ByteBufOutputStream extends OutputStream {
+    private final ByteBuf buffer;
+    private final int startIndex;
+
+    public ByteBufOutputStream(ByteBuf buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer");
+        }
+        this.buffer = buffer;
+        this.startIndex = buffer.writerIndex();
+    }
+
+    @Override
+    public void write(int b) {
+        buffer.writeByte((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (len == 0) {
+            return;
+        }
+        buffer.writeBytes(b, off, len);
+    }
+
+    /**
+     * 自创建以来写入的字节数
+     */
+    public int writtenBytes() {
+        return buffer.writerIndex() - startIndex;
+    }
+
+    public ByteBuf buffer() {
+        return buffer;
+    }
+}
@@ -1,31 +1,276 @@
 package cn.langya;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * 按 2 的幂尺寸等级分配的内存池, 堆内存与堆外内存各自一组 arena
+ * 线程私有缓存 -> 共享 arena -> 新分配, 每个 arena 保留的内存总量有上限
+ *
+ * 可通过系统属性调整:
+ * lbytebuf.pool.arenas              arena 数量, 默认 CPU 核数 * 2
+ * lbytebuf.pool.maxRetainedBytes    堆内存 arena 合计最多保留的字节数, 默认最大堆的 1/8
+ * lbytebuf.pool.maxRetainedDirectBytes  堆外内存 arena 合计最多保留的字节数, 默认同上
+ * lbytebuf.pool.maxPooledCapacity   超过该容量的请求不走池, 默认 4 MiB
+ * lbytebuf.pool.maxCachedCapacity   线程缓存的最大尺寸等级, 默认 32 KiB
+ * lbytebuf.pool.threadCacheSize     线程缓存每个尺寸等级的条目数, 默认 32
+ * lbytebuf.pool.remoteFreeCapacity  每个线程接收其他线程归还内存的环形队列容量, 默认 256
+ *
+ * 线程缓存中的内存不计入 maxRetainedBytes: 每个使用过内存池的线程最多另外保留
+ * threadCacheSize 个 (64 B ~ maxCachedCapacity 的每个尺寸等级), 即约 2 * maxCachedCapacity * threadCacheSize 字节,
+ * 堆内与堆外各一份, 默认约 2 MiB. 线程结束后, 下次创建线程缓存或调用 clear 时这些内存归还 arena
+ *
  * @author LangYa466
  * @date 2025/5/19
  */
 public class ByteBufPool {
     public static final int DEFAULT_INITIAL_CAPACITY = 256;
-    public static final ConcurrentLinkedQueue<ByteBuf> pool = new ConcurrentLinkedQueue<>();
+    public static final int MIN_CAPACITY = 64;
+    public static final int MAX_POOLED_CAPACITY;
+
+    private static final int MIN_SHIFT = 6;
+    private static final int NUM_SIZE_CLASSES;
+    private static final int NUM_CACHED_SIZE_CLASSES;
+    private static final int THREAD_CACHE_SIZE;
+    private static final int REMOTE_FREE_CAPACITY;
+
+    private static final PoolArena<byte[]>[] heapArenas;
+    private static final PoolArena<ByteBuffer>[] directArenas;
+    private static final ThreadLocal<PoolThreadCache> threadCache = ThreadLocal.withInitial(ByteBufPool::newThreadCache);
+    // 跟踪线程缓存所属的线程, 线程结束后回收它的缓存
+    private static final ReferenceQueue<Thread> deadThreads = new ReferenceQueue<>();
+    private static final Set<ThreadCacheReference> liveThreadCaches = ConcurrentHashMap.newKeySet();
+
+    static {
+        int arenas = Integer.getInteger("lbytebuf.pool.arenas", Runtime.getRuntime().availableProcessors() * 2);
+        long maxRetainedBytes = Long.getLong("lbytebuf.pool.maxRetainedBytes", Runtime.getRuntime().maxMemory() / 8);
+        long maxRetainedDirectBytes = Long.getLong("lbytebuf.pool.maxRetainedDirectBytes", maxRetainedBytes);
+        int maxPooledCapacity = normalize(Integer.getInteger("lbytebuf.pool.maxPooledCapacity", 4 << 20));
+        int maxCachedCapacity = Math.min(normalize(Integer.getInteger("lbytebuf.pool.maxCachedCapacity", 32 << 10)), maxPooledCapacity);
+
+        MAX_POOLED_CAPACITY = maxPooledCapacity;
+        NUM_SIZE_CLASSES = sizeClass(maxPooledCapacity) + 1;
+        NUM_CACHED_SIZE_CLASSES = sizeClass(maxCachedCapacity) + 1;
+        THREAD_CACHE_SIZE = Integer.getInteger("lbytebuf.pool.threadCacheSize", 32);
+        REMOTE_FREE_CAPACITY = Integer.getInteger("lbytebuf.pool.remoteFreeCapacity", 256);
+
+        arenas = Math.max(1, arenas);
+        heapArenas = newArenaArray(arenas);
+        directArenas = newArenaArray(arenas);
+        for (int i = 0; i < arenas; i++) {
+            heapArenas[i] = new PoolArena.HeapArena(NUM_SIZE_CLASSES, maxRetainedBytes / arenas);
+            directArenas[i] = new PoolArena.DirectArena(NUM_SIZE_CLASSES, maxRetainedDirectBytes / arenas);
+        }
+    }
 
     public static ByteBuf acquire() {
-        ByteBuf buf = pool.poll();
-        if (buf == null) {
-            return new UnpooledByteBuf(DEFAULT_INITIAL_CAPACITY);
+        return acquire(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * 获取容量至少为 capacity 的池化 ByteBuf, 实际容量向上取整到尺寸等级
+     */
+    public static ByteBuf acquire(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity: " + capacity);
         }
+        PooledByteBuf buf = new PooledByteBuf(allocateHeap(capacity), threadCache.get());
+        ByteBufMetrics.recordAcquire(false);
+        buf.leak = ResourceLeakDetector.track(buf);
         return buf;
     }
 
-    public static void release(ByteBuf buf) {
-        if (buf instanceof UnpooledByteBuf) {
-            ((UnpooledByteBuf) buf).clear();
-            pool.offer(buf);
+    /**
+     * 获取容量至少为 capacity 的池化堆外 ByteBuf
+     */
+    public static ByteBuf acquireDirect(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity: " + capacity);
         }
+        PooledDirectByteBuf buf = new PooledDirectByteBuf(allocateDirect(capacity), threadCache.get());
+        ByteBufMetrics.recordAcquire(true);
+        buf.leak = ResourceLeakDetector.track(buf);
+        return buf;
+    }
+
+    /**
+     * 等价于 buf.release(), 引用计数归零时内存才回到池中
+     */
+    public static boolean release(ByteBuf buf) {
+        return buf.release();
     }
 
+    /**
+     * 内存池的运行指标, 默认关闭, 通过 setEnabled(true) 或 -Dlbytebuf.metrics.enabled=true 开启
+     */
+    public static ByteBufMetrics metrics() {
+        return ByteBufMetrics.INSTANCE;
+    }
+
+    /**
+     * 清空所有 arena 以及当前线程的缓存
+     */
     public static void clear() {
-        pool.clear();
+        freeDeadThreadCaches();
+        threadCache.get().clear();
+        for (PoolArena<byte[]> arena : heapArenas) {
+            arena.clear();
+        }
+        for (PoolArena<ByteBuffer> arena : directArenas) {
+            arena.clear();
+        }
+    }
+
+    /**
+     * 当前所有 arena 保留的字节数, 不含线程缓存
+     */
+    public static long retainedBytes() {
+        long total = 0;
+        for (PoolArena<byte[]> arena : heapArenas) {
+            total += arena.retainedBytes();
+        }
+        for (PoolArena<ByteBuffer> arena : directArenas) {
+            total += arena.retainedBytes();
+        }
+        return total;
+    }
+
+    static byte[] allocateHeap(int capacity) {
+        if (capacity > MAX_POOLED_CAPACITY) {
+            ByteBufMetrics.recordUnpooledAllocation(false, capacity);
+            return new byte[capacity];
+        }
+        return threadCache.get().allocateHeap(sizeClass(capacity));
+    }
+
+    static PoolThreadCache threadCache() {
+        return threadCache.get();
+    }
+
+    static void freeHeap(byte[] memory) {
+        freeHeap(memory, null);
+    }
+
+    /**
+     * owner 为分配 memory 的线程缓存, 由其他线程释放时优先还给 owner, 让内存留在分配它的线程
+     */
+    static void freeHeap(byte[] memory, PoolThreadCache owner) {
+        int capacity = memory.length;
+        // 只回收长度恰好等于某个尺寸等级的数组
+        if (capacity < MIN_CAPACITY || capacity > MAX_POOLED_CAPACITY || (capacity & (capacity - 1)) != 0) {
+            return;
+        }
+        int sizeClass = sizeClass(capacity);
+        PoolThreadCache cache = threadCache.get();
+        if (owner != null && owner != cache && owner.isCached(sizeClass) && owner.offerRemoteHeap(memory)) {
+            return;
+        }
+        cache.freeHeap(sizeClass, memory);
+    }
+
+    static ByteBuffer allocateDirect(int capacity) {
+        if (capacity > MAX_POOLED_CAPACITY) {
+            ByteBufMetrics.recordUnpooledAllocation(true, capacity);
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        return threadCache.get().allocateDirect(sizeClass(capacity));
+    }
+
+    static void freeDirect(ByteBuffer memory) {
+        freeDirect(memory, null);
+    }
+
+    static void freeDirect(ByteBuffer memory, PoolThreadCache owner) {
+        int capacity = memory.capacity();
+        if (capacity < MIN_CAPACITY || capacity > MAX_POOLED_CAPACITY || (capacity & (capacity - 1)) != 0) {
+            PlatformDependent.freeDirectBuffer(memory);
+            return;
+        }
+        int sizeClass = sizeClass(capacity);
+        PoolThreadCache cache = threadCache.get();
+        if (owner != null && owner != cache && owner.isCached(sizeClass) && owner.offerRemoteDirect(memory)) {
+            return;
+        }
+        cache.freeDirect(sizeClass, memory);
+    }
+
+    static int sizeClass(int capacity) {
+        if (capacity <= MIN_CAPACITY) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+    }
+
+    static int sizeOf(int sizeClass) {
+        return MIN_CAPACITY << sizeClass;
+    }
+
+    private static int normalize(int capacity) {
+        return sizeOf(sizeClass(capacity));
+    }
+
+    private static PoolThreadCache newThreadCache() {
+        // 先回收已结束线程的缓存, 让 leastUsedArena 看到准确的线程数
+        freeDeadThreadCaches();
+        PoolThreadCache cache = new PoolThreadCache(leastUsedArena(heapArenas), leastUsedArena(directArenas), NUM_CACHED_SIZE_CLASSES, THREAD_CACHE_SIZE, REMOTE_FREE_CAPACITY);
+        liveThreadCaches.add(new ThreadCacheReference(Thread.currentThread(), cache));
+        return cache;
+    }
+
+    /**
+     * 把已被回收的线程的缓存内存归还 arena, 并减少 arena 的线程计数
+     */
+    static void freeDeadThreadCaches() {
+        ThreadCacheReference reference;
+        while ((reference = (ThreadCacheReference) deadThreads.poll()) != null) {
+            if (liveThreadCaches.remove(reference)) {
+                reference.cache.free();
+            }
+        }
+    }
+
+    /**
+     * 绑定到堆内存 arena 的存活线程缓存数
+     */
+    static int numThreadCaches() {
+        freeDeadThreadCaches();
+        int total = 0;
+        for (PoolArena<byte[]> arena : heapArenas) {
+            total += arena.numThreadCaches.get();
+        }
+        return total;
+    }
+
+    /**
+     * 线程对象只剩虚引用时进入 deadThreads, 缓存本身不引用线程
+     */
+    private static final class ThreadCacheReference extends PhantomReference<Thread> {
+        final PoolThreadCache cache;
+
+        ThreadCacheReference(Thread thread, PoolThreadCache cache) {
+            super(thread, deadThreads);
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * 选择绑定线程最少的 arena, 让线程均匀分布
+     */
+    private static <T> PoolArena<T> leastUsedArena(PoolArena<T>[] arenas) {
+        PoolArena<T> arena = arenas[0];
+        for (PoolArena<T> candidate : arenas) {
+            if (candidate.numThreadCaches.get() < arena.numThreadCaches.get()) {
+                arena = candidate;
+            }
+        }
+        return arena;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> PoolArena<T>[] newArenaArray(int size) {
+        return (PoolArena<T>[]) new PoolArena<?>[size];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package cn.langya;
+
+/**
+ * 通过 JMX 导出的内存池指标, 注册名为 {@value ByteBufMetrics#OBJECT_NAME}
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public interface ByteBufPoolMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * 落在池化尺寸等级内的分配次数, 下标为尺寸等级, 等级 i 的容量为 64 << i
+     */
+    long[] getHeapAllocationsBySizeClass();
+
+    long[] getDirectAllocationsBySizeClass();
+
+    long getHeapAllocations();
+
+    long getDirectAllocations();
+
+    /**
+     * 命中线程缓存的分配次数
+     */
+    long getThreadCacheHits();
+
+    /**
+     * 未命中线程缓存但命中共享 arena 的分配次数
+     */
+    long getArenaHits();
+
+    /**
+     * 池中没有空闲内存、新分配的次数
+     */
+    long getMisses();
+
+    /**
+     * 线程缓存与 arena 命中的次数占池化分配总数的比例
+     */
+    double getHitRatio();
+
+    /**
+     * 超过最大池化容量、不经过内存池直接分配的次数
+     */
+    long getUnpooledAllocations();
+
+    /**
+     * 归还时超过保留上限而被丢弃的内存块数
+     */
+    long getDiscards();
+
+    long getRetainedBytes();
+
+    /**
+     * 已从内存池获取尚未释放的 ByteBuf 数
+     */
+    long getActiveHeapBuffers();
+
+    long getActiveDirectBuffers();
+
+    /**
+     * 扩容或缩容时重新分配底层内存的次数, 以及其间复制的字节数
+     */
+    long getReallocations();
+
+    long getReallocationBytesCopied();
+
+    /**
+     * CompositeByteBuf 合并组件的次数, 以及其间复制的字节数
+     */
+    long getConsolidations();
+
+    long getConsolidationBytesCopied();
+
+    /**
+     * 累计计数清零, 活跃 ByteBuf 数与保留字节数不受影响
+     */
+    void reset();
+}
@@ -0,0 +1,288 @@
+package cn.langya;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 字符串与 varint 编解码工具, 字符串直接在 ByteBuf 的底层存储上编码和解码, 不产生中间数组
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public final class ByteBufUtil {
+    private static final byte REPLACEMENT = '?';
+
+    /**
+     * 解码时的临时数组上限, 超过后按需分配
+     */
+    private static final int MAX_SCRATCH_LENGTH = 8192;
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<>();
+
+    /**
+     * 短字符串驻留缓存, 默认关闭, 通过 lbytebuf.stringCache.maxLength 开启
+     */
+    static final StringCache STRING_CACHE;
+
+    static {
+        int maxLength = Integer.getInteger("lbytebuf.stringCache.maxLength", 0);
+        int size = Integer.getInteger("lbytebuf.stringCache.size", 1024);
+        STRING_CACHE = maxLength > 0 ? new StringCache(size, maxLength) : null;
+    }
+
+    private ByteBufUtil() {
+    }
+
+    /**
+     * value 按无符号 LEB128 编码后的字节数, 1 到 5
+     */
+    public static int varIntSize(int value) {
+        // 每 7 位一个字节, 0 也占一个字节
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * value 按无符号 LEB128 编码后的字节数, 1 到 10
+     */
+    public static int varLongSize(long value) {
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    // ZigZag 把绝对值小的负数映射为小的无符号数: 0 -> 0, -1 -> 1, 1 -> 2, -2 -> 3
+    public static int encodeZigZag32(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    public static int decodeZigZag32(int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    public static long encodeZigZag64(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    public static long decodeZigZag64(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * seq 按 UTF-8 编码后的字节数, 与 String.getBytes(UTF_8) 的结果一致, 未配对的代理字符计为一个 '?'
+     */
+    public static int utf8Length(CharSequence seq) {
+        int length = seq.length();
+        int i = 0;
+        // ASCII 前缀每个字符一个字节
+        while (i < length && seq.charAt(i) < 0x80) {
+            i++;
+        }
+        int bytes = i;
+        for (; i < length; i++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                    i++;
+                    bytes += 4;
+                } else {
+                    bytes++;
+                }
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 把 seq 按 UTF-8 编码写入 buf 的 index 处, 调用方已确认有 utf8Length(seq) 字节可写, 返回写入的字节数
+     */
+    static int writeUtf8(AbstractByteBuf buf, int index, CharSequence seq) {
+        if (buf.hasArray()) {
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset() + index;
+            return writeUtf8(array, offset, seq) - offset;
+        }
+        int start = index;
+        int length = seq.length();
+        int i = 0;
+        for (; i < length; i++) {
+            char c = seq.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            buf._setByte(index++, (byte) c);
+        }
+        for (; i < length; i++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                buf._setByte(index++, (byte) c);
+            } else if (c < 0x800) {
+                buf._setByte(index++, (byte) (0xC0 | c >> 6));
+                buf._setByte(index++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, seq.charAt(++i));
+                    buf._setByte(index++, (byte) (0xF0 | codePoint >> 18));
+                    buf._setByte(index++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                    buf._setByte(index++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                    buf._setByte(index++, (byte) (0x80 | codePoint & 0x3F));
+                } else {
+                    buf._setByte(index++, REPLACEMENT);
+                }
+            } else {
+                buf._setByte(index++, (byte) (0xE0 | c >> 12));
+                buf._setByte(index++, (byte) (0x80 | c >> 6 & 0x3F));
+                buf._setByte(index++, (byte) (0x80 | c & 0x3F));
+            }
+        }
+        return index - start;
+    }
+
+    /**
+     * 堆内存直接写数组, 返回写入结束的位置
+     */
+    private static int writeUtf8(byte[] array, int index, CharSequence seq) {
+        int length = seq.length();
+        int i = 0;
+        for (; i < length; i++) {
+            char c = seq.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            array[index++] = (byte) c;
+        }
+        for (; i < length; i++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                array[index++] = (byte) c;
+            } else if (c < 0x800) {
+                array[index++] = (byte) (0xC0 | c >> 6);
+                array[index++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, seq.charAt(++i));
+                    array[index++] = (byte) (0xF0 | codePoint >> 18);
+                    array[index++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    array[index++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    array[index++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    array[index++] = REPLACEMENT;
+                }
+            } else {
+                array[index++] = (byte) (0xE0 | c >> 12);
+                array[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+                array[index++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 单字节字符集 (US_ASCII / ISO_8859_1) 逐字符写入, 无法表示的字符写为 '?'
+     */
+    static void writeSingleByte(AbstractByteBuf buf, int index, CharSequence seq, char maxChar) {
+        int length = seq.length();
+        if (buf.hasArray()) {
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset() + index;
+            for (int i = 0; i < length; i++) {
+                char c = seq.charAt(i);
+                array[offset + i] = c > maxChar ? REPLACEMENT : (byte) c;
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = seq.charAt(i);
+            buf._setByte(index + i, c > maxChar ? REPLACEMENT : (byte) c);
+        }
+    }
+
+    /**
+     * 从 buf 的 [index, index + length) 解码字符串, 调用方负责边界检查
+     * 堆内存直接在底层数组上解码, 其他实现先整块复制到线程私有的临时数组
+     */
+    static String decodeString(AbstractByteBuf buf, int index, int length, Charset charset) {
+        if (length == 0) {
+            return "";
+        }
+        StringCache cache = STRING_CACHE;
+        if (cache != null && charset == StandardCharsets.UTF_8 && length <= cache.maxLength) {
+            return cache.get(buf, index, length);
+        }
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + index, length, charset);
+        }
+        byte[] scratch = scratch(length);
+        buf.getBytes(index, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+
+    private static byte[] scratch(int length) {
+        if (length > MAX_SCRATCH_LENGTH) {
+            return new byte[length];
+        }
+        byte[] scratch = SCRATCH.get();
+        if (scratch == null) {
+            scratch = new byte[MAX_SCRATCH_LENGTH];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * 按内容哈希直接映射的短字符串缓存, 只缓存纯 ASCII 字符串
+     * ASCII 字节的多项式哈希与 String.hashCode 相同, 命中时无需分配任何对象
+     * 槽位的读写不加锁, String 不可变, 竞争时最多多创建一个对象
+     */
+    static final class StringCache {
+        final int maxLength;
+        private final String[] entries;
+        private final int mask;
+
+        StringCache(int size, int maxLength) {
+            int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+            this.entries = new String[capacity];
+            this.mask = capacity - 1;
+            this.maxLength = maxLength;
+        }
+
+        String get(AbstractByteBuf buf, int index, int length) {
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                byte b = buf._getByte(index + i);
+                if (b < 0) {
+                    return decodeUncached(buf, index, length);
+                }
+                hash = 31 * hash + b;
+            }
+            int slot = (hash ^ hash >>> 16) & mask;
+            String cached = entries[slot];
+            if (cached != null && cached.length() == length && cached.hashCode() == hash && matches(cached, buf, index)) {
+                return cached;
+            }
+            String s = decodeUncached(buf, index, length);
+            entries[slot] = s;
+            return s;
+        }
+
+        private static boolean matches(String s, AbstractByteBuf buf, int index) {
+            for (int i = 0, length = s.length(); i < length; i++) {
+                if (s.charAt(i) != buf._getByte(index + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String decodeUncached(AbstractByteBuf buf, int index, int length) {
+            if (buf.hasArray()) {
+                return new String(buf.array(), buf.arrayOffset() + index, length, StandardCharsets.UTF_8);
+            }
+            byte[] scratch = scratch(length);
+            buf.getBytes(index, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package cn.langya;
+
+/**
+ * 逐字节遍历 ByteBuf 时的回调, 配合 ByteBuf.forEachByte 使用
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface ByteProcessor {
+    // 常用的查找条件, 遇到目标字节时停止
+    ByteProcessor FIND_NUL = value -> value != 0;
+
+    ByteProcessor FIND_CR = value -> value != '\r';
+
+    ByteProcessor FIND_LF = value -> value != '\n';
+
+    ByteProcessor FIND_CRLF = value -> value != '\r' && value != '\n';
+
+    ByteProcessor FIND_NON_CRLF = value -> value == '\r' || value == '\n';
+
+    /**
+     * 空格或制表符
+     */
+    ByteProcessor FIND_LINEAR_WHITESPACE = value -> value != ' ' && value != '\t';
+
+    /**
+     * 返回 false 时停止遍历, forEachByte 返回当前字节的索引
+     */
+    boolean process(byte value);
+}
@@ -1,60 +1,166 @@
 package cn.langya;
 
-import java.io.IOException;
-import java.io.Serializable;
+import java.nio.ByteBuffer;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * @author LangYa466
  * @date 2025/5/19
  */
-public class CompositeByteBuf implements ByteBuf {
+public class CompositeByteBuf extends AbstractByteBuf {
+    /**
+     * 组件的只读视图, 修改组件请通过本类的方法
+     */
     public final List<ByteBuf> components;
-    public int readerIndex;
-    public int writerIndex;
     public int totalCapacity;
 
+    private final List<ByteBuf> componentList;
+    private Component[] componentArray = new Component[4];
+    private int componentCount;
+    private Component lastAccessed;
+
     public CompositeByteBuf(ByteBuf... buffers) {
-        this.components = new ArrayList<>();
+        this.componentList = new ArrayList<>(buffers.length);
+        this.components = Collections.unmodifiableList(componentList);
         this.readerIndex = 0;
         this.writerIndex = 0;
         for (ByteBuf buf : buffers) {
-            addComponent(buf);
+            addComponent(true, buf);
         }
     }
 
-    private void addComponent(ByteBuf buf) {
-        components.add(buf);
-        totalCapacity += buf.writableBytes() + buf.readableBytes();
-        writerIndex += buf.readableBytes();
+    /**
+     * 在末尾追加组件, 组件当前的可读区域成为本 ByteBuf 的一段, 写指针随之后移
+     * 本 ByteBuf 接管调用方持有的那一份引用计数
+     */
+    public CompositeByteBuf addComponent(ByteBuf buf) {
+        return addComponent(true, buf);
     }
 
-    @Override
-    public int readerIndex() {
-        return readerIndex;
+    /**
+     * 在末尾追加组件, increaseWriterIndex 为 false 时新增的区域只计入容量, 可供后续写入
+     */
+    public CompositeByteBuf addComponent(boolean increaseWriterIndex, ByteBuf buf) {
+        int length = buf.readableBytes();
+        if (componentCount == componentArray.length) {
+            componentArray = Arrays.copyOf(componentArray, componentCount << 1);
+        }
+        componentArray[componentCount++] = new Component(buf, buf.readerIndex(), totalCapacity, length);
+        componentList.add(buf);
+        totalCapacity += length;
+        if (increaseWriterIndex) {
+            writerIndex += length;
+        }
+        return this;
     }
 
-    @Override
-    public int writerIndex() {
-        return writerIndex;
+    /**
+     * 移除并释放第 cIndex 个组件, 后续组件前移, 落在被移除区域之后的读写指针相应前移
+     */
+    public CompositeByteBuf removeComponent(int cIndex) {
+        checkComponentIndex(cIndex);
+        Component removed = componentArray[cIndex];
+        if (lastAccessed == removed) {
+            lastAccessed = null;
+        }
+        System.arraycopy(componentArray, cIndex + 1, componentArray, cIndex, componentCount - cIndex - 1);
+        componentArray[--componentCount] = null;
+        componentList.remove(cIndex);
+
+        int length = removed.endOffset - removed.offset;
+        for (int i = cIndex; i < componentCount; i++) {
+            componentArray[i].reposition(componentArray[i].offset - length);
+        }
+        totalCapacity -= length;
+        readerIndex = adjustIndexForRemoval(readerIndex, removed.offset, removed.endOffset);
+        writerIndex = adjustIndexForRemoval(writerIndex, removed.offset, removed.endOffset);
+        removed.buf.release();
+        return this;
     }
 
-    @Override
-    public ByteBuf readerIndex(int readerIndex) {
-        this.readerIndex = readerIndex;
+    /**
+     * 移除并释放已完全读完的前导组件, 读写指针随之前移
+     */
+    public CompositeByteBuf discardReadComponents() {
+        int count = 0;
+        while (count < componentCount && componentArray[count].endOffset <= readerIndex) {
+            count++;
+        }
+        if (count == 0) {
+            return this;
+        }
+        // 一次性前移剩余组件, 避免逐个移除的重复复制
+        int length = count == componentCount ? totalCapacity : componentArray[count].offset;
+        for (int i = 0; i < count; i++) {
+            componentArray[i].buf.release();
+        }
+        System.arraycopy(componentArray, count, componentArray, 0, componentCount - count);
+        Arrays.fill(componentArray, componentCount - count, componentCount, null);
+        componentList.subList(0, count).clear();
+        componentCount -= count;
+        for (int i = 0; i < componentCount; i++) {
+            componentArray[i].reposition(componentArray[i].offset - length);
+        }
+        lastAccessed = null;
+        totalCapacity -= length;
+        readerIndex -= length;
+        writerIndex -= length;
         return this;
     }
 
-    @Override
-    public ByteBuf writerIndex(int writerIndex) {
+    public int numComponents() {
+        return componentCount;
+    }
+
+    /**
+     * 把所有组件合并为一块连续内存, 之后的访问不再需要查找组件
+     */
+    public CompositeByteBuf consolidate() {
+        if (componentCount <= 1) {
+            return this;
+        }
+        int capacity = totalCapacity;
+        UnpooledByteBuf consolidated = (UnpooledByteBuf) ByteBufPool.acquire(capacity);
+        for (int i = 0; i < componentCount; i++) {
+            Component c = componentArray[i];
+            c.buf.getBytes(c.idx(c.offset), consolidated.buffer, c.offset, c.endOffset - c.offset);
+            c.buf.release();
+        }
+        consolidated.writerIndex(capacity);
+        ByteBufMetrics.recordConsolidation(this, componentCount, capacity);
+        Arrays.fill(componentArray, 0, componentCount, null);
+        componentList.clear();
+        componentCount = 0;
+        lastAccessed = null;
+        totalCapacity = 0;
+        int readerIndex = this.readerIndex;
+        int writerIndex = this.writerIndex;
+        addComponent(false, consolidated);
+        this.readerIndex = readerIndex;
         this.writerIndex = writerIndex;
         return this;
     }
 
+    private void checkComponentIndex(int cIndex) {
+        if (cIndex < 0 || cIndex >= componentCount) {
+            throw new IndexOutOfBoundsException("cIndex: " + cIndex + " (expected: range(0, " + componentCount + "))");
+        }
+    }
+
+    private static int adjustIndexForRemoval(int index, int offset, int endOffset) {
+        if (index >= endOffset) {
+            return index - (endOffset - offset);
+        }
+        return Math.min(index, offset);
+    }
+
     @Override
-    public int readableBytes() {
-        return writerIndex - readerIndex;
+    public int capacity() {
+        return totalCapacity;
     }
 
     @Override
@@ -62,172 +168,524 @@ public class CompositeByteBuf implements ByteBuf {
         return totalCapacity - writerIndex;
     }
 
-    private ComponentEntry getComponent(int index) {
-        int readableBytes = 0;
-        for (int i = 0; i < components.size(); i++) {
-            ByteBuf component = components.get(i);
-            int componentBytes = component.readableBytes();
-            if (index < readableBytes + componentBytes) {
-                return new ComponentEntry(i, component, index - readableBytes);
+    /**
+     * 只有单个组件且该组件由数组支撑时才暴露底层数组
+     */
+    @Override
+    public boolean hasArray() {
+        return componentCount == 1 && componentArray[0].buf.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        if (componentCount != 1) {
+            throw new UnsupportedOperationException("composite buffer with " + componentCount + " components");
+        }
+        return componentArray[0].buf.array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        if (componentCount != 1) {
+            throw new UnsupportedOperationException("composite buffer with " + componentCount + " components");
+        }
+        Component c = componentArray[0];
+        return c.buf.arrayOffset() + c.idx(0);
+    }
+
+    /**
+     * 最近访问的组件命中时直接返回, 否则二分查找
+     */
+    private Component findComponent(int offset) {
+        Component la = lastAccessed;
+        if (la != null && offset >= la.offset && offset < la.endOffset) {
+            return la;
+        }
+        Component c = componentArray[toComponentIndex(offset)];
+        lastAccessed = c;
+        return c;
+    }
+
+    private int toComponentIndex(int offset) {
+        Component[] components = componentArray;
+        int low = 0;
+        int high = componentCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Component c = components[mid];
+            if (offset >= c.endOffset) {
+                low = mid + 1;
+            } else if (offset < c.offset) {
+                high = mid - 1;
+            } else {
+                return mid;
             }
-            readableBytes += componentBytes;
         }
-        throw new IndexOutOfBoundsException();
+        throw new IndexOutOfBoundsException("offset: " + offset + " (expected: range(0, " + totalCapacity + "))");
     }
 
+    /**
+     * 扩容时在末尾追加一个池化组件作为可写区域, 缩容时释放超出的组件并截短最后一个组件
+     */
     @Override
-    public byte readByte() {
-        ComponentEntry entry = getComponent(readerIndex);
-        readerIndex++;
-        return entry.component.getByte(entry.componentIndex);
+    protected void adjustCapacity(int newCapacity) {
+        if (newCapacity >= totalCapacity) {
+            int oldCapacity = totalCapacity;
+            ByteBuf buf = ByteBufPool.acquire(newCapacity - totalCapacity);
+            buf.writerIndex(buf.capacity());
+            addComponent(false, buf);
+            ByteBufMetrics.recordReallocation(this, oldCapacity, totalCapacity, 0);
+            return;
+        }
+        while (componentCount > 0 && componentArray[componentCount - 1].offset >= newCapacity) {
+            Component removed = componentArray[--componentCount];
+            componentArray[componentCount] = null;
+            componentList.remove(componentCount);
+            removed.buf.release();
+        }
+        if (componentCount > 0) {
+            componentArray[componentCount - 1].endOffset = newCapacity;
+        }
+        lastAccessed = null;
+        totalCapacity = newCapacity;
     }
 
+    /**
+     * 释放读完的组件并截掉第一个组件的已读部分, 不移动数据, 容量随之减少
+     */
     @Override
-    public ByteBuf writeByte(byte b) {
-        ComponentEntry entry = getComponent(writerIndex);
-        entry.component.setByte(entry.componentIndex, b);
-        writerIndex++;
+    public ByteBuf discardReadBytes() {
+        checkReadableBytes(0);
+        discardReadComponents();
+        int readerIndex = this.readerIndex;
+        if (readerIndex == 0) {
+            return this;
+        }
+        Component first = componentArray[0];
+        first.srcAdjustment += readerIndex;
+        first.endOffset -= readerIndex;
+        for (int i = 1; i < componentCount; i++) {
+            componentArray[i].reposition(componentArray[i].offset - readerIndex);
+        }
+        lastAccessed = null;
+        totalCapacity -= readerIndex;
+        writerIndex -= readerIndex;
+        this.readerIndex = 0;
         return this;
     }
 
     @Override
-    public byte getByte(int index) {
-        ComponentEntry entry = getComponent(index);
-        return entry.component.getByte(entry.componentIndex);
+    protected byte _getByte(int index) {
+        Component c = findComponent(index);
+        return c.buf.getByte(c.idx(index));
     }
 
     @Override
-    public ByteBuf setByte(int index, byte b) {
-        ComponentEntry entry = getComponent(index);
-        entry.component.setByte(entry.componentIndex, b);
-        return this;
+    protected void _setByte(int index, byte value) {
+        Component c = findComponent(index);
+        c.buf.setByte(c.idx(index), value);
     }
 
+    // 值完整落在一个组件内时直接交给该组件读写, 只有跨越组件边界时才拆成两半拼接
     @Override
-    public ByteBuf writeBytes(byte[] src) {
-        for (byte b : src) {
-            writeByte(b);
+    protected short _getShort(int index) {
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            return c.buf.getShort(c.idx(index));
         }
-        return this;
+        return (short) ((_getByte(index) & 0xFF) << 8 | _getByte(index + 1) & 0xFF);
     }
 
     @Override
-    public byte[] readBytes(int length) {
-        byte[] result = new byte[length];
-        for (int i = 0; i < length; i++) {
-            result[i] = readByte();
+    protected void _setShort(int index, short value) {
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            c.buf.setShort(c.idx(index), value);
+            return;
         }
-        return result;
+        _setByte(index, (byte) (value >>> 8));
+        _setByte(index + 1, (byte) value);
     }
 
-    // 为了简化实现，其他方法都委托给第一个组件
     @Override
-    public ByteBuf writeInt(int value) {
-        components.get(0).writeInt(value);
-        return this;
+    protected int _getInt(int index) {
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            return c.buf.getInt(c.idx(index));
+        }
+        return (_getShort(index) & 0xFFFF) << 16 | _getShort(index + 2) & 0xFFFF;
     }
 
     @Override
-    public int readInt() {
-        return components.get(0).readInt();
+    protected void _setInt(int index, int value) {
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            c.buf.setInt(c.idx(index), value);
+            return;
+        }
+        _setShort(index, (short) (value >>> 16));
+        _setShort(index + 2, (short) value);
     }
 
     @Override
-    public ByteBuf writeLong(long value) {
-        components.get(0).writeLong(value);
-        return this;
+    protected long _getLong(int index) {
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            return c.buf.getLong(c.idx(index));
+        }
+        return (_getInt(index) & 0xFFFFFFFFL) << 32 | _getInt(index + 4) & 0xFFFFFFFFL;
     }
 
     @Override
-    public long readLong() {
-        return components.get(0).readLong();
+    protected void _setLong(int index, long value) {
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            c.buf.setLong(c.idx(index), value);
+            return;
+        }
+        _setInt(index, (int) (value >>> 32));
+        _setInt(index + 4, (int) value);
     }
 
     @Override
-    public ByteBuf writeFloat(float value) {
-        components.get(0).writeFloat(value);
-        return this;
+    protected short _getShortLE(int index) {
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            return c.buf.getShortLE(c.idx(index));
+        }
+        return Short.reverseBytes(_getShort(index));
     }
 
     @Override
-    public float readFloat() {
-        return components.get(0).readFloat();
+    protected void _setShortLE(int index, short value) {
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            c.buf.setShortLE(c.idx(index), value);
+            return;
+        }
+        _setShort(index, Short.reverseBytes(value));
     }
 
     @Override
-    public ByteBuf writeDouble(double value) {
-        components.get(0).writeDouble(value);
-        return this;
+    protected int _getIntLE(int index) {
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            return c.buf.getIntLE(c.idx(index));
+        }
+        return Integer.reverseBytes(_getInt(index));
     }
 
     @Override
-    public double readDouble() {
-        return components.get(0).readDouble();
+    protected void _setIntLE(int index, int value) {
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            c.buf.setIntLE(c.idx(index), value);
+            return;
+        }
+        _setInt(index, Integer.reverseBytes(value));
     }
 
     @Override
-    public ByteBuf writeChar(char value) {
-        components.get(0).writeChar(value);
-        return this;
+    protected long _getLongLE(int index) {
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            return c.buf.getLongLE(c.idx(index));
+        }
+        return Long.reverseBytes(_getLong(index));
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            c.buf.setLongLE(c.idx(index), value);
+            return;
+        }
+        _setLong(index, Long.reverseBytes(value));
+    }
+
+    // 查找与遍历按组件分段交给组件自身完成, 每段只定位一次组件
+    @Override
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        int i = toComponentIndex(fromIndex);
+        while (fromIndex < toIndex) {
+            Component c = componentArray[i++];
+            int end = Math.min(toIndex, c.endOffset);
+            int found = c.buf.indexOf(c.idx(fromIndex), c.idx(end), value);
+            if (found >= 0) {
+                return found - c.srcAdjustment;
+            }
+            fromIndex = end;
+        }
+        return -1;
+    }
+
+    @Override
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        int i = toComponentIndex(fromIndex - 1);
+        while (fromIndex > toIndex) {
+            Component c = componentArray[i--];
+            int start = Math.max(toIndex, c.offset);
+            int found = c.buf.indexOf(c.idx(fromIndex), c.idx(start), value);
+            if (found >= 0) {
+                return found - c.srcAdjustment;
+            }
+            fromIndex = start;
+        }
+        return -1;
+    }
+
+    @Override
+    public int forEachByte(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return -1;
+        }
+        int end = index + length;
+        int i = toComponentIndex(index);
+        while (index < end) {
+            Component c = componentArray[i++];
+            int localEnd = Math.min(end, c.endOffset);
+            int found = c.buf.forEachByte(c.idx(index), localEnd - index, processor);
+            if (found >= 0) {
+                return found - c.srcAdjustment;
+            }
+            index = localEnd;
+        }
+        return -1;
+    }
+
+    @Override
+    public int forEachByteDesc(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return -1;
+        }
+        int end = index + length;
+        int i = toComponentIndex(end - 1);
+        while (end > index) {
+            Component c = componentArray[i--];
+            int start = Math.max(index, c.offset);
+            int found = c.buf.forEachByteDesc(c.idx(start), end - start, processor);
+            if (found >= 0) {
+                return found - c.srcAdjustment;
+            }
+            end = start;
+        }
+        return -1;
     }
 
+    /**
+     * 按组件分段复制, 元素可以跨越组件边界; 某个组件不支持时返回 false, 调用方会重新逐个元素写入整个范围
+     */
     @Override
-    public char readChar() {
-        return components.get(0).readChar();
+    protected boolean _setRaw(int index, Object src, long srcOffset, int length) {
+        if (length == 0) {
+            return true;
+        }
+        int i = toComponentIndex(index);
+        while (length > 0) {
+            Component c = componentArray[i++];
+            int localLength = Math.min(length, c.endOffset - index);
+            if (!(c.buf instanceof AbstractByteBuf) || !((AbstractByteBuf) c.buf)._setRaw(c.idx(index), src, srcOffset, localLength)) {
+                return false;
+            }
+            index += localLength;
+            srcOffset += localLength;
+            length -= localLength;
+        }
+        return true;
     }
-    
+
     @Override
-    public boolean readBoolean() {
-        return components.get(0).readBoolean();
+    protected boolean _getRaw(int index, Object dst, long dstOffset, int length) {
+        if (length == 0) {
+            return true;
+        }
+        int i = toComponentIndex(index);
+        while (length > 0) {
+            Component c = componentArray[i++];
+            int localLength = Math.min(length, c.endOffset - index);
+            if (!(c.buf instanceof AbstractByteBuf) || !((AbstractByteBuf) c.buf)._getRaw(c.idx(index), dst, dstOffset, localLength)) {
+                return false;
+            }
+            index += localLength;
+            dstOffset += localLength;
+            length -= localLength;
+        }
+        return true;
     }
-    
+
+    /**
+     * 按组件分段整块复制
+     */
     @Override
-    public ByteBuf writeBoolean(boolean value) {
-        components.get(0).writeBoolean(value);
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(dst.length, dstIndex, length);
+        if (length == 0) {
+            return this;
+        }
+        int i = toComponentIndex(index);
+        while (length > 0) {
+            Component c = componentArray[i++];
+            int localLength = Math.min(length, c.endOffset - index);
+            c.buf.getBytes(c.idx(index), dst, dstIndex, localLength);
+            index += localLength;
+            dstIndex += localLength;
+            length -= localLength;
+        }
         return this;
     }
 
     @Override
-    public ByteBuf writeString(String s) {
-        components.get(0).writeString(s);
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(src.length, srcIndex, length);
+        if (length == 0) {
+            return this;
+        }
+        int i = toComponentIndex(index);
+        while (length > 0) {
+            Component c = componentArray[i++];
+            int localLength = Math.min(length, c.endOffset - index);
+            c.buf.setBytes(c.idx(index), src, srcIndex, localLength);
+            index += localLength;
+            srcIndex += localLength;
+            length -= localLength;
+        }
         return this;
     }
 
+    /**
+     * 直接引用底层组件而不是本 ByteBuf, 之后移除或合并组件都不影响已返回的切片
+     * 跨组件时返回由各段组件切片组成的新组合 ByteBuf, 同样不复制数据
+     */
     @Override
-    public String readString() {
-        return components.get(0).readString();
+    public ByteBuf retainedSlice(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return new UnpooledByteBuf(0);
+        }
+        Component c = findComponent(index);
+        if (index + length <= c.endOffset) {
+            return c.buf.retainedSlice(c.idx(index), length);
+        }
+        CompositeByteBuf slice = new CompositeByteBuf();
+        int i = toComponentIndex(index);
+        while (length > 0) {
+            c = componentArray[i++];
+            int localLength = Math.min(length, c.endOffset - index);
+            slice.addComponent(c.buf.retainedSlice(c.idx(index), localLength));
+            index += localLength;
+            length -= localLength;
+        }
+        return slice;
     }
 
+    /**
+     * 只统计与可读区域重叠的组件, 与 nioBuffers() 返回的个数一致
+     */
     @Override
-    public ByteBuf writeObject(Serializable obj) throws IOException {
-        components.get(0).writeObject(obj);
-        return this;
+    public int nioBufferCount() {
+        return nioBufferCount(readerIndex, writerIndex - readerIndex);
     }
 
+    /**
+     * nioBuffers(index, length) 返回的 ByteBuffer 个数
+     */
+    int nioBufferCount(int index, int length) {
+        if (length == 0) {
+            return 1;
+        }
+        int count = 0;
+        int i = toComponentIndex(index);
+        while (length > 0) {
+            Component c = componentArray[i++];
+            int localLength = Math.min(length, c.endOffset - index);
+            // 堆内存和 DirectByteBuf 组件总是一段, 其他组件 (嵌套组合、映射文件、切片等) 可能由多段组成
+            count += c.buf.hasArray() || c.buf instanceof DirectByteBuf
+                    ? 1 : c.buf.nioBuffers(c.idx(index), localLength).length;
+            index += localLength;
+            length -= localLength;
+        }
+        return count;
+    }
+
+    /**
+     * 单个组件时直接返回该组件的视图, 跨组件时复制到一个新的 ByteBuffer
+     */
     @Override
-    public <T> T readObject() throws IOException, ClassNotFoundException {
-        return components.get(0).readObject();
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        Component c = findComponent(index);
+        if (index + length <= c.endOffset) {
+            return c.buf.nioBuffer(c.idx(index), length);
+        }
+        ByteBuffer merged = ByteBuffer.allocate(length);
+        getBytes(index, merged.array(), 0, length);
+        return merged;
     }
 
+    /**
+     * 按组件依次展开, 每段都与组件共享内存
+     */
     @Override
-    public ByteBuf slice(int index, int length) {
-        throw new UnsupportedOperationException();
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return new ByteBuffer[]{ByteBuffer.allocate(0)};
+        }
+        List<ByteBuffer> buffers = new ArrayList<>(componentCount);
+        int i = toComponentIndex(index);
+        while (length > 0) {
+            Component c = componentArray[i++];
+            int localLength = Math.min(length, c.endOffset - index);
+            Collections.addAll(buffers, c.buf.nioBuffers(c.idx(index), localLength));
+            index += localLength;
+            length -= localLength;
+        }
+        return buffers.toArray(new ByteBuffer[0]);
     }
 
+    /**
+     * 组合 ByteBuf 持有各组件的一个引用, 计数归零时逐个释放
+     */
     @Override
-    public ByteBuf duplicate() {
-        throw new UnsupportedOperationException();
+    protected void deallocate() {
+        for (int i = 0; i < componentCount; i++) {
+            componentArray[i].buf.release();
+        }
     }
 
-    private static class ComponentEntry {
-        final int componentId;
-        final ByteBuf component;
-        final int componentIndex;
+    /**
+     * 组件在本 ByteBuf 中占据 [offset, endOffset), 对应组件自身从 srcIndex 开始的字节
+     */
+    private static final class Component {
+        final ByteBuf buf;
+        int srcAdjustment;
+        int offset;
+        int endOffset;
+
+        Component(ByteBuf buf, int srcIndex, int offset, int length) {
+            this.buf = buf;
+            this.srcAdjustment = srcIndex - offset;
+            this.offset = offset;
+            this.endOffset = offset + length;
+        }
+
+        void reposition(int newOffset) {
+            int move = newOffset - offset;
+            offset = newOffset;
+            endOffset += move;
+            srcAdjustment -= move;
+        }
 
-        ComponentEntry(int componentId, ByteBuf component, int componentIndex) {
-            this.componentId = componentId;
-            this.component = component;
-            this.componentIndex = componentIndex;
+        int idx(int index) {
+            return index + srcAdjustment;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package cn.langya;
+
+/**
+ * ByteBuf 到 ByteBuf 的压缩编解码器, 输入按 nioBuffers 分段读取, 堆内存直接使用底层数组, 不复制到中间数组
+ * CompositeByteBuf 等多段输入逐段送入, 无需先合并为一块连续内存
+ * 实现类持有可复用的压缩状态, 不是线程安全的, 每个线程使用自己的实例
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public interface CompressionCodec extends AutoCloseable {
+    /**
+     * 压缩 src 的全部可读字节写到 dst 的写指针处, dst 按需扩容
+     * 推进 src 的 readerIndex 与 dst 的 writerIndex, 返回写入 dst 的字节数
+     */
+    int compress(ByteBuf src, ByteBuf dst);
+
+    /**
+     * 从 src 的读指针处解压一段完整的压缩数据写到 dst, 之后的字节保持未读
+     * 数据损坏或不完整时抛出 IllegalStateException, 返回写入 dst 的字节数
+     */
+    int decompress(ByteBuf src, ByteBuf dst);
+
+    /**
+     * 释放压缩状态占用的资源
+     */
+    @Override
+    void close();
+}
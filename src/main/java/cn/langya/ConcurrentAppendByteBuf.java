@@ -0,0 +1,229 @@
+package cn.langya;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 多线程并发追加记录的定长 ByteBuf, 写入方无锁:
+ * 1. claim 通过 CAS 推进占位指针, 得到一段独占的区域
+ * 2. 用 setXxx 等绝对索引方法填充这段区域
+ * 3. commit 以有序写入的方式写回记录头, 之前填充的内容对读取方可见
+ * <p>
+ * 每条记录为 4 字节大端记录头 + 内容, 整体按 4 字节对齐; 记录头低 30 位为内容长度, 高 2 位为状态
+ * 读取方 (单线程) 调用 advanceWriterIndex 把 writerIndex 推进到连续已提交记录的末尾, 之后按记录读取
+ * 尚未提交的记录及其之后的记录对读取方不可见, 不会读到写了一半的数据
+ * <p>
+ * 容量固定, 空间不足时 claim 返回 -1; 不要在写入方线程使用相对写方法 writeXxx
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class ConcurrentAppendByteBuf extends UnpooledByteBuf {
+    public static final int HEADER_LENGTH = 4;
+    public static final int MAX_RECORD_LENGTH = (1 << 30) - 1;
+
+    private static final int LENGTH_MASK = MAX_RECORD_LENGTH;
+    private static final int COMMITTED = 1 << 30;
+    private static final int ABORTED = 1 << 31;
+
+    private static final AtomicIntegerFieldUpdater<ConcurrentAppendByteBuf> CLAIM_INDEX_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ConcurrentAppendByteBuf.class, "claimIndex");
+
+    // 数组起始地址不是 4 字节对齐时 Unsafe 无法保证记录头读写的原子性, 改用锁
+    private static final boolean ORDERED_HEADER = PlatformDependent.hasUnsafe()
+            && (PlatformDependent.byteArrayOffset(0) & 3) == 0;
+
+    private volatile int claimIndex;
+
+    public ConcurrentAppendByteBuf(int capacity) {
+        super(new byte[capacity & ~3]);
+        maxCapacity(capacity & ~3);
+    }
+
+    /**
+     * 占用一段 length 字节的区域, 返回内容的起始索引, 空间不足时返回 -1
+     * 返回的索引之后必须调用 commit 或 abort, 否则其后的记录都不会对读取方可见
+     */
+    public int claim(int length) {
+        if (length < 0 || length > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("length: " + length + " (expected: 0-" + MAX_RECORD_LENGTH + ")");
+        }
+        int recordLength = recordLength(length);
+        int capacity = capacity();
+        int index;
+        do {
+            index = claimIndex;
+            if (recordLength > capacity - index) {
+                return -1;
+            }
+        } while (!CLAIM_INDEX_UPDATER.compareAndSet(this, index, index + recordLength));
+        // 先写入未提交的记录头, commit 时从这里取回长度
+        _setInt(index, length);
+        return index + HEADER_LENGTH;
+    }
+
+    /**
+     * 提交 claim 返回的区域, 只能由占用它的线程调用一次
+     */
+    public void commit(int index) {
+        publish(index, COMMITTED);
+    }
+
+    /**
+     * 放弃 claim 返回的区域, 读取方会跳过它
+     */
+    public void abort(int index) {
+        publish(index, ABORTED);
+    }
+
+    private void publish(int index, int state) {
+        int headerIndex = index - HEADER_LENGTH;
+        checkIndex(headerIndex, HEADER_LENGTH);
+        int header = _getInt(headerIndex);
+        if ((header & ~LENGTH_MASK) != 0) {
+            throw new IllegalStateException("record at " + index + " is already " +
+                    ((header & COMMITTED) != 0 ? "committed" : "aborted"));
+        }
+        storeHeader(headerIndex, header | state);
+    }
+
+    /**
+     * 把 src 的可读字节作为一条记录追加, 成功后推进 src 的 readerIndex, 空间不足时返回 false
+     */
+    public boolean append(ByteBuf src) {
+        int length = src.readableBytes();
+        int index = claim(length);
+        if (index < 0) {
+            return false;
+        }
+        try {
+            src.getBytes(src.readerIndex(), buffer, index, length);
+        } catch (RuntimeException e) {
+            abort(index);
+            throw e;
+        }
+        commit(index);
+        src.readerIndex(src.readerIndex() + length);
+        return true;
+    }
+
+    public boolean append(byte[] src) {
+        return append(src, 0, src.length);
+    }
+
+    public boolean append(byte[] src, int srcIndex, int length) {
+        checkRangeBounds(src.length, srcIndex, length);
+        int index = claim(length);
+        if (index < 0) {
+            return false;
+        }
+        setBytes(index, src, srcIndex, length);
+        commit(index);
+        return true;
+    }
+
+    /**
+     * 由读取方调用, 把 writerIndex 推进到连续已提交 (或已放弃) 记录的末尾, 返回可读字节数
+     */
+    public int advanceWriterIndex() {
+        int index = writerIndex;
+        int limit = claimIndex;
+        while (index < limit) {
+            int header = loadHeader(index);
+            if ((header & ~LENGTH_MASK) == 0) {
+                break;
+            }
+            index += recordLength(header & LENGTH_MASK);
+        }
+        writerIndex = index;
+        return index - readerIndex;
+    }
+
+    /**
+     * 读出下一条已提交的记录, 返回共享内存的 slice, 没有可读记录时返回 null
+     * 已放弃的记录直接跳过
+     */
+    public ByteBuf readRecord() {
+        while (true) {
+            if (readerIndex == writerIndex && advanceWriterIndex() == 0) {
+                return null;
+            }
+            int index = readerIndex;
+            int header = _getInt(index);
+            int length = header & LENGTH_MASK;
+            readerIndex = index + recordLength(length);
+            if ((header & COMMITTED) != 0) {
+                return slice(index + HEADER_LENGTH, length);
+            }
+        }
+    }
+
+    /**
+     * 已被占用的字节数, 包含尚未提交的记录
+     */
+    public int claimedBytes() {
+        return claimIndex;
+    }
+
+    /**
+     * 清空缓冲区以便复用, 调用时不能有写入方并发 claim, 且所有占用的区域都已提交或放弃
+     */
+    @Override
+    public void clear() {
+        int claimed = claimIndex;
+        advanceWriterIndex();
+        if (writerIndex != claimed) {
+            throw new IllegalStateException((claimed - writerIndex) + " bytes are claimed but not committed");
+        }
+        // 清零旧的记录头, 避免复用后读取方把它们当作已提交
+        Arrays.fill(buffer, 0, claimed, (byte) 0);
+        readerIndex = 0;
+        writerIndex = 0;
+        claimIndex = 0;
+    }
+
+    /**
+     * 读取方只能前进, 已占用的区域不能移动
+     */
+    @Override
+    public ByteBuf discardReadBytes() {
+        if (readerIndex != 0) {
+            throw new UnsupportedOperationException("records cannot be moved, use clear() once all records are read");
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf discardSomeReadBytes() {
+        return this;
+    }
+
+    @Override
+    protected void adjustCapacity(int newCapacity) {
+        throw new UnsupportedOperationException("capacity of a concurrent append buffer is fixed: " + capacity());
+    }
+
+    private static int recordLength(int length) {
+        return (HEADER_LENGTH + length + 3) & ~3;
+    }
+
+    private void storeHeader(int index, int header) {
+        if (ORDERED_HEADER) {
+            PlatformDependent.putIntOrdered(buffer, index, PlatformDependent.BIG_ENDIAN_NATIVE_ORDER ? header : Integer.reverseBytes(header));
+        } else {
+            synchronized (this) {
+                _setInt(index, header);
+            }
+        }
+    }
+
+    private int loadHeader(int index) {
+        if (ORDERED_HEADER) {
+            int header = PlatformDependent.getIntVolatile(buffer, index);
+            return PlatformDependent.BIG_ENDIAN_NATIVE_ORDER ? header : Integer.reverseBytes(header);
+        }
+        synchronized (this) {
+            return _getInt(index);
+        }
+    }
+}
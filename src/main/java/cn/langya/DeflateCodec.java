@@ -0,0 +1,265 @@
+package cn.langya;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 基于 Deflater / Inflater 的 zlib (nowrap 时为 raw deflate) 编解码器
+ * 堆内存输入输出直接交给 Deflater 使用底层数组; JDK 11+ 上堆外内存通过 setInput(ByteBuffer) / deflate(ByteBuffer) 直接访问,
+ * 更早的 JDK 上堆外内存经过一块 8 KB 的复用数组中转
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class DeflateCodec implements CompressionCodec {
+    private static final int CHUNK_SIZE = 8192;
+    private static final ByteBuffer[] NO_SEGMENTS = new ByteBuffer[0];
+
+    // JDK 11 新增的 ByteBuffer 重载, 不可用时为 null
+    private static final MethodHandle DEFLATER_SET_INPUT;
+    private static final MethodHandle DEFLATER_DEFLATE;
+    private static final MethodHandle INFLATER_SET_INPUT;
+    private static final MethodHandle INFLATER_INFLATE;
+
+    static {
+        MethodHandle deflaterSetInput = null;
+        MethodHandle deflaterDeflate = null;
+        MethodHandle inflaterSetInput = null;
+        MethodHandle inflaterInflate = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            deflaterSetInput = lookup.findVirtual(Deflater.class, "setInput", MethodType.methodType(void.class, ByteBuffer.class));
+            deflaterDeflate = lookup.findVirtual(Deflater.class, "deflate", MethodType.methodType(int.class, ByteBuffer.class));
+            inflaterSetInput = lookup.findVirtual(Inflater.class, "setInput", MethodType.methodType(void.class, ByteBuffer.class));
+            inflaterInflate = lookup.findVirtual(Inflater.class, "inflate", MethodType.methodType(int.class, ByteBuffer.class));
+        } catch (Throwable ignore) {
+            // JDK 8 上退化为复用数组中转
+            deflaterSetInput = deflaterDeflate = inflaterSetInput = inflaterInflate = null;
+        }
+        DEFLATER_SET_INPUT = deflaterSetInput;
+        DEFLATER_DEFLATE = deflaterDeflate;
+        INFLATER_SET_INPUT = inflaterSetInput;
+        INFLATER_INFLATE = inflaterInflate;
+    }
+
+    private final int level;
+    private final boolean nowrap;
+    private Deflater deflater;
+    private Inflater inflater;
+    private byte[] inScratch;
+    private byte[] outScratch;
+
+    public DeflateCodec() {
+        this(Deflater.DEFAULT_COMPRESSION, false);
+    }
+
+    /**
+     * level 为 0-9 或 Deflater.DEFAULT_COMPRESSION, nowrap 为 true 时不写 zlib 头和校验和
+     */
+    public DeflateCodec(int level, boolean nowrap) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("level: " + level + " (expected: 0-9 or -1)");
+        }
+        this.level = level;
+        this.nowrap = nowrap;
+    }
+
+    @Override
+    public int compress(ByteBuf src, ByteBuf dst) {
+        Deflater deflater = this.deflater;
+        if (deflater == null) {
+            deflater = this.deflater = new Deflater(level, nowrap);
+        } else {
+            deflater.reset();
+        }
+        int readerIndex = src.readerIndex();
+        int readable = src.readableBytes();
+        int start = dst.writerIndex();
+        for (ByteBuffer segment : segments(src, readerIndex, readable)) {
+            if (segment.hasArray()) {
+                deflater.setInput(segment.array(), segment.arrayOffset() + segment.position(), segment.remaining());
+                deflateInput(deflater, dst);
+            } else if (DEFLATER_SET_INPUT != null) {
+                invoke(DEFLATER_SET_INPUT, deflater, segment);
+                deflateInput(deflater, dst);
+            } else {
+                byte[] in = inScratch();
+                while (segment.hasRemaining()) {
+                    int length = Math.min(segment.remaining(), in.length);
+                    segment.get(in, 0, length);
+                    deflater.setInput(in, 0, length);
+                    deflateInput(deflater, dst);
+                }
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflateInto(deflater, dst);
+        }
+        src.readerIndex(readerIndex + readable);
+        return dst.writerIndex() - start;
+    }
+
+    private void deflateInput(Deflater deflater, ByteBuf dst) {
+        while (!deflater.needsInput()) {
+            deflateInto(deflater, dst);
+        }
+    }
+
+    private void deflateInto(Deflater deflater, ByteBuf dst) {
+        dst.ensureWritable(CHUNK_SIZE);
+        int writerIndex = dst.writerIndex();
+        int written;
+        ByteBuffer segment;
+        if (dst.hasArray()) {
+            written = deflater.deflate(dst.array(), dst.arrayOffset() + writerIndex, dst.writableBytes());
+        } else if (DEFLATER_DEFLATE != null && (segment = writableSegment(dst)) != null) {
+            written = (int) invoke(DEFLATER_DEFLATE, deflater, segment);
+        } else {
+            byte[] out = outScratch();
+            written = deflater.deflate(out, 0, out.length);
+            dst.setBytes(writerIndex, out, 0, written);
+        }
+        dst.writerIndex(writerIndex + written);
+    }
+
+    @Override
+    public int decompress(ByteBuf src, ByteBuf dst) {
+        Inflater inflater = this.inflater;
+        if (inflater == null) {
+            inflater = this.inflater = new Inflater(nowrap);
+        } else {
+            inflater.reset();
+        }
+        int readerIndex = src.readerIndex();
+        int readable = src.readableBytes();
+        int start = dst.writerIndex();
+        int consumed = 0;
+        try {
+            for (ByteBuffer segment : segments(src, readerIndex, readable)) {
+                consumed += inflateSegment(inflater, segment, dst);
+                if (inflater.finished()) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("malformed deflate data", e);
+        }
+        if (!inflater.finished()) {
+            throw new IllegalStateException("truncated deflate data: " + readable + " bytes");
+        }
+        src.readerIndex(readerIndex + consumed);
+        return dst.writerIndex() - start;
+    }
+
+    /**
+     * 把一段输入送入 inflater, 返回实际消费的字节数, 压缩数据结束时可能少于段长度
+     */
+    private int inflateSegment(Inflater inflater, ByteBuffer segment, ByteBuf dst) throws DataFormatException {
+        int length = segment.remaining();
+        if (segment.hasArray()) {
+            inflater.setInput(segment.array(), segment.arrayOffset() + segment.position(), length);
+            inflateInput(inflater, dst);
+            return length - inflater.getRemaining();
+        }
+        if (INFLATER_SET_INPUT != null) {
+            invoke(INFLATER_SET_INPUT, inflater, segment);
+            inflateInput(inflater, dst);
+            return length - inflater.getRemaining();
+        }
+        byte[] in = inScratch();
+        int consumed = 0;
+        while (consumed < length) {
+            int chunk = Math.min(length - consumed, in.length);
+            segment.get(in, 0, chunk);
+            inflater.setInput(in, 0, chunk);
+            inflateInput(inflater, dst);
+            consumed += chunk - inflater.getRemaining();
+            if (inflater.finished()) {
+                break;
+            }
+        }
+        return consumed;
+    }
+
+    private void inflateInput(Inflater inflater, ByteBuf dst) throws DataFormatException {
+        while (!inflater.finished() && !inflater.needsInput()) {
+            if (inflater.needsDictionary()) {
+                throw new IllegalStateException("deflate data requires a preset dictionary");
+            }
+            dst.ensureWritable(CHUNK_SIZE);
+            int writerIndex = dst.writerIndex();
+            int written;
+            ByteBuffer segment;
+            if (dst.hasArray()) {
+                written = inflater.inflate(dst.array(), dst.arrayOffset() + writerIndex, dst.writableBytes());
+            } else if (INFLATER_INFLATE != null && (segment = writableSegment(dst)) != null) {
+                written = (int) invoke(INFLATER_INFLATE, inflater, segment);
+            } else {
+                byte[] out = outScratch();
+                written = inflater.inflate(out, 0, out.length);
+                dst.setBytes(writerIndex, out, 0, written);
+            }
+            dst.writerIndex(writerIndex + written);
+        }
+    }
+
+    /**
+     * 可写区域只有一段时返回它的视图, 写入视图即写入 dst; 跨越多段时返回 null
+     * nioBufferCount 描述的是可读区域, 不能用来判断可写区域
+     */
+    private static ByteBuffer writableSegment(ByteBuf dst) {
+        ByteBuffer[] segments = dst.nioBuffers(dst.writerIndex(), dst.writableBytes());
+        return segments.length == 1 ? segments[0] : null;
+    }
+
+    private static ByteBuffer[] segments(ByteBuf buf, int index, int length) {
+        return length == 0 ? NO_SEGMENTS : buf.nioBuffers(index, length);
+    }
+
+    private byte[] inScratch() {
+        if (inScratch == null) {
+            inScratch = new byte[CHUNK_SIZE];
+        }
+        return inScratch;
+    }
+
+    private byte[] outScratch() {
+        if (outScratch == null) {
+            outScratch = new byte[CHUNK_SIZE];
+        }
+        return outScratch;
+    }
+
+    /**
+     * 调用 JDK 11 的 ByteBuffer 重载
+     */
+    private static Object invoke(MethodHandle handle, Object target, ByteBuffer buffer) {
+        try {
+            return handle.invoke(target, buffer);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("malformed deflate data", e);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+}
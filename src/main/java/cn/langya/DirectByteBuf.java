@@ -0,0 +1,160 @@
+package cn.langya;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * 堆外内存 ByteBuf, 底层为 direct ByteBuffer, 引用计数归零时立即释放本地内存
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class DirectByteBuf extends AbstractByteBuf {
+    private static final ByteBuffer EMPTY = ByteBuffer.allocateDirect(0);
+
+    public ByteBuffer buffer;
+
+    public DirectByteBuf(int initialCapacity) {
+        this.buffer = ByteBuffer.allocateDirect(initialCapacity);
+    }
+
+    protected DirectByteBuf(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    protected ByteBuffer allocateDirect(int capacity) {
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+    protected void freeDirect(ByteBuffer buffer) {
+        PlatformDependent.freeDirectBuffer(buffer);
+    }
+
+    @Override
+    protected void adjustCapacity(int newCapacity) {
+        ByteBuffer newBuf = allocateDirect(newCapacity);
+        ByteBuffer src = buffer.duplicate();
+        int copied = Math.min(buffer.capacity(), newCapacity);
+        ((Buffer) src).position(0).limit(copied);
+        newBuf.put(src);
+        ((Buffer) newBuf).clear();
+        ByteBufMetrics.recordReallocation(this, buffer.capacity(), newBuf.capacity(), copied);
+        freeDirect(buffer);
+        buffer = newBuf;
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    @Override
+    protected byte _getByte(int index) {
+        return buffer.get(index);
+    }
+
+    @Override
+    protected void _setByte(int index, byte value) {
+        buffer.put(index, value);
+    }
+
+    @Override
+    protected short _getShort(int index) {
+        return buffer.getShort(index);
+    }
+
+    @Override
+    protected void _setShort(int index, short value) {
+        buffer.putShort(index, value);
+    }
+
+    @Override
+    protected int _getInt(int index) {
+        return buffer.getInt(index);
+    }
+
+    @Override
+    protected void _setInt(int index, int value) {
+        buffer.putInt(index, value);
+    }
+
+    @Override
+    protected long _getLong(int index) {
+        return buffer.getLong(index);
+    }
+
+    @Override
+    protected void _setLong(int index, long value) {
+        buffer.putLong(index, value);
+    }
+
+    @Override
+    protected boolean _setRaw(int index, Object src, long srcOffset, int length) {
+        long address = PlatformDependent.directBufferAddress(buffer);
+        if (address == 0) {
+            return false;
+        }
+        PlatformDependent.copyMemory(src, srcOffset, null, address + index, length);
+        return true;
+    }
+
+    @Override
+    protected boolean _getRaw(int index, Object dst, long dstOffset, int length) {
+        long address = PlatformDependent.directBufferAddress(buffer);
+        if (address == 0) {
+            return false;
+        }
+        PlatformDependent.copyMemory(null, address + index, dst, dstOffset, length);
+        return true;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(dst.length, dstIndex, length);
+        ByteBuffer src = buffer.duplicate();
+        ((Buffer) src).position(index);
+        src.get(dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(src.length, srcIndex, length);
+        ByteBuffer dst = buffer.duplicate();
+        ((Buffer) dst).position(index);
+        dst.put(src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    protected void moveBytes(int srcIndex, int length) {
+        ByteBuffer src = buffer.duplicate();
+        ((Buffer) src).position(srcIndex).limit(srcIndex + length);
+        src.compact();
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        ByteBuffer view = buffer.duplicate();
+        ((Buffer) view).position(index).limit(index + length);
+        return view.slice();
+    }
+
+    @Override
+    protected void deallocate() {
+        ByteBuffer memory = buffer;
+        buffer = EMPTY;
+        clear();
+        if (memory != EMPTY) {
+            freeDirect(memory);
+        }
+    }
+}
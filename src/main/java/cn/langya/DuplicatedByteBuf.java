@@ -0,0 +1,247 @@
+package cn.langya;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 父 ByteBuf 整体的视图, 共享内存、容量和引用计数, 读写指针独立
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class DuplicatedByteBuf extends AbstractByteBuf {
+    public final AbstractByteBuf parent;
+
+    public DuplicatedByteBuf(AbstractByteBuf parent) {
+        this.parent = parent instanceof DuplicatedByteBuf ? ((DuplicatedByteBuf) parent).parent : parent;
+        this.readerIndex = parent.readerIndex;
+        this.writerIndex = parent.writerIndex;
+    }
+
+    /**
+     * 写入超出容量时由父 ByteBuf 扩容, 两者随后仍共享同一块内存
+     */
+    @Override
+    protected void adjustCapacity(int newCapacity) {
+        parent.adjustCapacity(newCapacity);
+    }
+
+    @Override
+    public int capacity() {
+        return parent.capacity();
+    }
+
+    /**
+     * 调整父 ByteBuf 的容量, 本视图的读写指针随之收回
+     */
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        parent.capacity(newCapacity);
+        if (writerIndex > newCapacity) {
+            writerIndex = newCapacity;
+            readerIndex = Math.min(readerIndex, newCapacity);
+        }
+        return this;
+    }
+
+    /**
+     * 扩容上限和增长策略都属于父 ByteBuf, 通过视图写入同样受其限制
+     */
+    @Override
+    public int maxCapacity() {
+        return parent.maxCapacity();
+    }
+
+    @Override
+    public ByteBuf maxCapacity(int maxCapacity) {
+        parent.maxCapacity(maxCapacity);
+        return this;
+    }
+
+    @Override
+    public ByteBuf growthPolicy(GrowthPolicy growthPolicy) {
+        parent.growthPolicy(growthPolicy);
+        return this;
+    }
+
+    @Override
+    GrowthPolicy growthPolicy() {
+        return parent.growthPolicy();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return parent.isDirect();
+    }
+
+    @Override
+    public boolean hasArray() {
+        return parent.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return parent.array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        return parent.arrayOffset();
+    }
+
+    @Override
+    protected byte _getByte(int index) {
+        return parent._getByte(index);
+    }
+
+    @Override
+    protected void _setByte(int index, byte value) {
+        parent._setByte(index, value);
+    }
+
+    @Override
+    protected short _getShort(int index) {
+        return parent._getShort(index);
+    }
+
+    @Override
+    protected void _setShort(int index, short value) {
+        parent._setShort(index, value);
+    }
+
+    @Override
+    protected int _getInt(int index) {
+        return parent._getInt(index);
+    }
+
+    @Override
+    protected void _setInt(int index, int value) {
+        parent._setInt(index, value);
+    }
+
+    @Override
+    protected long _getLong(int index) {
+        return parent._getLong(index);
+    }
+
+    @Override
+    protected void _setLong(int index, long value) {
+        parent._setLong(index, value);
+    }
+
+    @Override
+    protected short _getShortLE(int index) {
+        return parent._getShortLE(index);
+    }
+
+    @Override
+    protected void _setShortLE(int index, short value) {
+        parent._setShortLE(index, value);
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        return parent._getIntLE(index);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        parent._setIntLE(index, value);
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        return parent._getLongLE(index);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        parent._setLongLE(index, value);
+    }
+
+    @Override
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        return parent.firstIndexOf(fromIndex, toIndex, value);
+    }
+
+    @Override
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        return parent.lastIndexOf(fromIndex, toIndex, value);
+    }
+
+    @Override
+    public int forEachByte(int index, int length, ByteProcessor processor) {
+        return parent.forEachByte(index, length, processor);
+    }
+
+    @Override
+    public int forEachByteDesc(int index, int length, ByteProcessor processor) {
+        return parent.forEachByteDesc(index, length, processor);
+    }
+
+    @Override
+    protected boolean _setRaw(int index, Object src, long srcOffset, int length) {
+        return parent._setRaw(index, src, srcOffset, length);
+    }
+
+    @Override
+    protected boolean _getRaw(int index, Object dst, long dstOffset, int length) {
+        return parent._getRaw(index, dst, dstOffset, length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        parent.getBytes(index, dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        parent.setBytes(index, src, srcIndex, length);
+        return this;
+    }
+
+    /**
+     * 按本 ByteBuf 自己的可读区域计算, 父 ByteBuf 的读写指针与此无关
+     */
+    @Override
+    public int nioBufferCount() {
+        return parent.hasArray() || parent instanceof DirectByteBuf ? 1 : nioBuffers().length;
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        return parent.nioBuffer(index, length);
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        return parent.nioBuffers(index, length);
+    }
+
+    @Override
+    public int refCnt() {
+        return parent.refCnt();
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        parent.retain(increment);
+        return this;
+    }
+
+    @Override
+    public ByteBuf touch(Object hint) {
+        parent.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return parent.release(decrement);
+    }
+
+    @Override
+    protected void deallocate() {
+        // 不持有内存, 引用计数全部委托给父 ByteBuf
+    }
+}
@@ -0,0 +1,454 @@
+package cn.langya;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 按字段直接读写对象的编解码器, 字段列表和偏移在构造时确定, 编解码时不再使用反射
+ * 字段按继承层次从父类到子类、同一类内按字段名排序, static 和 transient 字段不参与编码
+ * int/long 用 ZigZag varint, 其他基本类型定长, String 和枚举内联, 其他引用类型交给注册表按类 ID 写出
+ * record 类 (JDK 16+) 的字段不能通过 Unsafe 或反射修改, 改为读取字段值后调用规范构造方法创建实例
+ * 不支持循环引用, 编码时发现对象图中的环会抛出 IllegalArgumentException
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public final class FieldCodec<T> implements ByteBufCodec<T> {
+    private static final int BOOLEAN = 0;
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int CHAR = 3;
+    private static final int INT = 4;
+    private static final int LONG = 5;
+    private static final int FLOAT = 6;
+    private static final int DOUBLE = 7;
+    private static final int STRING = 8;
+    private static final int ENUM = 9;
+    private static final int OBJECT = 10;
+
+    private static final boolean UNSAFE = PlatformDependent.hasUnsafe();
+
+    // JDK 16 新增的 Class.isRecord / getRecordComponents 与 RecordComponent.getName, 不可用时为 null
+    private static final Method IS_RECORD;
+    private static final Method GET_RECORD_COMPONENTS;
+    private static final Method RECORD_COMPONENT_NAME;
+
+    // 当前线程正在编码的对象, 用于发现循环引用
+    private static final ThreadLocal<List<Object>> ENCODING = ThreadLocal.withInitial(ArrayList::new);
+
+    static {
+        Method isRecord = null;
+        Method getRecordComponents = null;
+        Method recordComponentName = null;
+        try {
+            isRecord = Class.class.getMethod("isRecord");
+            getRecordComponents = Class.class.getMethod("getRecordComponents");
+            recordComponentName = getRecordComponents.getReturnType().getComponentType().getMethod("getName");
+        } catch (NoSuchMethodException ignore) {
+            // JDK 16 之前没有 record
+            isRecord = getRecordComponents = recordComponentName = null;
+        }
+        IS_RECORD = isRecord;
+        GET_RECORD_COMPONENTS = getRecordComponents;
+        RECORD_COMPONENT_NAME = recordComponentName;
+    }
+
+    private final Class<T> type;
+    private final ByteBufCodecRegistry registry;
+    private final Field[] fields;
+    private final long[] offsets;
+    private final int[] kinds;
+    private final Object[][] enumConstants;
+    private final Constructor<T> constructor;
+    // 为 false 时通过反射读写字段, record 类总是 false
+    private final boolean unsafe;
+    // record 类中每个字段对应的构造方法参数位置, 非 record 为 null
+    private final int[] parameterIndexes;
+    private final boolean hasReferences;
+
+    public FieldCodec(Class<T> type, ByteBufCodecRegistry registry) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isArray()) {
+            throw new IllegalArgumentException("not a concrete class: " + type.getName());
+        }
+        this.type = type;
+        this.registry = registry;
+        boolean record = isRecord(type);
+        this.unsafe = UNSAFE && !record;
+
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        List<Field> fieldList = new ArrayList<>();
+        for (Class<?> c : hierarchy) {
+            Field[] declared = c.getDeclaredFields();
+            Arrays.sort(declared, Comparator.comparing(Field::getName));
+            for (Field field : declared) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fieldList.add(field);
+            }
+        }
+        this.fields = fieldList.toArray(new Field[0]);
+        this.offsets = new long[fields.length];
+        this.kinds = new int[fields.length];
+        this.enumConstants = new Object[fields.length][];
+        boolean hasReferences = false;
+        for (int i = 0; i < fields.length; i++) {
+            Class<?> fieldType = fields[i].getType();
+            kinds[i] = kindOf(fieldType);
+            if (kinds[i] == ENUM) {
+                enumConstants[i] = fieldType.getEnumConstants();
+            }
+            hasReferences |= kinds[i] == OBJECT;
+            if (unsafe) {
+                offsets[i] = PlatformDependent.objectFieldOffset(fields[i]);
+            }
+        }
+        this.hasReferences = hasReferences;
+
+        Constructor<T> constructor = null;
+        int[] parameterIndexes = null;
+        if (record) {
+            // record 通过规范构造方法创建, 参数顺序为组件声明顺序
+            Object[] components = recordComponents(type);
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            parameterIndexes = new int[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                String name = fields[i].getName();
+                int index = 0;
+                while (index < components.length && !name.equals(recordComponentName(components[index]))) {
+                    index++;
+                }
+                if (index == components.length) {
+                    throw new IllegalArgumentException("field " + name + " is not a component of record " + type.getName());
+                }
+                parameterIndexes[i] = index;
+                parameterTypes[index] = fields[i].getType();
+            }
+            try {
+                constructor = type.getDeclaredConstructor(parameterTypes);
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(type.getName() + " has no canonical constructor", e);
+            }
+        } else if (!UNSAFE) {
+            // 无 Unsafe 时需要无参构造方法来创建实例
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(type.getName() + " has no no-arg constructor", e);
+            }
+        }
+        this.constructor = constructor;
+        this.parameterIndexes = parameterIndexes;
+    }
+
+    private static boolean isRecord(Class<?> type) {
+        if (IS_RECORD == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_RECORD.invoke(type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object[] recordComponents(Class<?> type) {
+        try {
+            return (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String recordComponentName(Object component) {
+        try {
+            return (String) RECORD_COMPONENT_NAME.invoke(component);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class) {
+            return BYTE;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == char.class) {
+            return CHAR;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type == String.class) {
+            return STRING;
+        } else if (type.isEnum()) {
+            return ENUM;
+        }
+        return OBJECT;
+    }
+
+    @Override
+    public void encode(ByteBuf buf, T value) {
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException("expected " + type.getName() + " but got " +
+                    (value == null ? "null" : value.getClass().getName()));
+        }
+        if (!hasReferences) {
+            encodeFields(buf, value);
+            return;
+        }
+        // 只有引用字段会递归编码, 按引用比较当前线程的编码栈发现环
+        List<Object> encoding = ENCODING.get();
+        for (int i = 0, size = encoding.size(); i < size; i++) {
+            if (encoding.get(i) == value) {
+                throw new IllegalArgumentException("cyclic reference to " + type.getName() + " is not supported");
+            }
+        }
+        encoding.add(value);
+        try {
+            encodeFields(buf, value);
+        } finally {
+            encoding.remove(encoding.size() - 1);
+        }
+    }
+
+    private void encodeFields(ByteBuf buf, T value) {
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                encodeField(buf, value, i);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void encodeField(ByteBuf buf, Object target, int i) throws IllegalAccessException {
+        long offset = offsets[i];
+        Field field = fields[i];
+        switch (kinds[i]) {
+            case BOOLEAN:
+                buf.writeBoolean(unsafe ? PlatformDependent.getBoolean(target, offset) : field.getBoolean(target));
+                break;
+            case BYTE:
+                buf.writeByte(unsafe ? PlatformDependent.getByte(target, offset) : field.getByte(target));
+                break;
+            case SHORT:
+                buf.writeShort(unsafe ? PlatformDependent.getShort(target, offset) : field.getShort(target));
+                break;
+            case CHAR:
+                buf.writeChar(unsafe ? PlatformDependent.getChar(target, offset) : field.getChar(target));
+                break;
+            case INT:
+                buf.writeSignedVarInt(unsafe ? PlatformDependent.getInt(target, offset) : field.getInt(target));
+                break;
+            case LONG:
+                buf.writeSignedVarLong(unsafe ? PlatformDependent.getLong(target, offset) : field.getLong(target));
+                break;
+            case FLOAT:
+                buf.writeFloat(unsafe ? PlatformDependent.getFloat(target, offset) : field.getFloat(target));
+                break;
+            case DOUBLE:
+                buf.writeDouble(unsafe ? PlatformDependent.getDouble(target, offset) : field.getDouble(target));
+                break;
+            case STRING: {
+                // 先写一个字节标记是否为 null
+                String s = (String) (unsafe ? PlatformDependent.getObject(target, offset) : field.get(target));
+                buf.writeBoolean(s != null);
+                if (s != null) {
+                    buf.writeString(s, true);
+                }
+                break;
+            }
+            case ENUM: {
+                // 序号加 1, 0 表示 null
+                Enum<?> e = (Enum<?>) (unsafe ? PlatformDependent.getObject(target, offset) : field.get(target));
+                buf.writeVarInt(e == null ? 0 : e.ordinal() + 1);
+                break;
+            }
+            default:
+                registry.writeObject(buf, unsafe ? PlatformDependent.getObject(target, offset) : field.get(target));
+                break;
+        }
+    }
+
+    @Override
+    public T decode(ByteBuf buf) {
+        try {
+            if (parameterIndexes != null) {
+                Object[] args = new Object[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    args[parameterIndexes[i]] = readValue(buf, i);
+                }
+                return constructor.newInstance(args);
+            }
+            T value = newInstance();
+            for (int i = 0; i < fields.length; i++) {
+                decodeField(buf, value, i);
+            }
+            return value;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newInstance() throws ReflectiveOperationException {
+        if (UNSAFE) {
+            return (T) PlatformDependent.allocateInstance(type);
+        }
+        return constructor.newInstance();
+    }
+
+    private void decodeField(ByteBuf buf, Object target, int i) throws IllegalAccessException {
+        long offset = offsets[i];
+        Field field = fields[i];
+        switch (kinds[i]) {
+            case BOOLEAN: {
+                boolean v = buf.readBoolean();
+                if (unsafe) {
+                    PlatformDependent.putBoolean(target, offset, v);
+                } else {
+                    field.setBoolean(target, v);
+                }
+                break;
+            }
+            case BYTE: {
+                byte v = buf.readByte();
+                if (unsafe) {
+                    PlatformDependent.putByte(target, offset, v);
+                } else {
+                    field.setByte(target, v);
+                }
+                break;
+            }
+            case SHORT: {
+                short v = buf.readShort();
+                if (unsafe) {
+                    PlatformDependent.putShort(target, offset, v);
+                } else {
+                    field.setShort(target, v);
+                }
+                break;
+            }
+            case CHAR: {
+                char v = buf.readChar();
+                if (unsafe) {
+                    PlatformDependent.putChar(target, offset, v);
+                } else {
+                    field.setChar(target, v);
+                }
+                break;
+            }
+            case INT: {
+                int v = buf.readSignedVarInt();
+                if (unsafe) {
+                    PlatformDependent.putInt(target, offset, v);
+                } else {
+                    field.setInt(target, v);
+                }
+                break;
+            }
+            case LONG: {
+                long v = buf.readSignedVarLong();
+                if (unsafe) {
+                    PlatformDependent.putLong(target, offset, v);
+                } else {
+                    field.setLong(target, v);
+                }
+                break;
+            }
+            case FLOAT: {
+                float v = buf.readFloat();
+                if (unsafe) {
+                    PlatformDependent.putFloat(target, offset, v);
+                } else {
+                    field.setFloat(target, v);
+                }
+                break;
+            }
+            case DOUBLE: {
+                double v = buf.readDouble();
+                if (unsafe) {
+                    PlatformDependent.putDouble(target, offset, v);
+                } else {
+                    field.setDouble(target, v);
+                }
+                break;
+            }
+            default: {
+                Object v = readReference(buf, i);
+                if (unsafe) {
+                    PlatformDependent.putObject(target, offset, v);
+                } else {
+                    field.set(target, v);
+                }
+                break;
+            }
+        }
+    }
+
+    private Object readReference(ByteBuf buf, int i) {
+        Field field = fields[i];
+        if (kinds[i] == STRING) {
+            return buf.readBoolean() ? buf.readString(true) : null;
+        }
+        if (kinds[i] == ENUM) {
+            int ordinal = buf.readVarInt();
+            if (ordinal < 0 || ordinal > enumConstants[i].length) {
+                throw new IllegalStateException("invalid ordinal " + (ordinal - 1) + " for " + field.getType().getName());
+            }
+            return ordinal == 0 ? null : enumConstants[i][ordinal - 1];
+        }
+        Object v = registry.readObject(buf);
+        // Unsafe 写引用字段不做类型检查, 这里先拦下类型不符的数据
+        if (v != null && !field.getType().isInstance(v)) {
+            throw new IllegalStateException("cannot assign " + v.getClass().getName() + " to " + field);
+        }
+        return v;
+    }
+
+    /**
+     * 读出第 i 个字段的值, 基本类型装箱, 用于 record 的构造方法参数
+     */
+    private Object readValue(ByteBuf buf, int i) {
+        switch (kinds[i]) {
+            case BOOLEAN:
+                return buf.readBoolean();
+            case BYTE:
+                return buf.readByte();
+            case SHORT:
+                return buf.readShort();
+            case CHAR:
+                return buf.readChar();
+            case INT:
+                return buf.readSignedVarInt();
+            case LONG:
+                return buf.readSignedVarLong();
+            case FLOAT:
+                return buf.readFloat();
+            case DOUBLE:
+                return buf.readDouble();
+            default:
+                return readReference(buf, i);
+        }
+    }
+}
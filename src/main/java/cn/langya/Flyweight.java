@@ -0,0 +1,269 @@
+package cn.langya;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 按 {@link FlyweightSchema} 原地读写 ByteBuf 某段区域的访问器
+ * 所有读写都是绝对索引访问, 不改变 ByteBuf 的读写指针, 除 getString 与 varSlice 外不分配对象
+ * 通过 wrap 指向下一条消息即可复用同一个实例; 不持有 ByteBuf 的引用计数, 非线程安全
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public final class Flyweight {
+    private final FlyweightSchema schema;
+    private ByteBuf buf;
+    private int offset;
+
+    Flyweight(FlyweightSchema schema) {
+        this.schema = schema;
+    }
+
+    public FlyweightSchema schema() {
+        return schema;
+    }
+
+    /**
+     * 指向 buf 中从 offset 开始的消息, 定长部分必须落在容量之内
+     */
+    public Flyweight wrap(ByteBuf buf, int offset) {
+        if (offset < 0 || offset > buf.capacity() - schema.fixedLength) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", fixedLength: " + schema.fixedLength +
+                    " (expected: 0 <= offset <= capacity(" + buf.capacity() + ") - fixedLength)");
+        }
+        this.buf = buf;
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * 指向 buf 的 readerIndex 处
+     */
+    public Flyweight wrap(ByteBuf buf) {
+        return wrap(buf, buf.readerIndex());
+    }
+
+    public ByteBuf buffer() {
+        return buf;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * 整条消息的字节数, 包括变长尾部
+     */
+    public int length() {
+        return varOffset(schema.varFieldCount) - offset;
+    }
+
+    public byte getByte(FlyweightSchema.Field field) {
+        return buf.getByte(index(field, FlyweightSchema.Type.BYTE));
+    }
+
+    public short getShort(FlyweightSchema.Field field) {
+        int index = index(field, FlyweightSchema.Type.SHORT);
+        return schema.littleEndian ? buf.getShortLE(index) : buf.getShort(index);
+    }
+
+    public int getInt(FlyweightSchema.Field field) {
+        int index = index(field, FlyweightSchema.Type.INT);
+        return schema.littleEndian ? buf.getIntLE(index) : buf.getInt(index);
+    }
+
+    public long getLong(FlyweightSchema.Field field) {
+        int index = index(field, FlyweightSchema.Type.LONG);
+        return schema.littleEndian ? buf.getLongLE(index) : buf.getLong(index);
+    }
+
+    public float getFloat(FlyweightSchema.Field field) {
+        int index = index(field, FlyweightSchema.Type.FLOAT);
+        return schema.littleEndian ? buf.getFloatLE(index) : buf.getFloat(index);
+    }
+
+    public double getDouble(FlyweightSchema.Field field) {
+        int index = index(field, FlyweightSchema.Type.DOUBLE);
+        return schema.littleEndian ? buf.getDoubleLE(index) : buf.getDouble(index);
+    }
+
+    public Flyweight setByte(FlyweightSchema.Field field, byte value) {
+        buf.setByte(index(field, FlyweightSchema.Type.BYTE), value);
+        return this;
+    }
+
+    public Flyweight setShort(FlyweightSchema.Field field, short value) {
+        int index = index(field, FlyweightSchema.Type.SHORT);
+        if (schema.littleEndian) {
+            buf.setShortLE(index, value);
+        } else {
+            buf.setShort(index, value);
+        }
+        return this;
+    }
+
+    public Flyweight setInt(FlyweightSchema.Field field, int value) {
+        int index = index(field, FlyweightSchema.Type.INT);
+        if (schema.littleEndian) {
+            buf.setIntLE(index, value);
+        } else {
+            buf.setInt(index, value);
+        }
+        return this;
+    }
+
+    public Flyweight setLong(FlyweightSchema.Field field, long value) {
+        int index = index(field, FlyweightSchema.Type.LONG);
+        if (schema.littleEndian) {
+            buf.setLongLE(index, value);
+        } else {
+            buf.setLong(index, value);
+        }
+        return this;
+    }
+
+    public Flyweight setFloat(FlyweightSchema.Field field, float value) {
+        int index = index(field, FlyweightSchema.Type.FLOAT);
+        if (schema.littleEndian) {
+            buf.setFloatLE(index, value);
+        } else {
+            buf.setFloat(index, value);
+        }
+        return this;
+    }
+
+    public Flyweight setDouble(FlyweightSchema.Field field, double value) {
+        int index = index(field, FlyweightSchema.Type.DOUBLE);
+        if (schema.littleEndian) {
+            buf.setDoubleLE(index, value);
+        } else {
+            buf.setDouble(index, value);
+        }
+        return this;
+    }
+
+    /**
+     * 读出定长字节字段的全部内容到 dst
+     */
+    public Flyweight getBytes(FlyweightSchema.Field field, byte[] dst, int dstIndex) {
+        buf.getBytes(index(field, FlyweightSchema.Type.BYTES), dst, dstIndex, field.length);
+        return this;
+    }
+
+    /**
+     * 写入定长字节字段, length 小于字段长度时剩余部分补 0
+     */
+    public Flyweight setBytes(FlyweightSchema.Field field, byte[] src, int srcIndex, int length) {
+        int index = index(field, FlyweightSchema.Type.BYTES);
+        if (length > field.length) {
+            throw new IllegalArgumentException("length: " + length + " exceeds field " + field);
+        }
+        buf.setBytes(index, src, srcIndex, length);
+        for (int i = length; i < field.length; i++) {
+            buf.setByte(index + i, (byte) 0);
+        }
+        return this;
+    }
+
+    /**
+     * 把定长字节字段按 US-ASCII 解码, 末尾补的 0 不计入
+     */
+    public String getString(FlyweightSchema.Field field) {
+        int index = index(field, FlyweightSchema.Type.BYTES);
+        int length = field.length;
+        while (length > 0 && buf.getByte(index + length - 1) == 0) {
+            length--;
+        }
+        byte[] bytes = new byte[length];
+        buf.getBytes(index, bytes, 0, length);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 变长字段内容的字节数
+     */
+    public int varLength(FlyweightSchema.Field field) {
+        return getVarLength(varOffset(varIndex(field)));
+    }
+
+    /**
+     * 变长字段内容在 ByteBuf 中的绝对索引, 可直接对 buffer() 做零复制访问
+     */
+    public int varContentIndex(FlyweightSchema.Field field) {
+        return varOffset(varIndex(field)) + FlyweightSchema.VAR_LENGTH_HEADER;
+    }
+
+    /**
+     * 变长字段内容的 slice, 与原 ByteBuf 共享内存
+     */
+    public ByteBuf varSlice(FlyweightSchema.Field field) {
+        int index = varOffset(varIndex(field));
+        return buf.slice(index + FlyweightSchema.VAR_LENGTH_HEADER, getVarLength(index));
+    }
+
+    public Flyweight getVar(FlyweightSchema.Field field, byte[] dst, int dstIndex) {
+        int index = varOffset(varIndex(field));
+        buf.getBytes(index + FlyweightSchema.VAR_LENGTH_HEADER, dst, dstIndex, getVarLength(index));
+        return this;
+    }
+
+    /**
+     * 写入变长字段, 之前的变长字段必须已经写好; 写入后其后的变长字段需要重新写入
+     * 返回写入后消息末尾的绝对索引, 写完最后一个变长字段后可作为 writerIndex
+     */
+    public int setVar(FlyweightSchema.Field field, byte[] src, int srcIndex, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length: " + length + " (expected: >= 0)");
+        }
+        int index = varOffset(varIndex(field));
+        if (index > buf.capacity() - FlyweightSchema.VAR_LENGTH_HEADER - length) {
+            throw new IndexOutOfBoundsException("variable field " + field + " of " + length +
+                    " bytes at " + index + " exceeds capacity " + buf.capacity());
+        }
+        buf.setBytes(index + FlyweightSchema.VAR_LENGTH_HEADER, src, srcIndex, length);
+        if (schema.littleEndian) {
+            buf.setIntLE(index, length);
+        } else {
+            buf.setInt(index, length);
+        }
+        return index + FlyweightSchema.VAR_LENGTH_HEADER + length;
+    }
+
+    private int index(FlyweightSchema.Field field, FlyweightSchema.Type type) {
+        if (field.type != type || field.owner != schema.origin) {
+            throw new IllegalArgumentException(field + " is not a " + type + " field of this schema");
+        }
+        return offset + field.offset;
+    }
+
+    private int varIndex(FlyweightSchema.Field field) {
+        if (field.type != FlyweightSchema.Type.VAR || field.owner != schema.origin) {
+            throw new IllegalArgumentException(field + " is not a variable field of this schema");
+        }
+        return field.offset;
+    }
+
+    /**
+     * 第 n 个变长字段的绝对索引, 依次跳过之前的变长字段
+     */
+    private int varOffset(int n) {
+        int index = offset + schema.fixedLength;
+        for (int i = 0; i < n; i++) {
+            index += FlyweightSchema.VAR_LENGTH_HEADER + getVarLength(index);
+        }
+        return index;
+    }
+
+    private int getVarLength(int index) {
+        int length = schema.littleEndian ? buf.getIntLE(index) : buf.getInt(index);
+        if (length < 0) {
+            throw new IllegalStateException("negative variable field length " + length + " at " + index);
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "Flyweight(offset: " + offset + ", schema: " + schema + ")";
+    }
+}
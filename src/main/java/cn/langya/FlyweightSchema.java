@@ -0,0 +1,223 @@
+package cn.langya;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 定长布局的消息结构: 先是按声明顺序排列的定长字段, 之后是变长尾部
+ * 变长尾部由若干个变长字段依次组成, 每个为 4 字节长度 + 内容, 长度与定长字段使用相同的字节序
+ * 字段偏移在 build 时确定, 通过 {@link Flyweight} 按绝对索引原地读写, 不需要先整体解码
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public final class FlyweightSchema {
+    public enum Type {
+        BYTE, SHORT, INT, LONG, FLOAT, DOUBLE, BYTES, VAR
+    }
+
+    /**
+     * 字段句柄, 建议在初始化时取出保存, 避免每次访问都按名称查找
+     */
+    public static final class Field {
+        public final String name;
+        public final Type type;
+        /**
+         * 定长字段为相对消息起始位置的偏移, 变长字段为它在变长尾部中的序号
+         */
+        public final int offset;
+        /**
+         * 定长字段的字节数, 变长字段为 -1
+         */
+        public final int length;
+        final Builder owner;
+
+        private Field(String name, Type type, int offset, int length, Builder owner) {
+            this.name = name;
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+            this.owner = owner;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + type + (type == Type.VAR ? "#" + offset : "@" + offset + "+" + length);
+        }
+    }
+
+    public static final int VAR_LENGTH_HEADER = 4;
+
+    final boolean littleEndian;
+    final int fixedLength;
+    final int varFieldCount;
+    final Builder origin;
+    private final Map<String, Field> fields;
+
+    private FlyweightSchema(Builder builder) {
+        this.littleEndian = builder.order == ByteOrder.LITTLE_ENDIAN;
+        this.fixedLength = builder.fixedLength;
+        this.varFieldCount = builder.varFieldCount;
+        this.origin = builder;
+        this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(builder.fields));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ByteOrder order() {
+        return littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * 定长部分的字节数, 也是变长尾部的起始偏移
+     */
+    public int fixedLength() {
+        return fixedLength;
+    }
+
+    public int varFieldCount() {
+        return varFieldCount;
+    }
+
+    public Field field(String name) {
+        Field field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("no such field: " + name);
+        }
+        return field;
+    }
+
+    public List<Field> fields() {
+        return new ArrayList<>(fields.values());
+    }
+
+    /**
+     * 创建一个尚未指向任何内存的 Flyweight
+     */
+    public Flyweight newFlyweight() {
+        return new Flyweight(this);
+    }
+
+    @Override
+    public String toString() {
+        return "FlyweightSchema(" + order() + ", fixedLength: " + fixedLength + ", fields: " + fields.values() + ")";
+    }
+
+    public static final class Builder {
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+        private ByteOrder order = ByteOrder.BIG_ENDIAN;
+        private int fixedLength;
+        private int varFieldCount;
+        private boolean built;
+
+        private Builder() {
+        }
+
+        public Builder order(ByteOrder order) {
+            if (order == null) {
+                throw new NullPointerException("order");
+            }
+            this.order = order;
+            return this;
+        }
+
+        public Builder int8(String name) {
+            return fixed(name, Type.BYTE, 1);
+        }
+
+        public Builder int16(String name) {
+            return fixed(name, Type.SHORT, 2);
+        }
+
+        public Builder int32(String name) {
+            return fixed(name, Type.INT, 4);
+        }
+
+        public Builder int64(String name) {
+            return fixed(name, Type.LONG, 8);
+        }
+
+        public Builder float32(String name) {
+            return fixed(name, Type.FLOAT, 4);
+        }
+
+        public Builder float64(String name) {
+            return fixed(name, Type.DOUBLE, 8);
+        }
+
+        /**
+         * 定长字节字段, 例如定长的代码或标识符
+         */
+        public Builder bytes(String name, int length) {
+            if (length <= 0) {
+                throw new IllegalArgumentException("length: " + length + " (expected: > 0)");
+            }
+            return fixed(name, Type.BYTES, length);
+        }
+
+        /**
+         * 跳过 length 字节, 用于对齐或保留字段
+         */
+        public Builder pad(int length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("length: " + length + " (expected: >= 0)");
+            }
+            checkFixed("padding");
+            checkFixedLength(length);
+            fixedLength += length;
+            return this;
+        }
+
+        /**
+         * 变长字段, 排在所有定长字段之后
+         */
+        public Builder var(String name) {
+            add(new Field(name, Type.VAR, varFieldCount, -1, this));
+            varFieldCount++;
+            return this;
+        }
+
+        private Builder fixed(String name, Type type, int length) {
+            checkFixed("fixed field " + name);
+            checkFixedLength(length);
+            add(new Field(name, type, fixedLength, length, this));
+            fixedLength += length;
+            return this;
+        }
+
+        private void checkFixed(String what) {
+            if (varFieldCount != 0) {
+                throw new IllegalStateException(what + " must be declared before variable fields");
+            }
+        }
+
+        private void checkFixedLength(int length) {
+            if (fixedLength + length < 0) {
+                throw new IllegalArgumentException("fixed length overflow");
+            }
+        }
+
+        private void add(Field field) {
+            if (built) {
+                throw new IllegalStateException("schema already built");
+            }
+            if (field.name == null) {
+                throw new NullPointerException("name");
+            }
+            if (fields.putIfAbsent(field.name, field) != null) {
+                throw new IllegalArgumentException("duplicate field: " + field.name);
+            }
+        }
+
+        public FlyweightSchema build() {
+            built = true;
+            return new FlyweightSchema(this);
+        }
+    }
+}
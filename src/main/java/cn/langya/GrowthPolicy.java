@@ -0,0 +1,42 @@
+package cn.langya;
+
+/**
+ * 容量增长策略, 写入空间不足时决定扩容后的新容量
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public interface GrowthPolicy {
+    /**
+     * 默认策略: 4 MiB 以下翻倍, 之后每次增加 4 MiB, 阈值可通过 lbytebuf.growth.threshold 修改
+     */
+    GrowthPolicy DEFAULT = threshold(Integer.getInteger("lbytebuf.growth.threshold", 4 * 1024 * 1024));
+
+    /**
+     * 返回不小于 minNewCapacity 且不大于 maxCapacity 的新容量, 调用方保证 minNewCapacity <= maxCapacity
+     */
+    int newCapacity(int capacity, int minNewCapacity, int maxCapacity);
+
+    /**
+     * 小于 threshold 时从 64 开始翻倍, 超过后按 threshold 的整数倍逐步增加, 避免大缓冲区一次翻倍
+     */
+    static GrowthPolicy threshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold: " + threshold + " (expected: > 0)");
+        }
+        return (capacity, minNewCapacity, maxCapacity) -> {
+            if (minNewCapacity > threshold) {
+                int newCapacity = minNewCapacity / threshold * threshold;
+                return newCapacity > maxCapacity - threshold ? maxCapacity : newCapacity + threshold;
+            }
+            if (minNewCapacity == threshold) {
+                return threshold;
+            }
+            int newCapacity = Math.max(capacity, 64);
+            while (newCapacity < minNewCapacity) {
+                newCapacity <<= 1;
+            }
+            return Math.min(newCapacity, Math.min(threshold, maxCapacity));
+        };
+    }
+}
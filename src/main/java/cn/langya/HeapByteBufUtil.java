@@ -0,0 +1,154 @@
+package cn.langya;
+
+/**
+ * byte[] 上的基本类型读写, 支持非对齐访问时用 Unsafe 一次读写整个字,
+ * 否则退化为逐字节移位, 调用方负责边界检查
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+final class HeapByteBufUtil {
+    private static final boolean UNALIGNED = PlatformDependent.isUnaligned();
+    private static final boolean BIG_ENDIAN_NATIVE_ORDER = PlatformDependent.BIG_ENDIAN_NATIVE_ORDER;
+
+    private HeapByteBufUtil() {
+    }
+
+    static short getShort(byte[] memory, int index) {
+        if (UNALIGNED) {
+            short v = PlatformDependent.getShort(memory, index);
+            return BIG_ENDIAN_NATIVE_ORDER ? v : Short.reverseBytes(v);
+        }
+        return (short) (memory[index] << 8 | memory[index + 1] & 0xFF);
+    }
+
+    static void setShort(byte[] memory, int index, short value) {
+        if (UNALIGNED) {
+            PlatformDependent.putShort(memory, index, BIG_ENDIAN_NATIVE_ORDER ? value : Short.reverseBytes(value));
+            return;
+        }
+        memory[index] = (byte) (value >>> 8);
+        memory[index + 1] = (byte) value;
+    }
+
+    static int getInt(byte[] memory, int index) {
+        if (UNALIGNED) {
+            int v = PlatformDependent.getInt(memory, index);
+            return BIG_ENDIAN_NATIVE_ORDER ? v : Integer.reverseBytes(v);
+        }
+        return (memory[index] & 0xFF) << 24 |
+                (memory[index + 1] & 0xFF) << 16 |
+                (memory[index + 2] & 0xFF) << 8 |
+                memory[index + 3] & 0xFF;
+    }
+
+    static void setInt(byte[] memory, int index, int value) {
+        if (UNALIGNED) {
+            PlatformDependent.putInt(memory, index, BIG_ENDIAN_NATIVE_ORDER ? value : Integer.reverseBytes(value));
+            return;
+        }
+        memory[index] = (byte) (value >>> 24);
+        memory[index + 1] = (byte) (value >>> 16);
+        memory[index + 2] = (byte) (value >>> 8);
+        memory[index + 3] = (byte) value;
+    }
+
+    static long getLong(byte[] memory, int index) {
+        if (UNALIGNED) {
+            long v = PlatformDependent.getLong(memory, index);
+            return BIG_ENDIAN_NATIVE_ORDER ? v : Long.reverseBytes(v);
+        }
+        return ((long) memory[index] & 0xFF) << 56 |
+                ((long) memory[index + 1] & 0xFF) << 48 |
+                ((long) memory[index + 2] & 0xFF) << 40 |
+                ((long) memory[index + 3] & 0xFF) << 32 |
+                ((long) memory[index + 4] & 0xFF) << 24 |
+                ((long) memory[index + 5] & 0xFF) << 16 |
+                ((long) memory[index + 6] & 0xFF) << 8 |
+                (long) memory[index + 7] & 0xFF;
+    }
+
+    static void setLong(byte[] memory, int index, long value) {
+        if (UNALIGNED) {
+            PlatformDependent.putLong(memory, index, BIG_ENDIAN_NATIVE_ORDER ? value : Long.reverseBytes(value));
+            return;
+        }
+        memory[index] = (byte) (value >>> 56);
+        memory[index + 1] = (byte) (value >>> 48);
+        memory[index + 2] = (byte) (value >>> 40);
+        memory[index + 3] = (byte) (value >>> 32);
+        memory[index + 4] = (byte) (value >>> 24);
+        memory[index + 5] = (byte) (value >>> 16);
+        memory[index + 6] = (byte) (value >>> 8);
+        memory[index + 7] = (byte) value;
+    }
+
+    static short getShortLE(byte[] memory, int index) {
+        if (UNALIGNED) {
+            short v = PlatformDependent.getShort(memory, index);
+            return BIG_ENDIAN_NATIVE_ORDER ? Short.reverseBytes(v) : v;
+        }
+        return (short) (memory[index] & 0xFF | memory[index + 1] << 8);
+    }
+
+    static void setShortLE(byte[] memory, int index, short value) {
+        if (UNALIGNED) {
+            PlatformDependent.putShort(memory, index, BIG_ENDIAN_NATIVE_ORDER ? Short.reverseBytes(value) : value);
+            return;
+        }
+        memory[index] = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+    }
+
+    static int getIntLE(byte[] memory, int index) {
+        if (UNALIGNED) {
+            int v = PlatformDependent.getInt(memory, index);
+            return BIG_ENDIAN_NATIVE_ORDER ? Integer.reverseBytes(v) : v;
+        }
+        return memory[index] & 0xFF |
+                (memory[index + 1] & 0xFF) << 8 |
+                (memory[index + 2] & 0xFF) << 16 |
+                (memory[index + 3] & 0xFF) << 24;
+    }
+
+    static void setIntLE(byte[] memory, int index, int value) {
+        if (UNALIGNED) {
+            PlatformDependent.putInt(memory, index, BIG_ENDIAN_NATIVE_ORDER ? Integer.reverseBytes(value) : value);
+            return;
+        }
+        memory[index] = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+        memory[index + 2] = (byte) (value >>> 16);
+        memory[index + 3] = (byte) (value >>> 24);
+    }
+
+    static long getLongLE(byte[] memory, int index) {
+        if (UNALIGNED) {
+            long v = PlatformDependent.getLong(memory, index);
+            return BIG_ENDIAN_NATIVE_ORDER ? Long.reverseBytes(v) : v;
+        }
+        return (long) memory[index] & 0xFF |
+                ((long) memory[index + 1] & 0xFF) << 8 |
+                ((long) memory[index + 2] & 0xFF) << 16 |
+                ((long) memory[index + 3] & 0xFF) << 24 |
+                ((long) memory[index + 4] & 0xFF) << 32 |
+                ((long) memory[index + 5] & 0xFF) << 40 |
+                ((long) memory[index + 6] & 0xFF) << 48 |
+                ((long) memory[index + 7] & 0xFF) << 56;
+    }
+
+    static void setLongLE(byte[] memory, int index, long value) {
+        if (UNALIGNED) {
+            PlatformDependent.putLong(memory, index, BIG_ENDIAN_NATIVE_ORDER ? Long.reverseBytes(value) : value);
+            return;
+        }
+        memory[index] = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+        memory[index + 2] = (byte) (value >>> 16);
+        memory[index + 3] = (byte) (value >>> 24);
+        memory[index + 4] = (byte) (value >>> 32);
+        memory[index + 5] = (byte) (value >>> 40);
+        memory[index + 6] = (byte) (value >>> 48);
+        memory[index + 7] = (byte) (value >>> 56);
+    }
+}
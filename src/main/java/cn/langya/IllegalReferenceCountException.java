@@ -0,0 +1,15 @@
+package cn.langya;
+
+/**
+ * 在引用计数已归零的 ByteBuf 上 retain / release 时抛出
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class IllegalReferenceCountException extends IllegalStateException {
+    private static final long serialVersionUID = -2507492394288153468L;
+
+    public IllegalReferenceCountException(int refCnt, int increment) {
+        super("refCnt: " + refCnt + ", " + (increment > 0 ? "increment: " + increment : "decrement: " + -increment));
+    }
+}
@@ -0,0 +1,214 @@
+package cn.langya;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * 按长度字段把任意分块到达的字节流还原为完整的帧
+ * 收到的 ByteBuf 作为组件追加到 CompositeByteBuf 中累积, 不复制数据; 完整的帧以 retainedSlice 输出
+ * 读完的组件在每次解码后丢弃, 累积的组件过多时合并为一块连续内存
+ * <p>
+ * 帧长 = lengthFieldOffset + 长度字段本身 + 长度字段的值 + lengthAdjustment,
+ * 输出时跳过帧开头的 initialBytesToStrip 字节. 例如读取 writeString 写出的记录:
+ * {@code new LengthFieldFrameDecoder(maxFrameLength, 0, 4, 0, 4, ByteOrder.BIG_ENDIAN)}
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class LengthFieldFrameDecoder {
+    /**
+     * 长度字段为 varint 时作为 lengthFieldLength 传入
+     */
+    public static final int VARINT = -1;
+
+    private static final int MAX_CUMULATION_COMPONENTS = 16;
+
+    private final int maxFrameLength;
+    private final int lengthFieldOffset;
+    private final int lengthFieldLength;
+    private final int lengthAdjustment;
+    private final int initialBytesToStrip;
+    private final boolean littleEndian;
+
+    private CompositeByteBuf cumulation = new CompositeByteBuf();
+    private long bytesToDiscard;
+    // 本次 decode 中遇到的第一个过长帧, 解码完其后的帧再抛出
+    private TooLongFrameException tooLongFrame;
+
+    public LengthFieldFrameDecoder(int maxFrameLength, int lengthFieldOffset, int lengthFieldLength) {
+        this(maxFrameLength, lengthFieldOffset, lengthFieldLength, 0, 0, ByteOrder.BIG_ENDIAN);
+    }
+
+    public LengthFieldFrameDecoder(int maxFrameLength, int lengthFieldOffset, int lengthFieldLength,
+                                   int lengthAdjustment, int initialBytesToStrip, ByteOrder byteOrder) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("maxFrameLength: " + maxFrameLength + " (expected: > 0)");
+        }
+        if (lengthFieldOffset < 0) {
+            throw new IllegalArgumentException("lengthFieldOffset: " + lengthFieldOffset + " (expected: >= 0)");
+        }
+        if (initialBytesToStrip < 0) {
+            throw new IllegalArgumentException("initialBytesToStrip: " + initialBytesToStrip + " (expected: >= 0)");
+        }
+        switch (lengthFieldLength) {
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+            case 8:
+            case VARINT:
+                break;
+            default:
+                throw new IllegalArgumentException("lengthFieldLength: " + lengthFieldLength + " (expected: 1, 2, 3, 4, 8 or VARINT)");
+        }
+        if (byteOrder == null) {
+            throw new NullPointerException("byteOrder");
+        }
+        this.maxFrameLength = maxFrameLength;
+        this.lengthFieldOffset = lengthFieldOffset;
+        this.lengthFieldLength = lengthFieldLength;
+        this.lengthAdjustment = lengthAdjustment;
+        this.initialBytesToStrip = initialBytesToStrip;
+        this.littleEndian = byteOrder == ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * 追加 in 并把所有完整的帧加入 out, 接管 in 的引用计数; 输出的帧需要由调用方 release
+     * 帧过长时丢弃该帧的全部字节, 其后已到达的完整帧照常加入 out, 然后抛出 TooLongFrameException, 之后可以继续解码
+     */
+    public void decode(ByteBuf in, List<ByteBuf> out) {
+        if (cumulation == null) {
+            in.release();
+            throw new IllegalStateException("decoder already released");
+        }
+        if (in.readableBytes() == 0) {
+            in.release();
+        } else {
+            cumulation.addComponent(in);
+        }
+        try {
+            while (discard() && decodeFrame(out)) {
+                // 继续解码下一帧
+            }
+            if (tooLongFrame != null) {
+                throw tooLongFrame;
+            }
+        } finally {
+            tooLongFrame = null;
+            cumulation.discardReadComponents();
+            if (cumulation.numComponents() > MAX_CUMULATION_COMPONENTS) {
+                cumulation.consolidate();
+            }
+        }
+    }
+
+    /**
+     * 跳过过长帧的剩余字节, 全部跳过后返回 true
+     */
+    private boolean discard() {
+        if (bytesToDiscard == 0) {
+            return true;
+        }
+        int skip = (int) Math.min(bytesToDiscard, cumulation.readableBytes());
+        cumulation.readerIndex(cumulation.readerIndex() + skip);
+        bytesToDiscard -= skip;
+        return bytesToDiscard == 0;
+    }
+
+    private boolean decodeFrame(List<ByteBuf> out) {
+        CompositeByteBuf buf = cumulation;
+        int readable = buf.readableBytes();
+        int readerIndex = buf.readerIndex();
+        long length;
+        int lengthFieldEndOffset;
+        if (lengthFieldLength == VARINT) {
+            // 逐字节解析, 数据不完整时等待更多字节而不是抛出异常
+            length = 0;
+            int i = 0;
+            while (true) {
+                // 先检查长度, 5 个字节都带续位时不必等待第 6 个字节
+                if (i == 5) {
+                    throw new IllegalStateException("malformed varint length field");
+                }
+                if (lengthFieldOffset + i >= readable) {
+                    return false;
+                }
+                byte b = buf.getByte(readerIndex + lengthFieldOffset + i);
+                length |= (long) (b & 0x7F) << (7 * i++);
+                if (b >= 0) {
+                    break;
+                }
+            }
+            lengthFieldEndOffset = lengthFieldOffset + i;
+        } else {
+            lengthFieldEndOffset = lengthFieldOffset + lengthFieldLength;
+            if (readable < lengthFieldEndOffset) {
+                return false;
+            }
+            length = getLength(buf, readerIndex + lengthFieldOffset);
+        }
+        if (length < 0) {
+            throw new IllegalStateException("negative length field: " + length);
+        }
+
+        long frameLength = length + lengthAdjustment + lengthFieldEndOffset;
+        if (frameLength < lengthFieldEndOffset) {
+            throw new IllegalStateException("adjusted frame length (" + frameLength +
+                    ") is less than length field end offset: " + lengthFieldEndOffset);
+        }
+        if (frameLength > maxFrameLength) {
+            // 由 decode 的循环跳过该帧, 再继续解码之后的帧
+            bytesToDiscard = frameLength;
+            if (tooLongFrame == null) {
+                tooLongFrame = new TooLongFrameException("frame length exceeds " + maxFrameLength + ": " + frameLength + " - discarded");
+            }
+            return true;
+        }
+        if (initialBytesToStrip > frameLength) {
+            throw new IllegalStateException("frame length (" + frameLength +
+                    ") is less than initialBytesToStrip: " + initialBytesToStrip);
+        }
+        if (readable < frameLength) {
+            return false;
+        }
+        int frameLengthInt = (int) frameLength;
+        out.add(buf.retainedSlice(readerIndex + initialBytesToStrip, frameLengthInt - initialBytesToStrip));
+        buf.readerIndex(readerIndex + frameLengthInt);
+        return true;
+    }
+
+    private long getLength(ByteBuf buf, int index) {
+        switch (lengthFieldLength) {
+            case 1:
+                return buf.getByte(index) & 0xFF;
+            case 2:
+                return (littleEndian ? buf.getShortLE(index) : buf.getShort(index)) & 0xFFFF;
+            case 3:
+                if (littleEndian) {
+                    return buf.getShortLE(index) & 0xFFFF | (buf.getByte(index + 2) & 0xFF) << 16;
+                }
+                return (buf.getShort(index) & 0xFFFF) << 8 | buf.getByte(index + 2) & 0xFF;
+            case 4:
+                return (littleEndian ? buf.getIntLE(index) : buf.getInt(index)) & 0xFFFFFFFFL;
+            default:
+                return littleEndian ? buf.getLongLE(index) : buf.getLong(index);
+        }
+    }
+
+    /**
+     * 已累积但尚未组成完整帧的字节数
+     */
+    public int cumulatedBytes() {
+        return cumulation == null ? 0 : cumulation.readableBytes();
+    }
+
+    /**
+     * 释放累积的数据, 之后不能再解码
+     */
+    public void release() {
+        if (cumulation != null) {
+            cumulation.release();
+            cumulation = null;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package cn.langya;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 纯 Java 实现的 LZ4 块压缩, 块内格式与 LZ4 block format 兼容
+ * 输入切成 blockSize 大小的块逐块压缩 (最后一块可能较短), CompositeByteBuf 的组件按 nioBuffers 逐段读取, 不需要先合并;
+ * 块跨越组件边界或位于堆外内存时经过一块复用数组拼接, 小组件不会各自成块
+ * 每块为 4 字节原始长度 + 4 字节压缩长度 + 数据, 压缩后不比原始数据小的块原样存储 (压缩长度最高位置 1), 原始长度为 0 的块表示结束
+ * 堆内存的输入输出直接使用底层数组, 堆外内存经过一块复用数组中转
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class Lz4Codec implements CompressionCodec {
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    public static final int MAX_BLOCK_SIZE = 1 << 24;
+
+    private static final int BLOCK_HEADER_LENGTH = 8;
+    private static final int STORED = 0x80000000;
+
+    private static final int MIN_MATCH = 4;
+    // 最后 5 字节必须是字面量, 最后一个匹配至少在结尾前 12 字节开始
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 65535;
+    private static final int HASH_LOG = 12;
+    private static final int ML_MASK = 15;
+    private static final int RUN_MASK = 15;
+
+    private final int blockSize;
+    private final int[] hashTable = new int[1 << HASH_LOG];
+    private byte[] inScratch;
+    private byte[] outScratch;
+
+    public Lz4Codec() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public Lz4Codec(int blockSize) {
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize: " + blockSize + " (expected: 1-" + MAX_BLOCK_SIZE + ")");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 长度为 length 的输入压缩后最多占用的字节数
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    @Override
+    public int compress(ByteBuf src, ByteBuf dst) {
+        int readerIndex = src.readerIndex();
+        int readable = src.readableBytes();
+        int start = dst.writerIndex();
+        if (readable > 0) {
+            ByteBuffer[] segments = src.nioBuffers(readerIndex, readable);
+            int segmentIndex = 0;
+            int remaining = readable;
+            while (remaining > 0) {
+                int length = Math.min(remaining, blockSize);
+                while (!segments[segmentIndex].hasRemaining()) {
+                    segmentIndex++;
+                }
+                ByteBuffer segment = segments[segmentIndex];
+                if (segment.hasArray() && segment.remaining() >= length) {
+                    // 整块落在一个堆内存段内, 直接压缩底层数组
+                    compressChunk(segment.array(), segment.arrayOffset() + segment.position(), length, dst);
+                    ((Buffer) segment).position(segment.position() + length);
+                } else {
+                    // 跨段或堆外内存: 把后续各段拼进复用数组凑满一块, 避免小组件各自成块
+                    byte[] in = inScratch();
+                    for (int filled = 0; filled < length; ) {
+                        segment = segments[segmentIndex];
+                        int chunk = Math.min(segment.remaining(), length - filled);
+                        segment.get(in, filled, chunk);
+                        filled += chunk;
+                        if (!segment.hasRemaining()) {
+                            segmentIndex++;
+                        }
+                    }
+                    compressChunk(in, 0, length, dst);
+                }
+                remaining -= length;
+            }
+        }
+        dst.ensureWritable(4);
+        dst.writeInt(0);
+        src.readerIndex(readerIndex + readable);
+        return dst.writerIndex() - start;
+    }
+
+    /**
+     * 把 in[inOffset, inOffset + length) 压缩为一块写入 dst
+     */
+    private void compressChunk(byte[] in, int inOffset, int length, ByteBuf dst) {
+        dst.ensureWritable(BLOCK_HEADER_LENGTH + maxCompressedLength(length));
+        int headerIndex = dst.writerIndex();
+        int dataIndex = headerIndex + BLOCK_HEADER_LENGTH;
+        int compressed;
+        if (dst.hasArray()) {
+            compressed = compressBlock(in, inOffset, length, dst.array(), dst.arrayOffset() + dataIndex, hashTable);
+        } else {
+            byte[] out = outScratch();
+            compressed = compressBlock(in, inOffset, length, out, 0, hashTable);
+            if (compressed < length) {
+                dst.setBytes(dataIndex, out, 0, compressed);
+            }
+        }
+        if (compressed >= length) {
+            dst.setBytes(dataIndex, in, inOffset, length);
+            dst.setInt(headerIndex + 4, length | STORED);
+            compressed = length;
+        } else {
+            dst.setInt(headerIndex + 4, compressed);
+        }
+        dst.setInt(headerIndex, length);
+        dst.writerIndex(dataIndex + compressed);
+    }
+
+    @Override
+    public int decompress(ByteBuf src, ByteBuf dst) {
+        int index = src.readerIndex();
+        int end = src.writerIndex();
+        int start = dst.writerIndex();
+        while (true) {
+            if (end - index < 4) {
+                throw new IllegalStateException("truncated LZ4 stream at " + index);
+            }
+            int length = src.getInt(index);
+            index += 4;
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || length > MAX_BLOCK_SIZE || end - index < 4) {
+                throw new IllegalStateException("malformed LZ4 block header at " + (index - 4));
+            }
+            int compressedField = src.getInt(index);
+            index += 4;
+            boolean stored = (compressedField & STORED) != 0;
+            int compressed = compressedField & ~STORED;
+            if (compressed > end - index || stored && compressed != length) {
+                throw new IllegalStateException("malformed LZ4 block header at " + (index - 8));
+            }
+            dst.ensureWritable(length);
+            int writerIndex = dst.writerIndex();
+            if (stored) {
+                copy(src, index, dst, writerIndex, length);
+            } else {
+                decompressChunk(src, index, compressed, dst, writerIndex, length);
+            }
+            dst.writerIndex(writerIndex + length);
+            index += compressed;
+        }
+        src.readerIndex(index);
+        return dst.writerIndex() - start;
+    }
+
+    private void decompressChunk(ByteBuf src, int index, int compressed, ByteBuf dst, int dstIndex, int length) {
+        ByteBuffer in = src.nioBuffer(index, compressed);
+        byte[] inArray;
+        int inOffset;
+        if (in.hasArray()) {
+            inArray = in.array();
+            inOffset = in.arrayOffset() + in.position();
+        } else {
+            inArray = inScratch(compressed);
+            inOffset = 0;
+            in.get(inArray, 0, compressed);
+        }
+        if (dst.hasArray()) {
+            decompressBlock(inArray, inOffset, compressed, dst.array(), dst.arrayOffset() + dstIndex, length);
+        } else {
+            byte[] out = outScratch(length);
+            decompressBlock(inArray, inOffset, compressed, out, 0, length);
+            dst.setBytes(dstIndex, out, 0, length);
+        }
+    }
+
+    private void copy(ByteBuf src, int index, ByteBuf dst, int dstIndex, int length) {
+        if (dst.hasArray()) {
+            src.getBytes(index, dst.array(), dst.arrayOffset() + dstIndex, length);
+        } else {
+            byte[] tmp = outScratch(length);
+            src.getBytes(index, tmp, 0, length);
+            dst.setBytes(dstIndex, tmp, 0, length);
+        }
+    }
+
+    /**
+     * 把 src[srcOffset, srcOffset + length) 压缩为一个 LZ4 块写入 dst, dst 至少有 maxCompressedLength(length) 字节空间
+     * 返回压缩后的字节数
+     */
+    static int compressBlock(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int[] hashTable) {
+        int end = srcOffset + length;
+        int anchor = srcOffset;
+        int op = dstOffset;
+        if (length >= MF_LIMIT + 1) {
+            Arrays.fill(hashTable, -1);
+            int mfLimit = end - MF_LIMIT;
+            int matchLimit = end - LAST_LITERALS;
+            int ip = srcOffset;
+            while (ip < mfLimit) {
+                int sequence = HeapByteBufUtil.getIntLE(src, ip);
+                int hash = hash(sequence);
+                int ref = hashTable[hash];
+                hashTable[hash] = ip - srcOffset;
+                if (ref < 0 || ip - srcOffset - ref > MAX_DISTANCE || HeapByteBufUtil.getIntLE(src, srcOffset + ref) != sequence) {
+                    ip++;
+                    continue;
+                }
+                int match = srcOffset + ref;
+                // 向前扩展匹配
+                while (ip > anchor && match > srcOffset && src[ip - 1] == src[match - 1]) {
+                    ip--;
+                    match--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[match + matchLength]) {
+                    matchLength++;
+                }
+                op = writeSequence(src, anchor, ip - anchor, ip - match, matchLength, dst, op);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        return writeLastLiterals(src, anchor, end - anchor, dst, op) - dstOffset;
+    }
+
+    private static int writeSequence(byte[] src, int literalOffset, int literalLength, int distance, int matchLength,
+                                     byte[] dst, int op) {
+        int token = op++;
+        if (literalLength >= RUN_MASK) {
+            dst[token] = (byte) (RUN_MASK << 4);
+            op = writeLength(dst, op, literalLength - RUN_MASK);
+        } else {
+            dst[token] = (byte) (literalLength << 4);
+        }
+        System.arraycopy(src, literalOffset, dst, op, literalLength);
+        op += literalLength;
+        dst[op++] = (byte) distance;
+        dst[op++] = (byte) (distance >>> 8);
+        int extra = matchLength - MIN_MATCH;
+        if (extra >= ML_MASK) {
+            dst[token] |= ML_MASK;
+            op = writeLength(dst, op, extra - ML_MASK);
+        } else {
+            dst[token] |= (byte) extra;
+        }
+        return op;
+    }
+
+    private static int writeLastLiterals(byte[] src, int literalOffset, int literalLength, byte[] dst, int op) {
+        if (literalLength >= RUN_MASK) {
+            dst[op++] = (byte) (RUN_MASK << 4);
+            op = writeLength(dst, op, literalLength - RUN_MASK);
+        } else {
+            dst[op++] = (byte) (literalLength << 4);
+        }
+        System.arraycopy(src, literalOffset, dst, op, literalLength);
+        return op + literalLength;
+    }
+
+    private static int writeLength(byte[] dst, int op, int length) {
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    /**
+     * 把一个 LZ4 块解压到 dst[dstOffset, dstOffset + length), 块数据与 length 不符时抛出 IllegalStateException
+     */
+    static void decompressBlock(byte[] src, int srcOffset, int compressed, byte[] dst, int dstOffset, int length) {
+        int ip = srcOffset;
+        int srcEnd = srcOffset + compressed;
+        int op = dstOffset;
+        int dstEnd = dstOffset + length;
+        while (true) {
+            if (ip >= srcEnd) {
+                throw malformed(ip - srcOffset);
+            }
+            int token = src[ip++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed(ip - srcOffset);
+                    }
+                    b = src[ip++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255 && literalLength <= length);
+            }
+            if (literalLength > srcEnd - ip || literalLength > dstEnd - op) {
+                throw malformed(ip - srcOffset);
+            }
+            System.arraycopy(src, ip, dst, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+            if (ip == srcEnd) {
+                break;
+            }
+
+            if (srcEnd - ip < 2) {
+                throw malformed(ip - srcOffset);
+            }
+            int distance = src[ip] & 0xFF | (src[ip + 1] & 0xFF) << 8;
+            ip += 2;
+            if (distance == 0 || distance > op - dstOffset) {
+                throw malformed(ip - srcOffset);
+            }
+            int matchLength = token & ML_MASK;
+            if (matchLength == ML_MASK) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed(ip - srcOffset);
+                    }
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255 && matchLength <= length);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > dstEnd - op) {
+                throw malformed(ip - srcOffset);
+            }
+            int ref = op - distance;
+            if (distance >= matchLength) {
+                System.arraycopy(dst, ref, dst, op, matchLength);
+                op += matchLength;
+            } else {
+                // 重叠的匹配逐字节复制, 重复之前输出的内容
+                for (int i = 0; i < matchLength; i++) {
+                    dst[op++] = dst[ref + i];
+                }
+            }
+        }
+        if (op != dstEnd) {
+            throw new IllegalStateException("LZ4 block decompressed to " + (op - dstOffset) + " bytes (expected: " + length + ")");
+        }
+    }
+
+    private static IllegalStateException malformed(int offset) {
+        return new IllegalStateException("malformed LZ4 block at offset " + offset);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private byte[] inScratch() {
+        return inScratch(blockSize);
+    }
+
+    private byte[] inScratch(int length) {
+        if (inScratch == null || inScratch.length < length) {
+            inScratch = new byte[Math.max(length, maxCompressedLength(blockSize))];
+        }
+        return inScratch;
+    }
+
+    private byte[] outScratch() {
+        return outScratch(maxCompressedLength(blockSize));
+    }
+
+    private byte[] outScratch(int length) {
+        if (outScratch == null || outScratch.length < length) {
+            outScratch = new byte[Math.max(length, maxCompressedLength(blockSize))];
+        }
+        return outScratch;
+    }
+
+    @Override
+    public void close() {
+        inScratch = null;
+        outScratch = null;
+    }
+}
@@ -0,0 +1,312 @@
+package cn.langya;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 文件内存映射的 ByteBuf, 数据由页缓存支撑, 不占用堆内存
+ * 映射按 2 的幂大小分块串联, 块内访问直接读写映射, 跨块的值拆开拼接
+ * 索引为 int, 单个 ByteBuf 最多覆盖 2 GB, 更大的文件按 position 分窗口打开
+ * 创建后整个窗口都是可读的, 容量固定; 引用计数归零时立即解除映射
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class MappedFileByteBuf extends AbstractByteBuf {
+    private static final int DEFAULT_CHUNK_SIZE = normalizeChunkSize(Integer.getInteger("lbytebuf.mapped.chunkSize", 1 << 30));
+    private static final MappedByteBuffer[] EMPTY_CHUNKS = new MappedByteBuffer[0];
+
+    public final long filePosition;
+    public final FileChannel.MapMode mode;
+
+    private MappedByteBuffer[] chunks;
+    private final int chunkShift;
+    private final int chunkMask;
+    private int capacity;
+
+    private MappedFileByteBuf(MappedByteBuffer[] chunks, int chunkSize, long filePosition, int capacity, FileChannel.MapMode mode) {
+        this.chunks = chunks;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+        this.filePosition = filePosition;
+        this.capacity = capacity;
+        this.mode = mode;
+        this.writerIndex = capacity;
+    }
+
+    /**
+     * 映射整个文件, 文件超过 2 GB 时请使用带 position 的重载分窗口打开
+     */
+    public static MappedFileByteBuf open(Path path, FileChannel.MapMode mode) throws IOException {
+        try (FileChannel channel = openChannel(path, mode)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("file size " + size + " exceeds Integer.MAX_VALUE, map it in windows");
+            }
+            return map(channel, mode, 0, (int) size, DEFAULT_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * 映射文件中 [position, position + length) 的窗口, READ_WRITE 模式下超出文件末尾的部分会扩展文件
+     */
+    public static MappedFileByteBuf open(Path path, FileChannel.MapMode mode, long position, int length) throws IOException {
+        return open(path, mode, position, length, DEFAULT_CHUNK_SIZE);
+    }
+
+    static MappedFileByteBuf open(Path path, FileChannel.MapMode mode, long position, int length, int chunkSize) throws IOException {
+        try (FileChannel channel = openChannel(path, mode)) {
+            return map(channel, mode, position, length, normalizeChunkSize(chunkSize));
+        }
+    }
+
+    /**
+     * 映射在通道关闭后仍然有效; PRIVATE 模式的写时复制映射同样要求通道可读可写, 但修改不会写回文件
+     */
+    private static FileChannel openChannel(Path path, FileChannel.MapMode mode) throws IOException {
+        if (mode != FileChannel.MapMode.READ_ONLY) {
+            return FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    private static MappedFileByteBuf map(FileChannel channel, FileChannel.MapMode mode, long position, int length, int chunkSize) throws IOException {
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException("position: " + position + ", length: " + length);
+        }
+        int count = (int) (((long) length + chunkSize - 1) / chunkSize);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                long offset = (long) i * chunkSize;
+                chunks[i] = channel.map(mode, position + offset, Math.min(chunkSize, length - offset));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (MappedByteBuffer chunk : chunks) {
+                if (chunk != null) {
+                    PlatformDependent.freeDirectBuffer(chunk);
+                }
+            }
+            throw e;
+        }
+        return new MappedFileByteBuf(chunks, chunkSize, position, length, mode);
+    }
+
+    private static int normalizeChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize: " + chunkSize + " (expected: > 0)");
+        }
+        return Integer.bitCount(chunkSize) == 1 ? chunkSize : Integer.highestOneBit(chunkSize);
+    }
+
+    public boolean isReadOnly() {
+        return mode == FileChannel.MapMode.READ_ONLY;
+    }
+
+    /**
+     * 把 READ_WRITE 模式下的修改刷到磁盘
+     */
+    public MappedFileByteBuf force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+        return this;
+    }
+
+    @Override
+    protected void adjustCapacity(int newCapacity) {
+        throw new IndexOutOfBoundsException("Required capacity " + newCapacity +
+                " is greater than mapped length " + capacity);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    private MappedByteBuffer chunk(int index) {
+        return chunks[index >>> chunkShift];
+    }
+
+    /**
+     * 从 index 开始的 width 字节是否都在同一块内
+     */
+    private boolean inChunk(int index, int width) {
+        return (index & chunkMask) + width <= chunkMask + 1;
+    }
+
+    @Override
+    protected byte _getByte(int index) {
+        return chunk(index).get(index & chunkMask);
+    }
+
+    @Override
+    protected void _setByte(int index, byte value) {
+        chunk(index).put(index & chunkMask, value);
+    }
+
+    @Override
+    protected short _getShort(int index) {
+        if (inChunk(index, 2)) {
+            return chunk(index).getShort(index & chunkMask);
+        }
+        return (short) ((_getByte(index) & 0xFF) << 8 | _getByte(index + 1) & 0xFF);
+    }
+
+    @Override
+    protected void _setShort(int index, short value) {
+        if (inChunk(index, 2)) {
+            chunk(index).putShort(index & chunkMask, value);
+            return;
+        }
+        _setByte(index, (byte) (value >>> 8));
+        _setByte(index + 1, (byte) value);
+    }
+
+    @Override
+    protected int _getInt(int index) {
+        if (inChunk(index, 4)) {
+            return chunk(index).getInt(index & chunkMask);
+        }
+        return (_getShort(index) & 0xFFFF) << 16 | _getShort(index + 2) & 0xFFFF;
+    }
+
+    @Override
+    protected void _setInt(int index, int value) {
+        if (inChunk(index, 4)) {
+            chunk(index).putInt(index & chunkMask, value);
+            return;
+        }
+        _setShort(index, (short) (value >>> 16));
+        _setShort(index + 2, (short) value);
+    }
+
+    @Override
+    protected long _getLong(int index) {
+        if (inChunk(index, 8)) {
+            return chunk(index).getLong(index & chunkMask);
+        }
+        return (_getInt(index) & 0xFFFFFFFFL) << 32 | _getInt(index + 4) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    protected void _setLong(int index, long value) {
+        if (inChunk(index, 8)) {
+            chunk(index).putLong(index & chunkMask, value);
+            return;
+        }
+        _setInt(index, (int) (value >>> 32));
+        _setInt(index + 4, (int) value);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(dst.length, dstIndex, length);
+        while (length > 0) {
+            ByteBuffer src = chunk(index).duplicate();
+            int offset = index & chunkMask;
+            int localLength = Math.min(length, src.capacity() - offset);
+            ((Buffer) src).position(offset);
+            src.get(dst, dstIndex, localLength);
+            index += localLength;
+            dstIndex += localLength;
+            length -= localLength;
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(src.length, srcIndex, length);
+        while (length > 0) {
+            ByteBuffer dst = chunk(index).duplicate();
+            int offset = index & chunkMask;
+            int localLength = Math.min(length, dst.capacity() - offset);
+            ((Buffer) dst).position(offset);
+            dst.put(src, srcIndex, localLength);
+            index += localLength;
+            srcIndex += localLength;
+            length -= localLength;
+        }
+        return this;
+    }
+
+    /**
+     * 可读区域跨越的块数
+     */
+    @Override
+    public int nioBufferCount() {
+        if (writerIndex == readerIndex) {
+            return 1;
+        }
+        return ((writerIndex - 1) >>> chunkShift) - (readerIndex >>> chunkShift) + 1;
+    }
+
+    /**
+     * 落在同一块内时返回映射的视图, 跨块时复制到一个新的 ByteBuffer
+     */
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0 || inChunk(index, length)) {
+            return chunkView(index, length);
+        }
+        ByteBuffer merged = ByteBuffer.allocate(length);
+        getBytes(index, merged.array(), 0, length);
+        return merged;
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return new ByteBuffer[]{ByteBuffer.allocate(0)};
+        }
+        int first = index >>> chunkShift;
+        int last = (index + length - 1) >>> chunkShift;
+        ByteBuffer[] buffers = new ByteBuffer[last - first + 1];
+        for (int i = 0; i < buffers.length; i++) {
+            int localLength = Math.min(length, chunkMask + 1 - (index & chunkMask));
+            buffers[i] = chunkView(index, localLength);
+            index += localLength;
+            length -= localLength;
+        }
+        return buffers;
+    }
+
+    private ByteBuffer chunkView(int index, int length) {
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        ByteBuffer view = chunk(index).duplicate();
+        int offset = index & chunkMask;
+        ((Buffer) view).position(offset).limit(offset + length);
+        return view.slice();
+    }
+
+    /**
+     * 先把容量置零再解除映射, 之后的访问会在边界检查处失败而不是访问已释放的内存
+     */
+    @Override
+    protected void deallocate() {
+        MappedByteBuffer[] chunks = this.chunks;
+        this.chunks = EMPTY_CHUNKS;
+        capacity = 0;
+        clear();
+        for (MappedByteBuffer chunk : chunks) {
+            PlatformDependent.freeDirectBuffer(chunk);
+        }
+    }
+}
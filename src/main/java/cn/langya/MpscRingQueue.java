@@ -0,0 +1,80 @@
+package cn.langya;
+
+import java.util.function.Consumer;
+
+/**
+ * 多生产者单消费者的环形队列, 生产者通过 CAS 生产者序号占位后写入元素
+ * 占位与写入之间元素可能暂时不可见, 消费者遇到已占位但未写入的槽位时自旋等待
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class MpscRingQueue<E> extends RingQueue<E> {
+    public MpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        long limit = sequences.get(PRODUCER_LIMIT);
+        long index;
+        do {
+            index = sequences.get(PRODUCER_INDEX);
+            if (index >= limit) {
+                limit = sequences.get(CONSUMER_INDEX) + capacity();
+                if (index >= limit) {
+                    return false;
+                }
+                sequences.lazySet(PRODUCER_LIMIT, limit);
+            }
+        } while (!sequences.compareAndSet(PRODUCER_INDEX, index, index + 1));
+        buffer.lazySet(offset(index), e);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index = sequences.get(CONSUMER_INDEX);
+        int offset = offset(index);
+        E e = buffer.get(offset);
+        if (e == null) {
+            if (index == sequences.get(PRODUCER_INDEX)) {
+                return null;
+            }
+            // 生产者已占位, 元素即将写入
+            do {
+                e = buffer.get(offset);
+            } while (e == null);
+        }
+        buffer.lazySet(offset, null);
+        sequences.lazySet(CONSUMER_INDEX, index + 1);
+        return e;
+    }
+
+    /**
+     * 遇到尚未写入的槽位时结束本批, 不自旋等待
+     */
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long index = sequences.get(CONSUMER_INDEX);
+        int count = 0;
+        try {
+            while (count < limit) {
+                int offset = offset(index + count);
+                E e = buffer.get(offset);
+                if (e == null) {
+                    break;
+                }
+                buffer.lazySet(offset, null);
+                count++;
+                consumer.accept(e);
+            }
+        } finally {
+            if (count > 0) {
+                sequences.lazySet(CONSUMER_INDEX, index + count);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,275 @@
+package cn.langya;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 平台相关的底层操作, 通过反射获取 sun.misc.Unsafe, 不可用时退化为普通实现
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+final class PlatformDependent {
+    static final boolean BIG_ENDIAN_NATIVE_ORDER = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    private static final sun.misc.Unsafe UNSAFE;
+    private static final long BYTE_ARRAY_BASE_OFFSET;
+    private static final long ADDRESS_FIELD_OFFSET;
+    static final long SHORT_ARRAY_BASE_OFFSET;
+    static final long CHAR_ARRAY_BASE_OFFSET;
+    static final long INT_ARRAY_BASE_OFFSET;
+    static final long LONG_ARRAY_BASE_OFFSET;
+    static final long FLOAT_ARRAY_BASE_OFFSET;
+    static final long DOUBLE_ARRAY_BASE_OFFSET;
+
+    /**
+     * copyMemory 每次最多复制的字节数, 让大块复制之间有机会进入安全点
+     */
+    private static final long UNSAFE_COPY_THRESHOLD = 1024 * 1024;
+    private static final boolean UNALIGNED_ACCESS;
+    private static final Method INVOKE_CLEANER;
+    private static final Method CLEANER;
+    private static final Method CLEAN;
+
+    static {
+        sun.misc.Unsafe unsafe = null;
+        try {
+            Field field = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = (sun.misc.Unsafe) field.get(null);
+        } catch (Throwable ignore) {
+            // 无 Unsafe 时使用安全实现
+        }
+        UNSAFE = unsafe;
+        BYTE_ARRAY_BASE_OFFSET = unsafe == null ? -1 : unsafe.arrayBaseOffset(byte[].class);
+        SHORT_ARRAY_BASE_OFFSET = unsafe == null ? -1 : unsafe.arrayBaseOffset(short[].class);
+        CHAR_ARRAY_BASE_OFFSET = unsafe == null ? -1 : unsafe.arrayBaseOffset(char[].class);
+        INT_ARRAY_BASE_OFFSET = unsafe == null ? -1 : unsafe.arrayBaseOffset(int[].class);
+        LONG_ARRAY_BASE_OFFSET = unsafe == null ? -1 : unsafe.arrayBaseOffset(long[].class);
+        FLOAT_ARRAY_BASE_OFFSET = unsafe == null ? -1 : unsafe.arrayBaseOffset(float[].class);
+        DOUBLE_ARRAY_BASE_OFFSET = unsafe == null ? -1 : unsafe.arrayBaseOffset(double[].class);
+        long addressFieldOffset = -1;
+        if (unsafe != null) {
+            try {
+                addressFieldOffset = unsafe.objectFieldOffset(java.nio.Buffer.class.getDeclaredField("address"));
+            } catch (Throwable ignore) {
+                // 拿不到地址时堆外内存不走整块复制
+            }
+        }
+        ADDRESS_FIELD_OFFSET = addressFieldOffset;
+        // 只在允许非对齐访问的架构上做宽读写, 其他架构逐字节访问
+        String arch = System.getProperty("os.arch", "");
+        UNALIGNED_ACCESS = unsafe != null && arch.matches("^(i[3-6]86|x86(_64)?|x64|amd64|aarch64|ppc64le)$");
+
+        Method invokeCleaner = null;
+        Method cleaner = null;
+        Method clean = null;
+        if (unsafe != null) {
+            try {
+                // Java 9+
+                invokeCleaner = sun.misc.Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (Throwable ignore) {
+                try {
+                    // Java 8: ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean()
+                    ByteBuffer probe = ByteBuffer.allocateDirect(1);
+                    cleaner = probe.getClass().getMethod("cleaner");
+                    cleaner.setAccessible(true);
+                    clean = cleaner.getReturnType().getMethod("clean");
+                    clean.setAccessible(true);
+                    clean.invoke(cleaner.invoke(probe));
+                } catch (Throwable e) {
+                    cleaner = null;
+                    clean = null;
+                }
+            }
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        CLEANER = cleaner;
+        CLEAN = clean;
+    }
+
+    private PlatformDependent() {
+    }
+
+    static boolean hasUnsafe() {
+        return UNSAFE != null;
+    }
+
+    /**
+     * 是否可以对 byte[] 做任意偏移的宽读写
+     */
+    static boolean isUnaligned() {
+        return UNALIGNED_ACCESS;
+    }
+
+    // 以下方法按本机字节序访问 byte[], 调用方负责边界检查
+    static short getShort(byte[] data, int index) {
+        return UNSAFE.getShort(data, BYTE_ARRAY_BASE_OFFSET + index);
+    }
+
+    static void putShort(byte[] data, int index, short value) {
+        UNSAFE.putShort(data, BYTE_ARRAY_BASE_OFFSET + index, value);
+    }
+
+    static int getInt(byte[] data, int index) {
+        return UNSAFE.getInt(data, BYTE_ARRAY_BASE_OFFSET + index);
+    }
+
+    static void putInt(byte[] data, int index, int value) {
+        UNSAFE.putInt(data, BYTE_ARRAY_BASE_OFFSET + index, value);
+    }
+
+    static long getLong(byte[] data, int index) {
+        return UNSAFE.getLong(data, BYTE_ARRAY_BASE_OFFSET + index);
+    }
+
+    static void putLong(byte[] data, int index, long value) {
+        UNSAFE.putLong(data, BYTE_ARRAY_BASE_OFFSET + index, value);
+    }
+
+    /**
+     * 有序写入, 之前的写入不会被重排到它之后, index 需要 4 字节对齐
+     */
+    static void putIntOrdered(byte[] data, int index, int value) {
+        UNSAFE.putOrderedInt(data, BYTE_ARRAY_BASE_OFFSET + index, value);
+    }
+
+    static int getIntVolatile(byte[] data, int index) {
+        return UNSAFE.getIntVolatile(data, BYTE_ARRAY_BASE_OFFSET + index);
+    }
+
+    /**
+     * direct ByteBuffer 的本地内存地址, 无法获取时返回 0
+     */
+    static long directBufferAddress(ByteBuffer buffer) {
+        if (ADDRESS_FIELD_OFFSET < 0 || !buffer.isDirect()) {
+            return 0;
+        }
+        return UNSAFE.getLong(buffer, ADDRESS_FIELD_OFFSET);
+    }
+
+    /**
+     * 按字节原样复制内存, src/dst 为 null 时偏移是本地地址, 否则是相对数组对象的偏移, 调用方负责边界检查
+     */
+    static void copyMemory(Object src, long srcOffset, Object dst, long dstOffset, long length) {
+        while (length > 0) {
+            long size = Math.min(length, UNSAFE_COPY_THRESHOLD);
+            UNSAFE.copyMemory(src, srcOffset, dst, dstOffset, size);
+            length -= size;
+            srcOffset += size;
+            dstOffset += size;
+        }
+    }
+
+    static long byteArrayOffset(int index) {
+        return BYTE_ARRAY_BASE_OFFSET + index;
+    }
+
+    // 以下方法按字段偏移直接读写对象字段, 供对象编解码器使用, 调用前需确认 hasUnsafe()
+    static long objectFieldOffset(Field field) {
+        return UNSAFE.objectFieldOffset(field);
+    }
+
+    /**
+     * 不调用构造方法创建实例, 与 Java 反序列化的行为一致
+     */
+    static Object allocateInstance(Class<?> type) throws InstantiationException {
+        return UNSAFE.allocateInstance(type);
+    }
+
+    static boolean getBoolean(Object target, long offset) {
+        return UNSAFE.getBoolean(target, offset);
+    }
+
+    static void putBoolean(Object target, long offset, boolean value) {
+        UNSAFE.putBoolean(target, offset, value);
+    }
+
+    static byte getByte(Object target, long offset) {
+        return UNSAFE.getByte(target, offset);
+    }
+
+    static void putByte(Object target, long offset, byte value) {
+        UNSAFE.putByte(target, offset, value);
+    }
+
+    static short getShort(Object target, long offset) {
+        return UNSAFE.getShort(target, offset);
+    }
+
+    static void putShort(Object target, long offset, short value) {
+        UNSAFE.putShort(target, offset, value);
+    }
+
+    static char getChar(Object target, long offset) {
+        return UNSAFE.getChar(target, offset);
+    }
+
+    static void putChar(Object target, long offset, char value) {
+        UNSAFE.putChar(target, offset, value);
+    }
+
+    static int getInt(Object target, long offset) {
+        return UNSAFE.getInt(target, offset);
+    }
+
+    static void putInt(Object target, long offset, int value) {
+        UNSAFE.putInt(target, offset, value);
+    }
+
+    static long getLong(Object target, long offset) {
+        return UNSAFE.getLong(target, offset);
+    }
+
+    static void putLong(Object target, long offset, long value) {
+        UNSAFE.putLong(target, offset, value);
+    }
+
+    static float getFloat(Object target, long offset) {
+        return UNSAFE.getFloat(target, offset);
+    }
+
+    static void putFloat(Object target, long offset, float value) {
+        UNSAFE.putFloat(target, offset, value);
+    }
+
+    static double getDouble(Object target, long offset) {
+        return UNSAFE.getDouble(target, offset);
+    }
+
+    static void putDouble(Object target, long offset, double value) {
+        UNSAFE.putDouble(target, offset, value);
+    }
+
+    static Object getObject(Object target, long offset) {
+        return UNSAFE.getObject(target, offset);
+    }
+
+    static void putObject(Object target, long offset, Object value) {
+        UNSAFE.putObject(target, offset, value);
+    }
+
+    /**
+     * 立即释放 direct ByteBuffer 的本地内存, 无法释放时留给 GC 的 Cleaner 处理
+     * 只能对自己分配且不再被引用的 buffer 调用, 切片和 duplicate 会被忽略
+     */
+    static void freeDirectBuffer(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else if (CLEANER != null) {
+                Object cleaner = CLEANER.invoke(buffer);
+                if (cleaner != null) {
+                    CLEAN.invoke(cleaner);
+                }
+            }
+        } catch (Throwable ignore) {
+            // 视图 buffer 不能被直接释放, 交给 GC
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package cn.langya;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 共享内存池, 按 2 的幂尺寸等级分箱保存空闲内存块, 总保留字节数有上限
+ * 多个 arena 分摊线程, 每个尺寸等级单独加锁
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+abstract class PoolArena<T> {
+    private final ArrayDeque<T>[] bins;
+    private final long maxRetainedBytes;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    final AtomicInteger numThreadCaches = new AtomicInteger();
+    final boolean direct;
+
+    @SuppressWarnings("unchecked")
+    PoolArena(int numSizeClasses, long maxRetainedBytes, boolean direct) {
+        this.direct = direct;
+        this.bins = (ArrayDeque<T>[]) new ArrayDeque<?>[numSizeClasses];
+        for (int i = 0; i < numSizeClasses; i++) {
+            bins[i] = new ArrayDeque<>();
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    protected abstract T newMemory(int capacity);
+
+    protected abstract int capacityOf(T memory);
+
+    /**
+     * 内存块被丢弃而不是回到池中时调用
+     */
+    protected void destroyMemory(T memory) {
+    }
+
+    T allocate(int sizeClass) {
+        ArrayDeque<T> bin = bins[sizeClass];
+        T memory;
+        synchronized (bin) {
+            memory = bin.pollLast();
+        }
+        if (memory == null) {
+            ByteBufMetrics.recordAllocation(direct, sizeClass, ByteBufMetrics.Source.NEW);
+            return newMemory(ByteBufPool.sizeOf(sizeClass));
+        }
+        ByteBufMetrics.recordAllocation(direct, sizeClass, ByteBufMetrics.Source.ARENA);
+        retainedBytes.addAndGet(-capacityOf(memory));
+        return memory;
+    }
+
+    /**
+     * 归还内存块, 超出保留上限时直接丢弃
+     */
+    void free(int sizeClass, T memory) {
+        int size = capacityOf(memory);
+        if (retainedBytes.addAndGet(size) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-size);
+            ByteBufMetrics.recordDiscard();
+            destroyMemory(memory);
+            return;
+        }
+        ArrayDeque<T> bin = bins[sizeClass];
+        synchronized (bin) {
+            bin.offerLast(memory);
+        }
+    }
+
+    long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    void clear() {
+        for (ArrayDeque<T> bin : bins) {
+            synchronized (bin) {
+                for (T memory : bin) {
+                    retainedBytes.addAndGet(-capacityOf(memory));
+                    destroyMemory(memory);
+                }
+                bin.clear();
+            }
+        }
+    }
+
+    static final class HeapArena extends PoolArena<byte[]> {
+        HeapArena(int numSizeClasses, long maxRetainedBytes) {
+            super(numSizeClasses, maxRetainedBytes, false);
+        }
+
+        @Override
+        protected byte[] newMemory(int capacity) {
+            return new byte[capacity];
+        }
+
+        @Override
+        protected int capacityOf(byte[] memory) {
+            return memory.length;
+        }
+    }
+
+    static final class DirectArena extends PoolArena<ByteBuffer> {
+        DirectArena(int numSizeClasses, long maxRetainedBytes) {
+            super(numSizeClasses, maxRetainedBytes, true);
+        }
+
+        @Override
+        protected ByteBuffer newMemory(int capacity) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+
+        @Override
+        protected int capacityOf(ByteBuffer memory) {
+            return memory.capacity();
+        }
+
+        @Override
+        protected void destroyMemory(ByteBuffer memory) {
+            PlatformDependent.freeDirectBuffer(memory);
+        }
+    }
+}
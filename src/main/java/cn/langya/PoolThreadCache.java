@@ -0,0 +1,172 @@
+package cn.langya;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * 线程私有的内存缓存, 位于共享 arena 之前, 命中时无需任何同步
+ * 只缓存较小的尺寸等级, 每个等级的条目数有上限
+ * 其他线程释放本线程分配的内存时放入 MPSC 环形队列, 本线程缓存未命中时先取回这些内存, 不经过共享 arena
+ * 所属线程结束后由 ByteBufPool 调用 free 把缓存的内存归还 arena
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+final class PoolThreadCache {
+    final PoolArena<byte[]> heapArena;
+    final PoolArena<ByteBuffer> directArena;
+    private final MemoryCache<byte[]>[] heapCaches;
+    private final MemoryCache<ByteBuffer>[] directCaches;
+    private final MpscRingQueue<byte[]> remoteHeapFrees;
+    private final MpscRingQueue<ByteBuffer> remoteDirectFrees;
+    private final Consumer<byte[]> heapReturner;
+    private final Consumer<ByteBuffer> directReturner;
+    private volatile boolean freed;
+
+    PoolThreadCache(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena, int numCachedSizeClasses, int maxEntries, int remoteFreeCapacity) {
+        this.heapArena = heapArena;
+        this.directArena = directArena;
+        this.heapCaches = newCaches(numCachedSizeClasses, maxEntries);
+        this.directCaches = newCaches(numCachedSizeClasses, maxEntries);
+        this.remoteHeapFrees = new MpscRingQueue<>(remoteFreeCapacity);
+        this.remoteDirectFrees = new MpscRingQueue<>(remoteFreeCapacity);
+        this.heapReturner = memory -> free(heapArena, heapCaches, ByteBufPool.sizeClass(memory.length), memory);
+        this.directReturner = memory -> free(directArena, directCaches, ByteBufPool.sizeClass(memory.capacity()), memory);
+        heapArena.numThreadCaches.incrementAndGet();
+        directArena.numThreadCaches.incrementAndGet();
+    }
+
+    byte[] allocateHeap(int sizeClass) {
+        return allocate(heapArena, heapCaches, remoteHeapFrees, heapReturner, sizeClass);
+    }
+
+    void freeHeap(int sizeClass, byte[] memory) {
+        free(heapArena, heapCaches, sizeClass, memory);
+    }
+
+    ByteBuffer allocateDirect(int sizeClass) {
+        return allocate(directArena, directCaches, remoteDirectFrees, directReturner, sizeClass);
+    }
+
+    /**
+     * 由其他线程调用, 把本线程分配的内存还给本线程, 队列已满时返回 false
+     */
+    boolean offerRemoteHeap(byte[] memory) {
+        return !freed && remoteHeapFrees.offer(memory);
+    }
+
+    boolean offerRemoteDirect(ByteBuffer memory) {
+        return !freed && remoteDirectFrees.offer(memory);
+    }
+
+    /**
+     * 线程私有缓存只缓存前 numCachedSizeClasses 个尺寸等级
+     */
+    boolean isCached(int sizeClass) {
+        return sizeClass < heapCaches.length;
+    }
+
+    void freeDirect(int sizeClass, ByteBuffer memory) {
+        free(directArena, directCaches, sizeClass, memory);
+    }
+
+    void clear() {
+        remoteHeapFrees.drain(heapReturner);
+        remoteDirectFrees.drain(directReturner);
+        for (MemoryCache<byte[]> cache : heapCaches) {
+            cache.clear(heapArena);
+        }
+        for (MemoryCache<ByteBuffer> cache : directCaches) {
+            cache.clear(directArena);
+        }
+    }
+
+    /**
+     * 所属线程已结束: 缓存和环形队列中的内存归还 arena, 之后不再接收其他线程归还的内存
+     * 与 free 并发放入环形队列的少量内存不会再被取出, 随缓存对象一起被 GC 回收
+     */
+    void free() {
+        freed = true;
+        remoteHeapFrees.drain(memory -> heapArena.free(ByteBufPool.sizeClass(memory.length), memory));
+        remoteDirectFrees.drain(memory -> directArena.free(ByteBufPool.sizeClass(memory.capacity()), memory));
+        freeCaches(heapArena, heapCaches);
+        freeCaches(directArena, directCaches);
+        heapArena.numThreadCaches.decrementAndGet();
+        directArena.numThreadCaches.decrementAndGet();
+    }
+
+    private static <T> void freeCaches(PoolArena<T> arena, MemoryCache<T>[] caches) {
+        for (int sizeClass = 0; sizeClass < caches.length; sizeClass++) {
+            T memory;
+            while ((memory = caches[sizeClass].poll()) != null) {
+                arena.free(sizeClass, memory);
+            }
+        }
+    }
+
+    private static <T> T allocate(PoolArena<T> arena, MemoryCache<T>[] caches, MpscRingQueue<T> remoteFrees,
+                                  Consumer<T> returner, int sizeClass) {
+        if (sizeClass < caches.length) {
+            T memory = caches[sizeClass].poll();
+            if (memory == null && remoteFrees.drain(returner) > 0) {
+                memory = caches[sizeClass].poll();
+            }
+            if (memory != null) {
+                ByteBufMetrics.recordAllocation(arena.direct, sizeClass, ByteBufMetrics.Source.THREAD_CACHE);
+                return memory;
+            }
+        }
+        return arena.allocate(sizeClass);
+    }
+
+    private static <T> void free(PoolArena<T> arena, MemoryCache<T>[] caches, int sizeClass, T memory) {
+        if (sizeClass < caches.length && caches[sizeClass].offer(memory)) {
+            return;
+        }
+        arena.free(sizeClass, memory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MemoryCache<T>[] newCaches(int numCachedSizeClasses, int maxEntries) {
+        MemoryCache<T>[] caches = (MemoryCache<T>[]) new MemoryCache<?>[numCachedSizeClasses];
+        for (int i = 0; i < numCachedSizeClasses; i++) {
+            caches[i] = new MemoryCache<>(maxEntries);
+        }
+        return caches;
+    }
+
+    private static final class MemoryCache<T> {
+        private final Object[] entries;
+        private int size;
+
+        MemoryCache(int maxEntries) {
+            this.entries = new Object[maxEntries];
+        }
+
+        @SuppressWarnings("unchecked")
+        T poll() {
+            if (size == 0) {
+                return null;
+            }
+            T memory = (T) entries[--size];
+            entries[size] = null;
+            return memory;
+        }
+
+        boolean offer(T memory) {
+            if (size == entries.length) {
+                return false;
+            }
+            entries[size++] = memory;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        void clear(PoolArena<T> arena) {
+            while (size > 0) {
+                arena.destroyMemory((T) entries[--size]);
+                entries[size] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package cn.langya;
+
+/**
+ * 由 {@link ByteBufPool} 分配的堆内存 ByteBuf, 底层数组来自尺寸等级池
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class PooledByteBuf extends UnpooledByteBuf {
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * 当前底层数组是从哪个线程缓存分配的, 释放时优先还给它
+     */
+    private PoolThreadCache owner;
+    /**
+     * 对外的容量, 底层数组按尺寸等级取整, 可能比它长
+     */
+    private int length;
+
+    PooledByteBuf(byte[] memory, PoolThreadCache owner) {
+        super(memory);
+        this.owner = owner;
+        this.length = memory.length;
+    }
+
+    @Override
+    public int capacity() {
+        return Math.min(length, buffer.length);
+    }
+
+    @Override
+    protected void adjustCapacity(int newCapacity) {
+        // 仍落在同一尺寸等级时无需换数组, 只改对外的容量
+        if (newCapacity <= buffer.length && newCapacity <= ByteBufPool.MAX_POOLED_CAPACITY
+                && ByteBufPool.sizeOf(ByteBufPool.sizeClass(newCapacity)) == buffer.length) {
+            length = newCapacity;
+            return;
+        }
+        byte[] newBuf = ByteBufPool.allocateHeap(newCapacity);
+        int copied = Math.min(buffer.length, newCapacity);
+        System.arraycopy(buffer, 0, newBuf, 0, copied);
+        ByteBufMetrics.recordReallocation(this, buffer.length, newBuf.length, copied);
+        ByteBufPool.freeHeap(buffer, owner);
+        buffer = newBuf;
+        length = newCapacity;
+        owner = ByteBufPool.threadCache();
+    }
+
+    /**
+     * 将底层数组归还内存池, 之后任何读写都会越界
+     */
+    @Override
+    protected void deallocate() {
+        byte[] memory = buffer;
+        buffer = EMPTY;
+        clear();
+        if (memory != EMPTY) {
+            ByteBufMetrics.recordRelease(false);
+            ByteBufPool.freeHeap(memory, owner);
+        }
+    }
+}
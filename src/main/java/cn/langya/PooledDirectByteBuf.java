@@ -0,0 +1,61 @@
+package cn.langya;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 由 {@link ByteBufPool} 分配的堆外 ByteBuf, 底层 direct ByteBuffer 来自尺寸等级池
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class PooledDirectByteBuf extends DirectByteBuf {
+    private PoolThreadCache owner;
+    /**
+     * 对外的容量, 底层内存按尺寸等级取整, 可能比它大
+     */
+    private int length;
+
+    PooledDirectByteBuf(ByteBuffer memory, PoolThreadCache owner) {
+        super(memory);
+        this.owner = owner;
+        this.length = memory.capacity();
+    }
+
+    @Override
+    public int capacity() {
+        return Math.min(length, buffer.capacity());
+    }
+
+    @Override
+    protected void adjustCapacity(int newCapacity) {
+        // 仍落在同一尺寸等级时无需换内存, 只改对外的容量
+        int capacity = buffer.capacity();
+        if (newCapacity <= capacity && newCapacity <= ByteBufPool.MAX_POOLED_CAPACITY
+                && ByteBufPool.sizeOf(ByteBufPool.sizeClass(newCapacity)) == capacity) {
+            length = newCapacity;
+            return;
+        }
+        // 旧内存在 super.adjustCapacity 中按原来的 owner 释放
+        super.adjustCapacity(newCapacity);
+        length = newCapacity;
+        owner = ByteBufPool.threadCache();
+    }
+
+    @Override
+    protected void deallocate() {
+        if (buffer.capacity() != 0) {
+            ByteBufMetrics.recordRelease(true);
+        }
+        super.deallocate();
+    }
+
+    @Override
+    protected ByteBuffer allocateDirect(int capacity) {
+        return ByteBufPool.allocateDirect(capacity);
+    }
+
+    @Override
+    protected void freeDirect(ByteBuffer buffer) {
+        ByteBufPool.freeDirect(buffer, owner);
+    }
+}
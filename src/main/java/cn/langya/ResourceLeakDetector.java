@@ -0,0 +1,164 @@
+package cn.langya;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 基于虚引用的抽样泄漏检测, 池化 ByteBuf 在 release 前被 GC 时输出其分配位置
+ *
+ * 可通过系统属性调整:
+ * lbytebuf.leakDetection.level             DISABLED / SIMPLE / ADVANCED / PARANOID, 默认 SIMPLE
+ * lbytebuf.leakDetection.samplingInterval  SIMPLE / ADVANCED 下每隔多少次分配抽样一次, 默认 128
+ * lbytebuf.leakDetection.maxRecords        ADVANCED / PARANOID 下每个 ByteBuf 保留的访问记录数, 默认 4
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public final class ResourceLeakDetector {
+    public enum DetectionLevel {
+        /** 不检测 */
+        DISABLED,
+        /** 抽样检测, 只记录分配位置 */
+        SIMPLE,
+        /** 抽样检测, 额外记录最近的 retain / release / touch 位置 */
+        ADVANCED,
+        /** 检测每一个 ByteBuf, 记录同 ADVANCED */
+        PARANOID
+    }
+
+    private static final Logger logger = Logger.getLogger(ResourceLeakDetector.class.getName());
+    private static final int SAMPLING_INTERVAL = Integer.getInteger("lbytebuf.leakDetection.samplingInterval", 128);
+    private static final int MAX_RECORDS = Integer.getInteger("lbytebuf.leakDetection.maxRecords", 4);
+
+    private static final Set<LeakTracker> allLeaks = ConcurrentHashMap.newKeySet();
+    private static final ReferenceQueue<Object> refQueue = new ReferenceQueue<>();
+    private static volatile DetectionLevel level =
+            DetectionLevel.valueOf(System.getProperty("lbytebuf.leakDetection.level", DetectionLevel.SIMPLE.name()).toUpperCase());
+
+    private ResourceLeakDetector() {
+    }
+
+    public static DetectionLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(DetectionLevel level) {
+        if (level == null) {
+            throw new NullPointerException("level");
+        }
+        ResourceLeakDetector.level = level;
+    }
+
+    /**
+     * 按当前检测级别决定是否跟踪 obj, 不跟踪时返回 null
+     */
+    static LeakTracker track(Object obj) {
+        DetectionLevel level = ResourceLeakDetector.level;
+        if (level == DetectionLevel.DISABLED) {
+            return null;
+        }
+        if (level != DetectionLevel.PARANOID && ThreadLocalRandom.current().nextInt(SAMPLING_INTERVAL) != 0) {
+            return null;
+        }
+        reportLeaks();
+        return new LeakTracker(obj, level.ordinal() >= DetectionLevel.ADVANCED.ordinal());
+    }
+
+    /**
+     * 处理已被 GC 但未关闭的跟踪记录
+     */
+    static void reportLeaks() {
+        for (;;) {
+            LeakTracker tracker = (LeakTracker) refQueue.poll();
+            if (tracker == null) {
+                break;
+            }
+            if (allLeaks.remove(tracker) && logger.isLoggable(Level.SEVERE)) {
+                logger.severe("LEAK: ByteBuf.release() was not called before it's garbage-collected." + tracker);
+            }
+        }
+    }
+
+    static final class LeakTracker extends PhantomReference<Object> {
+        private final Record creation;
+        private final ArrayDeque<Record> records;
+        private final int trackedHash;
+
+        LeakTracker(Object referent, boolean recordAccess) {
+            super(referent, refQueue);
+            this.creation = new Record(null);
+            this.records = recordAccess ? new ArrayDeque<>(MAX_RECORDS) : null;
+            this.trackedHash = System.identityHashCode(referent);
+            allLeaks.add(this);
+        }
+
+        void record(Object hint) {
+            if (records == null) {
+                return;
+            }
+            synchronized (records) {
+                if (records.size() == MAX_RECORDS) {
+                    records.pollFirst();
+                }
+                records.offerLast(new Record(hint));
+            }
+        }
+
+        boolean close(Object trackedObject) {
+            assert trackedHash == System.identityHashCode(trackedObject);
+            clear();
+            return allLeaks.remove(this);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            if (records != null) {
+                synchronized (records) {
+                    int i = records.size();
+                    for (Record record : records) {
+                        sb.append(System.lineSeparator()).append('#').append(i--).append(':').append(record);
+                    }
+                }
+            }
+            sb.append(System.lineSeparator()).append("Created at:").append(creation);
+            return sb.toString();
+        }
+    }
+
+    private static final class Record extends Throwable {
+        private static final long serialVersionUID = 6065153674892850720L;
+
+        private final String hint;
+
+        Record(Object hint) {
+            super(null, null, false, true);
+            this.hint = hint == null ? null : hint.toString();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            if (hint != null) {
+                sb.append(System.lineSeparator()).append("\tHint: ").append(hint);
+            }
+            StackTraceElement[] trace = getStackTrace();
+            // 跳过检测器和 ByteBuf 自身的栈帧
+            for (StackTraceElement element : trace) {
+                String className = element.getClassName();
+                if (className.startsWith(ResourceLeakDetector.class.getName())
+                        || className.equals(AbstractByteBuf.class.getName())) {
+                    continue;
+                }
+                sb.append(System.lineSeparator()).append('\t').append(element);
+            }
+            return sb.toString();
+        }
+    }
+}
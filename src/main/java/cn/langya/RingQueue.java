@@ -0,0 +1,95 @@
+package cn.langya;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 基于定长环形数组的无锁队列, 用于线程间传递 ByteBuf 或内存块, 入队出队都不分配节点
+ * 生产者序号与消费者序号放在同一个 long 数组中相隔 128 字节的位置, 两端各自写自己的缓存行, 避免伪共享
+ * 元素不能为 null; 队列满时 offer 返回 false, 空时 poll 返回 null
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public abstract class RingQueue<E> {
+    // 16 个 long 为 128 字节, 同时避开相邻缓存行预取
+    private static final int PAD = 16;
+    static final int PRODUCER_INDEX = PAD;
+    static final int PRODUCER_LIMIT = PAD + 1;
+    static final int CONSUMER_INDEX = PAD * 2;
+    static final int CONSUMER_LIMIT = PAD * 2 + 1;
+
+    final AtomicReferenceArray<E> buffer;
+    final AtomicLongArray sequences = new AtomicLongArray(PAD * 3);
+    final int mask;
+
+    RingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity + " (expected: > 0)");
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity: " + capacity + " (expected: <= 2^30)");
+        }
+        int size = Math.max(2, Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1);
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        sequences.lazySet(PRODUCER_LIMIT, size);
+    }
+
+    /**
+     * 入队, 队列已满时返回 false
+     */
+    public abstract boolean offer(E e);
+
+    /**
+     * 出队, 队列为空时返回 null, 只能由唯一的消费者线程调用
+     */
+    public abstract E poll();
+
+    /**
+     * 最多取出 limit 个元素交给 consumer, 消费者序号在整批结束后只发布一次, 返回取出的个数
+     * 只能由唯一的消费者线程调用
+     */
+    public abstract int drain(Consumer<? super E> consumer, int limit);
+
+    public int drain(Consumer<? super E> consumer) {
+        return drain(consumer, capacity());
+    }
+
+    /**
+     * 实际容量, 向上取整到 2 的幂
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 当前元素个数, 并发读写时只是近似值
+     */
+    public int size() {
+        long consumerIndex = sequences.get(CONSUMER_INDEX);
+        while (true) {
+            long producerIndex = sequences.get(PRODUCER_INDEX);
+            long after = sequences.get(CONSUMER_INDEX);
+            if (consumerIndex == after) {
+                return (int) Math.max(0, Math.min(producerIndex - after, capacity()));
+            }
+            consumerIndex = after;
+        }
+    }
+
+    public boolean isEmpty() {
+        return sequences.get(CONSUMER_INDEX) >= sequences.get(PRODUCER_INDEX);
+    }
+
+    final int offset(long index) {
+        return (int) index & mask;
+    }
+
+    static void checkNotNull(Object e) {
+        if (e == null) {
+            throw new NullPointerException("e");
+        }
+    }
+}
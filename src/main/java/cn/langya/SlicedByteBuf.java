@@ -1,61 +1,242 @@
 package cn.langya;
 
+import java.nio.ByteBuffer;
+
 /**
+ * 父 ByteBuf 中 [offset, offset + length) 区域的视图, 共享内存和引用计数, 读写指针独立
+ *
  * @author LangYa466
  * @date 2025/5/19
  */
-public class SlicedByteBuf extends UnpooledByteBuf {
-    public final UnpooledByteBuf parent;
+public class SlicedByteBuf extends AbstractByteBuf {
+    public final AbstractByteBuf parent;
     public final int offset;
     public final int length;
 
-    public SlicedByteBuf(UnpooledByteBuf parent, int index, int length) {
-        super(0); // 不实际分配内存
-        this.parent = parent;
-        this.offset = index;
+    public SlicedByteBuf(AbstractByteBuf parent, int index, int length) {
+        // 切片的切片直接指向最底层的 ByteBuf, 访问时只多一次偏移
+        if (parent instanceof SlicedByteBuf) {
+            SlicedByteBuf slice = (SlicedByteBuf) parent;
+            this.parent = slice.parent;
+            this.offset = slice.offset + index;
+        } else if (parent instanceof DuplicatedByteBuf) {
+            this.parent = ((DuplicatedByteBuf) parent).parent;
+            this.offset = index;
+        } else {
+            this.parent = parent;
+            this.offset = index;
+        }
         this.length = length;
         this.writerIndex = length;
     }
 
     @Override
-    protected void ensureWritable(int minWritableBytes) {
-        if (writerIndex + minWritableBytes > length) {
-            throw new IndexOutOfBoundsException("Required capacity " + (writerIndex + minWritableBytes) +
-                    " is greater than slice length " + length);
-        }
-        parent.ensureWritable(minWritableBytes);
+    protected void adjustCapacity(int newCapacity) {
+        throw new IndexOutOfBoundsException("Required capacity " + newCapacity +
+                " is greater than slice length " + length);
+    }
+
+    /**
+     * 父 ByteBuf 缩容或释放后, 切片可访问的范围随之收缩
+     */
+    @Override
+    public int capacity() {
+        return Math.max(0, Math.min(length, parent.capacity() - offset));
+    }
+
+    @Override
+    public boolean isDirect() {
+        return parent.isDirect();
+    }
+
+    @Override
+    public boolean hasArray() {
+        return parent.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return parent.array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        return parent.arrayOffset() + offset;
+    }
+
+    @Override
+    protected byte _getByte(int index) {
+        return parent._getByte(offset + index);
+    }
+
+    @Override
+    protected void _setByte(int index, byte value) {
+        parent._setByte(offset + index, value);
+    }
+
+    @Override
+    protected short _getShort(int index) {
+        return parent._getShort(offset + index);
+    }
+
+    @Override
+    protected void _setShort(int index, short value) {
+        parent._setShort(offset + index, value);
+    }
+
+    @Override
+    protected int _getInt(int index) {
+        return parent._getInt(offset + index);
+    }
+
+    @Override
+    protected void _setInt(int index, int value) {
+        parent._setInt(offset + index, value);
+    }
+
+    @Override
+    protected long _getLong(int index) {
+        return parent._getLong(offset + index);
+    }
+
+    @Override
+    protected void _setLong(int index, long value) {
+        parent._setLong(offset + index, value);
+    }
+
+    @Override
+    protected short _getShortLE(int index) {
+        return parent._getShortLE(offset + index);
+    }
+
+    @Override
+    protected void _setShortLE(int index, short value) {
+        parent._setShortLE(offset + index, value);
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        return parent._getIntLE(offset + index);
     }
 
     @Override
-    public byte getByte(int index) {
-        checkIndex(index);
-        return parent.getByte(offset + index);
+    protected void _setIntLE(int index, int value) {
+        parent._setIntLE(offset + index, value);
     }
 
     @Override
-    public ByteBuf setByte(int index, byte value) {
-        checkIndex(index);
-        parent.setByte(offset + index, value);
+    protected long _getLongLE(int index) {
+        return parent._getLongLE(offset + index);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        parent._setLongLE(offset + index, value);
+    }
+
+    // 查找与遍历交给父 ByteBuf, 组合 ByteBuf 作为父级时仍按组件分段进行
+    @Override
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        int found = parent.firstIndexOf(offset + fromIndex, offset + toIndex, value);
+        return found < 0 ? -1 : found - offset;
+    }
+
+    @Override
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        int found = parent.lastIndexOf(offset + fromIndex, offset + toIndex, value);
+        return found < 0 ? -1 : found - offset;
+    }
+
+    @Override
+    public int forEachByte(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        int found = parent.forEachByte(offset + index, length, processor);
+        return found < 0 ? -1 : found - offset;
+    }
+
+    @Override
+    public int forEachByteDesc(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        int found = parent.forEachByteDesc(offset + index, length, processor);
+        return found < 0 ? -1 : found - offset;
+    }
+
+    @Override
+    protected boolean _setRaw(int index, Object src, long srcOffset, int length) {
+        return parent._setRaw(offset + index, src, srcOffset, length);
+    }
+
+    @Override
+    protected boolean _getRaw(int index, Object dst, long dstOffset, int length) {
+        return parent._getRaw(offset + index, dst, dstOffset, length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        parent.getBytes(offset + index, dst, dstIndex, length);
         return this;
     }
 
-    private void checkIndex(int index) {
-        if (index < 0 || index >= length) {
-            throw new IndexOutOfBoundsException();
-        }
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        parent.setBytes(offset + index, src, srcIndex, length);
+        return this;
     }
 
+    /**
+     * 按本 ByteBuf 自己的可读区域计算, 父 ByteBuf 的读写指针与此无关
+     */
     @Override
-    public ByteBuf slice(int index, int length) {
-        checkIndex(index);
-        if (index + length > this.length) {
-            throw new IndexOutOfBoundsException();
-        }
-        return new SlicedByteBuf(parent, offset + index, length);
+    public int nioBufferCount() {
+        return parent.hasArray() || parent instanceof DirectByteBuf ? 1 : nioBuffers().length;
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        return parent.nioBuffer(offset + index, length);
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        checkIndex(index, length);
+        return parent.nioBuffers(offset + index, length);
     }
 
     @Override
     public ByteBuf duplicate() {
-        return new SlicedByteBuf(parent, offset, length);
+        SlicedByteBuf duplicate = new SlicedByteBuf(parent, offset, length);
+        duplicate.readerIndex = readerIndex;
+        duplicate.writerIndex = writerIndex;
+        return duplicate;
+    }
+
+    @Override
+    public int refCnt() {
+        return parent.refCnt();
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        parent.retain(increment);
+        return this;
+    }
+
+    @Override
+    public ByteBuf touch(Object hint) {
+        parent.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return parent.release(decrement);
+    }
+
+    @Override
+    protected void deallocate() {
+        // 切片不持有内存, 引用计数全部委托给父 ByteBuf
     }
-}
\ No newline at end of file
+}
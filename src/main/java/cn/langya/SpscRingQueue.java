@@ -0,0 +1,73 @@
+package cn.langya;
+
+import java.util.function.Consumer;
+
+/**
+ * 单生产者单消费者的环形队列, 两端都不需要 CAS
+ * 生产者缓存最近读到的消费者序号, 消费者缓存最近读到的生产者序号, 只有缓存用尽时才读对方的缓存行
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class SpscRingQueue<E> extends RingQueue<E> {
+    public SpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        long index = sequences.get(PRODUCER_INDEX);
+        if (index >= sequences.get(PRODUCER_LIMIT)) {
+            long limit = sequences.get(CONSUMER_INDEX) + capacity();
+            if (index >= limit) {
+                return false;
+            }
+            sequences.lazySet(PRODUCER_LIMIT, limit);
+        }
+        buffer.lazySet(offset(index), e);
+        // 有序写保证消费者看到新序号时元素已经写入
+        sequences.lazySet(PRODUCER_INDEX, index + 1);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index = sequences.get(CONSUMER_INDEX);
+        if (index >= sequences.get(CONSUMER_LIMIT)) {
+            long limit = sequences.get(PRODUCER_INDEX);
+            if (index >= limit) {
+                return null;
+            }
+            sequences.lazySet(CONSUMER_LIMIT, limit);
+        }
+        int offset = offset(index);
+        E e = buffer.get(offset);
+        buffer.lazySet(offset, null);
+        sequences.lazySet(CONSUMER_INDEX, index + 1);
+        return e;
+    }
+
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long index = sequences.get(CONSUMER_INDEX);
+        long available = sequences.get(PRODUCER_INDEX) - index;
+        int count = (int) Math.min(available, limit);
+        int i = 0;
+        try {
+            while (i < count) {
+                int offset = offset(index + i);
+                E e = buffer.get(offset);
+                buffer.lazySet(offset, null);
+                i++;
+                consumer.accept(e);
+            }
+        } finally {
+            // consumer 抛出异常时已取出的元素同样视为消费
+            if (i > 0) {
+                sequences.lazySet(CONSUMER_INDEX, index + i);
+            }
+        }
+        return count;
+    }
+}
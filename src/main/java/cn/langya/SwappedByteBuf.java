@@ -0,0 +1,906 @@
+package cn.langya;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * 小端序视图, 所有基本类型读写换成另一种字节序后委托给原 ByteBuf
+ * 与原 ByteBuf 共享内存、读写指针和引用计数
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class SwappedByteBuf implements ByteBuf {
+    private final ByteBuf buf;
+
+    public SwappedByteBuf(ByteBuf buf) {
+        if (buf.order() != ByteOrder.BIG_ENDIAN) {
+            throw new IllegalArgumentException("buf must be big-endian");
+        }
+        this.buf = buf;
+    }
+
+    /**
+     * 被包装的大端序 ByteBuf
+     */
+    public ByteBuf unwrap() {
+        return buf;
+    }
+
+    @Override
+    public int readerIndex() {
+        return buf.readerIndex();
+    }
+
+    @Override
+    public int writerIndex() {
+        return buf.writerIndex();
+    }
+
+    @Override
+    public ByteBuf readerIndex(int readerIndex) {
+        buf.readerIndex(readerIndex);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writerIndex(int writerIndex) {
+        buf.writerIndex(writerIndex);
+        return this;
+    }
+
+    @Override
+    public int readableBytes() {
+        return buf.readableBytes();
+    }
+
+    @Override
+    public int writableBytes() {
+        return buf.writableBytes();
+    }
+
+    @Override
+    public int capacity() {
+        return buf.capacity();
+    }
+
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        buf.capacity(newCapacity);
+        return this;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return buf.maxCapacity();
+    }
+
+    @Override
+    public ByteBuf maxCapacity(int maxCapacity) {
+        buf.maxCapacity(maxCapacity);
+        return this;
+    }
+
+    @Override
+    public int maxWritableBytes() {
+        return buf.maxWritableBytes();
+    }
+
+    @Override
+    public ByteBuf ensureWritable(int minWritableBytes) {
+        buf.ensureWritable(minWritableBytes);
+        return this;
+    }
+
+    @Override
+    public ByteBuf growthPolicy(GrowthPolicy growthPolicy) {
+        buf.growthPolicy(growthPolicy);
+        return this;
+    }
+
+    @Override
+    public ByteBuf discardReadBytes() {
+        buf.discardReadBytes();
+        return this;
+    }
+
+    @Override
+    public ByteBuf discardSomeReadBytes() {
+        buf.discardSomeReadBytes();
+        return this;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return buf.isDirect();
+    }
+
+    @Override
+    public boolean hasArray() {
+        return buf.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return buf.array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        return buf.arrayOffset();
+    }
+
+    @Override
+    public byte readByte() {
+        return buf.readByte();
+    }
+
+    @Override
+    public ByteBuf writeByte(byte b) {
+        buf.writeByte(b);
+        return this;
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return buf.getByte(index);
+    }
+
+    @Override
+    public ByteBuf setByte(int index, byte b) {
+        buf.setByte(index, b);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeBytes(byte[] src) {
+        buf.writeBytes(src);
+        return this;
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        return buf.readBytes(length);
+    }
+
+    @Override
+    public ByteBuf writeBytes(byte[] src, int srcIndex, int length) {
+        buf.writeBytes(src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf readBytes(byte[] dst, int dstIndex, int length) {
+        buf.readBytes(dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        buf.getBytes(index, dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        buf.setBytes(index, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public int writeBytes(ReadableByteChannel in, int length) throws IOException {
+        return buf.writeBytes(in, length);
+    }
+
+    @Override
+    public int writeBytes(FileChannel in, long position, int length) throws IOException {
+        return buf.writeBytes(in, position, length);
+    }
+
+    @Override
+    public int readBytes(WritableByteChannel out, int length) throws IOException {
+        return buf.readBytes(out, length);
+    }
+
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        return buf.readBytes(out, position, length);
+    }
+
+    @Override
+    public int getBytes(int index, WritableByteChannel out, int length) throws IOException {
+        return buf.getBytes(index, out, length);
+    }
+
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        return buf.getBytes(index, out, position, length);
+    }
+
+    @Override
+    public int setBytes(int index, ReadableByteChannel in, int length) throws IOException {
+        return buf.setBytes(index, in, length);
+    }
+
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        return buf.setBytes(index, in, position, length);
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return buf.nioBufferCount();
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return buf.nioBuffer();
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        return buf.nioBuffer(index, length);
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers() {
+        return buf.nioBuffers();
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        return buf.nioBuffers(index, length);
+    }
+
+    @Override
+    public int indexOf(int fromIndex, int toIndex, byte value) {
+        return buf.indexOf(fromIndex, toIndex, value);
+    }
+
+    @Override
+    public int bytesBefore(byte value) {
+        return buf.bytesBefore(value);
+    }
+
+    @Override
+    public int bytesBefore(int length, byte value) {
+        return buf.bytesBefore(length, value);
+    }
+
+    @Override
+    public int bytesBefore(int index, int length, byte value) {
+        return buf.bytesBefore(index, length, value);
+    }
+
+    @Override
+    public int forEachByte(ByteProcessor processor) {
+        return buf.forEachByte(processor);
+    }
+
+    @Override
+    public int forEachByte(int index, int length, ByteProcessor processor) {
+        return buf.forEachByte(index, length, processor);
+    }
+
+    @Override
+    public int forEachByteDesc(ByteProcessor processor) {
+        return buf.forEachByteDesc(processor);
+    }
+
+    @Override
+    public int forEachByteDesc(int index, int length, ByteProcessor processor) {
+        return buf.forEachByteDesc(index, length, processor);
+    }
+
+    // 整块读写交给 AbstractByteBuf 按小端序处理, 其他实现逐个元素读写
+    @Override
+    public ByteBuf writeShorts(short[] src, int srcIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).writeShorts(src, srcIndex, length, true);
+        } else {
+            for (int i = srcIndex; i < srcIndex + length; i++) {
+                buf.writeShortLE(src[i]);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf readShorts(short[] dst, int dstIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).readShorts(dst, dstIndex, length, true);
+        } else {
+            for (int i = dstIndex; i < dstIndex + length; i++) {
+                dst[i] = buf.readShortLE();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeChars(char[] src, int srcIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).writeChars(src, srcIndex, length, true);
+        } else {
+            for (int i = srcIndex; i < srcIndex + length; i++) {
+                buf.writeShortLE((short) src[i]);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf readChars(char[] dst, int dstIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).readChars(dst, dstIndex, length, true);
+        } else {
+            for (int i = dstIndex; i < dstIndex + length; i++) {
+                dst[i] = (char) buf.readShortLE();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeInts(int[] src, int srcIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).writeInts(src, srcIndex, length, true);
+        } else {
+            for (int i = srcIndex; i < srcIndex + length; i++) {
+                buf.writeIntLE(src[i]);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf readInts(int[] dst, int dstIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).readInts(dst, dstIndex, length, true);
+        } else {
+            for (int i = dstIndex; i < dstIndex + length; i++) {
+                dst[i] = buf.readIntLE();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongs(long[] src, int srcIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).writeLongs(src, srcIndex, length, true);
+        } else {
+            for (int i = srcIndex; i < srcIndex + length; i++) {
+                buf.writeLongLE(src[i]);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf readLongs(long[] dst, int dstIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).readLongs(dst, dstIndex, length, true);
+        } else {
+            for (int i = dstIndex; i < dstIndex + length; i++) {
+                dst[i] = buf.readLongLE();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeFloats(float[] src, int srcIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).writeFloats(src, srcIndex, length, true);
+        } else {
+            for (int i = srcIndex; i < srcIndex + length; i++) {
+                buf.writeFloatLE(src[i]);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf readFloats(float[] dst, int dstIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).readFloats(dst, dstIndex, length, true);
+        } else {
+            for (int i = dstIndex; i < dstIndex + length; i++) {
+                dst[i] = buf.readFloatLE();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeDoubles(double[] src, int srcIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).writeDoubles(src, srcIndex, length, true);
+        } else {
+            for (int i = srcIndex; i < srcIndex + length; i++) {
+                buf.writeDoubleLE(src[i]);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf readDoubles(double[] dst, int dstIndex, int length) {
+        if (buf instanceof AbstractByteBuf) {
+            ((AbstractByteBuf) buf).readDoubles(dst, dstIndex, length, true);
+        } else {
+            for (int i = dstIndex; i < dstIndex + length; i++) {
+                dst[i] = buf.readDoubleLE();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public IntBuffer asIntBuffer(int index, int count) {
+        return buf.nioBuffer(index, AbstractByteBuf.bulkBytes(count, 2)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    @Override
+    public LongBuffer asLongBuffer(int index, int count) {
+        return buf.nioBuffer(index, AbstractByteBuf.bulkBytes(count, 3)).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    @Override
+    public FloatBuffer asFloatBuffer(int index, int count) {
+        return buf.nioBuffer(index, AbstractByteBuf.bulkBytes(count, 2)).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    @Override
+    public DoubleBuffer asDoubleBuffer(int index, int count) {
+        return buf.nioBuffer(index, AbstractByteBuf.bulkBytes(count, 3)).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    @Override
+    public ByteBuf writeShort(short value) {
+        buf.writeShortLE(value);
+        return this;
+    }
+
+    @Override
+    public short readShort() {
+        return buf.readShortLE();
+    }
+
+    @Override
+    public short getShort(int index) {
+        return buf.getShortLE(index);
+    }
+
+    @Override
+    public ByteBuf setShort(int index, short value) {
+        buf.setShortLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeShortLE(short value) {
+        buf.writeShort(value);
+        return this;
+    }
+
+    @Override
+    public short readShortLE() {
+        return buf.readShort();
+    }
+
+    @Override
+    public short getShortLE(int index) {
+        return buf.getShort(index);
+    }
+
+    @Override
+    public ByteBuf setShortLE(int index, short value) {
+        buf.setShort(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeInt(int value) {
+        buf.writeIntLE(value);
+        return this;
+    }
+
+    @Override
+    public int readInt() {
+        return buf.readIntLE();
+    }
+
+    @Override
+    public int getInt(int index) {
+        return buf.getIntLE(index);
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        buf.setIntLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        buf.writeInt(value);
+        return this;
+    }
+
+    @Override
+    public int readIntLE() {
+        return buf.readInt();
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        return buf.getInt(index);
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        buf.setInt(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLong(long value) {
+        buf.writeLongLE(value);
+        return this;
+    }
+
+    @Override
+    public long readLong() {
+        return buf.readLongLE();
+    }
+
+    @Override
+    public long getLong(int index) {
+        return buf.getLongLE(index);
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        buf.setLongLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        buf.writeLong(value);
+        return this;
+    }
+
+    @Override
+    public long readLongLE() {
+        return buf.readLong();
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        return buf.getLong(index);
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        buf.setLong(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeFloat(float value) {
+        buf.writeFloatLE(value);
+        return this;
+    }
+
+    @Override
+    public float readFloat() {
+        return buf.readFloatLE();
+    }
+
+    @Override
+    public float getFloat(int index) {
+        return buf.getFloatLE(index);
+    }
+
+    @Override
+    public ByteBuf setFloat(int index, float value) {
+        buf.setFloatLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeFloatLE(float value) {
+        buf.writeFloat(value);
+        return this;
+    }
+
+    @Override
+    public float readFloatLE() {
+        return buf.readFloat();
+    }
+
+    @Override
+    public float getFloatLE(int index) {
+        return buf.getFloat(index);
+    }
+
+    @Override
+    public ByteBuf setFloatLE(int index, float value) {
+        buf.setFloat(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeDouble(double value) {
+        buf.writeDoubleLE(value);
+        return this;
+    }
+
+    @Override
+    public double readDouble() {
+        return buf.readDoubleLE();
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return buf.getDoubleLE(index);
+    }
+
+    @Override
+    public ByteBuf setDouble(int index, double value) {
+        buf.setDoubleLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeDoubleLE(double value) {
+        buf.writeDouble(value);
+        return this;
+    }
+
+    @Override
+    public double readDoubleLE() {
+        return buf.readDouble();
+    }
+
+    @Override
+    public double getDoubleLE(int index) {
+        return buf.getDouble(index);
+    }
+
+    @Override
+    public ByteBuf setDoubleLE(int index, double value) {
+        buf.setDouble(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeChar(char value) {
+        buf.writeShortLE((short) value);
+        return this;
+    }
+
+    @Override
+    public char readChar() {
+        return (char) buf.readShortLE();
+    }
+
+    @Override
+    public char getChar(int index) {
+        return (char) buf.getShortLE(index);
+    }
+
+    @Override
+    public ByteBuf setChar(int index, char value) {
+        buf.setShortLE(index, (short) value);
+        return this;
+    }
+
+    @Override
+    public ByteOrder order() {
+        return ByteOrder.LITTLE_ENDIAN;
+    }
+
+    @Override
+    public ByteBuf order(ByteOrder endianness) {
+        if (endianness == null) {
+            throw new NullPointerException("endianness");
+        }
+        return endianness == ByteOrder.LITTLE_ENDIAN ? this : buf;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return buf.readBoolean();
+    }
+
+    @Override
+    public ByteBuf writeBoolean(boolean value) {
+        buf.writeBoolean(value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeString(String s) {
+        buf.writeString(s);
+        return this;
+    }
+
+    @Override
+    public String readString() {
+        return buf.readString();
+    }
+
+    @Override
+    public ByteBuf writeVarInt(int value) {
+        buf.writeVarInt(value);
+        return this;
+    }
+
+    @Override
+    public int readVarInt() {
+        return buf.readVarInt();
+    }
+
+    @Override
+    public ByteBuf writeVarLong(long value) {
+        buf.writeVarLong(value);
+        return this;
+    }
+
+    @Override
+    public long readVarLong() {
+        return buf.readVarLong();
+    }
+
+    @Override
+    public ByteBuf writeSignedVarInt(int value) {
+        buf.writeSignedVarInt(value);
+        return this;
+    }
+
+    @Override
+    public int readSignedVarInt() {
+        return buf.readSignedVarInt();
+    }
+
+    @Override
+    public ByteBuf writeSignedVarLong(long value) {
+        buf.writeSignedVarLong(value);
+        return this;
+    }
+
+    @Override
+    public long readSignedVarLong() {
+        return buf.readSignedVarLong();
+    }
+
+    @Override
+    public ByteBuf writeString(String s, boolean varIntLength) {
+        buf.writeString(s, varIntLength);
+        return this;
+    }
+
+    @Override
+    public String readString(boolean varIntLength) {
+        return buf.readString(varIntLength);
+    }
+
+    @Override
+    public int writeCharSequence(CharSequence seq, Charset charset) {
+        return buf.writeCharSequence(seq, charset);
+    }
+
+    @Override
+    public CharSequence readCharSequence(int length, Charset charset) {
+        return buf.readCharSequence(length, charset);
+    }
+
+    @Override
+    public ByteBuf writeObject(Serializable obj) throws IOException {
+        buf.writeObject(obj);
+        return this;
+    }
+
+    @Override
+    public <T> T readObject() throws IOException, ClassNotFoundException {
+        return buf.readObject();
+    }
+
+    @Override
+    public <T> ByteBuf writeObject(T obj, ByteBufCodec<T> codec) {
+        buf.writeObject(obj, codec);
+        return this;
+    }
+
+    @Override
+    public <T> T readObject(ByteBufCodec<T> codec) {
+        return buf.readObject(codec);
+    }
+
+    @Override
+    public ByteBuf slice(int index, int length) {
+        return buf.slice(index, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public ByteBuf slice() {
+        return buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public ByteBuf duplicate() {
+        return buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        return buf.retainedSlice(index, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public ByteBuf retainedSlice() {
+        return buf.retainedSlice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        return buf.retainedDuplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public ByteBuf copy() {
+        return buf.copy().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public ByteBuf copy(int index, int length) {
+        return buf.copy(index, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public int refCnt() {
+        return buf.refCnt();
+    }
+
+    @Override
+    public ByteBuf retain() {
+        buf.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        buf.retain(increment);
+        return this;
+    }
+
+    @Override
+    public ByteBuf touch(Object hint) {
+        buf.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buf.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buf.release(decrement);
+    }
+}
@@ -0,0 +1,15 @@
+package cn.langya;
+
+/**
+ * 帧长度超过解码器允许的最大值时抛出
+ *
+ * @author LangYa466
+ * @date 2026/10/18
+ */
+public class TooLongFrameException extends IllegalStateException {
+    private static final long serialVersionUID = 4174567402283459148L;
+
+    public TooLongFrameException(String message) {
+        super(message);
+    }
+}
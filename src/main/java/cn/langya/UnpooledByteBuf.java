@@ -1,242 +1,164 @@
 package cn.langya;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 
 /**
  * @author LangYa466
  * @date 2025/5/19
  */
-public class UnpooledByteBuf implements ByteBuf {
+public class UnpooledByteBuf extends AbstractByteBuf {
     public byte[] buffer;
-    public int readerIndex;
-    public int writerIndex;
 
     public UnpooledByteBuf(int initialCapacity) {
         this.buffer = new byte[initialCapacity];
         this.readerIndex = this.writerIndex = 0;
     }
 
-    protected void ensureWritable(int minWritableBytes) {
-        int required = writerIndex + minWritableBytes;
-        if (required > buffer.length) {
-            int newCapacity = Math.max(buffer.length << 1, required);
-            byte[] newBuf = new byte[newCapacity];
-            System.arraycopy(buffer, 0, newBuf, 0, writerIndex);
-            buffer = newBuf;
-        }
-    }
-
-    @Override
-    public int readerIndex() {
-        return readerIndex;
+    protected UnpooledByteBuf(byte[] buffer) {
+        this.buffer = buffer;
+        this.readerIndex = this.writerIndex = 0;
     }
 
     @Override
-    public int writerIndex() {
-        return writerIndex;
+    protected void adjustCapacity(int newCapacity) {
+        byte[] newBuf = new byte[newCapacity];
+        int copied = Math.min(buffer.length, newCapacity);
+        System.arraycopy(buffer, 0, newBuf, 0, copied);
+        ByteBufMetrics.recordReallocation(this, buffer.length, newCapacity, copied);
+        buffer = newBuf;
     }
 
     @Override
-    public ByteBuf readerIndex(int readerIndex) {
-        this.readerIndex = readerIndex;
-        return this;
+    public int capacity() {
+        return buffer.length;
     }
 
     @Override
-    public ByteBuf writerIndex(int writerIndex) {
-        this.writerIndex = writerIndex;
-        return this;
+    public boolean hasArray() {
+        return true;
     }
 
     @Override
-    public int readableBytes() {
-        return writerIndex - readerIndex;
+    public byte[] array() {
+        return buffer;
     }
 
     @Override
-    public int writableBytes() {
-        return buffer.length - writerIndex;
+    public int arrayOffset() {
+        return 0;
     }
 
     @Override
-    public byte readByte() {
-        if (readerIndex >= writerIndex) throw new IndexOutOfBoundsException();
-        return buffer[readerIndex++];
+    protected byte _getByte(int index) {
+        return buffer[index];
     }
 
     @Override
-    public ByteBuf writeByte(byte b) {
-        ensureWritable(1);
-        buffer[writerIndex++] = b;
-        return this;
+    protected void _setByte(int index, byte value) {
+        buffer[index] = value;
     }
 
     @Override
-    public byte getByte(int index) {
-        return buffer[index];
+    protected short _getShort(int index) {
+        return HeapByteBufUtil.getShort(buffer, index);
     }
 
     @Override
-    public ByteBuf setByte(int index, byte b) {
-        buffer[index] = b;
-        return this;
+    protected void _setShort(int index, short value) {
+        HeapByteBufUtil.setShort(buffer, index, value);
     }
 
     @Override
-    public ByteBuf writeBytes(byte[] src) {
-        ensureWritable(src.length);
-        System.arraycopy(src, 0, buffer, writerIndex, src.length);
-        writerIndex += src.length;
-        return this;
+    protected int _getInt(int index) {
+        return HeapByteBufUtil.getInt(buffer, index);
     }
 
     @Override
-    public byte[] readBytes(int length) {
-        if (readerIndex + length > writerIndex) {
-            throw new IndexOutOfBoundsException("readBytes: Not enough readable bytes. Required: " + length + ", Available: " + (writerIndex - readerIndex));
-        }
-        byte[] dst = new byte[length];
-        System.arraycopy(buffer, readerIndex, dst, 0, length);
-        readerIndex += length;
-        return dst;
+    protected void _setInt(int index, int value) {
+        HeapByteBufUtil.setInt(buffer, index, value);
     }
 
     @Override
-    public ByteBuf writeInt(int value) {
-        ensureWritable(4);
-        buffer[writerIndex++] = (byte) (value >> 24);
-        buffer[writerIndex++] = (byte) (value >> 16);
-        buffer[writerIndex++] = (byte) (value >> 8);
-        buffer[writerIndex++] = (byte) (value);
-        return this;
+    protected long _getLong(int index) {
+        return HeapByteBufUtil.getLong(buffer, index);
     }
 
     @Override
-    public int readInt() {
-        return ((buffer[readerIndex++] & 0xFF) << 24) |
-                ((buffer[readerIndex++] & 0xFF) << 16) |
-                ((buffer[readerIndex++] & 0xFF) << 8) |
-                (buffer[readerIndex++] & 0xFF);
+    protected void _setLong(int index, long value) {
+        HeapByteBufUtil.setLong(buffer, index, value);
     }
 
     @Override
-    public ByteBuf writeLong(long value) {
-        ensureWritable(8);
-        for (int i = 7; i >= 0; i--) {
-            buffer[writerIndex++] = (byte) (value >> (i * 8));
-        }
-        return this;
+    protected short _getShortLE(int index) {
+        return HeapByteBufUtil.getShortLE(buffer, index);
     }
 
     @Override
-    public long readLong() {
-        long v = 0;
-        for (int i = 7; i >= 0; i--) {
-            v |= ((long) (buffer[readerIndex++] & 0xFF)) << (i * 8);
-        }
-        return v;
+    protected void _setShortLE(int index, short value) {
+        HeapByteBufUtil.setShortLE(buffer, index, value);
     }
 
     @Override
-    public ByteBuf writeFloat(float value) {
-        return writeInt(Float.floatToIntBits(value));
+    protected int _getIntLE(int index) {
+        return HeapByteBufUtil.getIntLE(buffer, index);
     }
 
     @Override
-    public float readFloat() {
-        return Float.intBitsToFloat(readInt());
+    protected void _setIntLE(int index, int value) {
+        HeapByteBufUtil.setIntLE(buffer, index, value);
     }
 
     @Override
-    public ByteBuf writeDouble(double value) {
-        return writeLong(Double.doubleToLongBits(value));
+    protected long _getLongLE(int index) {
+        return HeapByteBufUtil.getLongLE(buffer, index);
     }
 
     @Override
-    public double readDouble() {
-        return Double.longBitsToDouble(readLong());
+    protected void _setLongLE(int index, long value) {
+        HeapByteBufUtil.setLongLE(buffer, index, value);
     }
 
     @Override
-    public ByteBuf writeChar(char value) {
-        ensureWritable(2);
-        buffer[writerIndex++] = (byte) (value >> 8);
-        buffer[writerIndex++] = (byte) (value);
-        return this;
+    protected boolean _setRaw(int index, Object src, long srcOffset, int length) {
+        PlatformDependent.copyMemory(src, srcOffset, buffer, PlatformDependent.byteArrayOffset(index), length);
+        return true;
     }
 
     @Override
-    public char readChar() {
-        return (char) (((buffer[readerIndex++] & 0xFF) << 8) | (buffer[readerIndex++] & 0xFF));
-    }
-    
-    @Override
-    public boolean readBoolean() {
-        return readByte() != 0;
-    }
-    
-    @Override
-    public ByteBuf writeBoolean(boolean value) {
-        writeByte(value ? (byte) 1 : (byte) 0);
-        return this;
+    protected boolean _getRaw(int index, Object dst, long dstOffset, int length) {
+        PlatformDependent.copyMemory(buffer, PlatformDependent.byteArrayOffset(index), dst, dstOffset, length);
+        return true;
     }
 
     @Override
-    public ByteBuf writeString(String s) {
-        byte[] data = s.getBytes(StandardCharsets.UTF_8);
-        writeInt(data.length);
-        writeBytes(data);
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(dst.length, dstIndex, length);
+        System.arraycopy(buffer, index, dst, dstIndex, length);
         return this;
     }
 
     @Override
-    public String readString() {
-        int len = readInt();
-        byte[] data = readBytes(len);
-        return new String(data, StandardCharsets.UTF_8);
-    }
-
-    @Override
-    public ByteBuf writeObject(Serializable obj) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ObjectOutputStream oos = new ObjectOutputStream(baos);
-        oos.writeObject(obj);
-        oos.flush();
-        byte[] data = baos.toByteArray();
-        writeInt(data.length);
-        writeBytes(data);
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        checkRangeBounds(src.length, srcIndex, length);
+        System.arraycopy(src, srcIndex, buffer, index, length);
         return this;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public <T> T readObject() throws IOException, ClassNotFoundException {
-        int len = readInt();
-        byte[] data = readBytes(len);
-        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data));
-        return (T) ois.readObject();
+    protected void moveBytes(int srcIndex, int length) {
+        System.arraycopy(buffer, srcIndex, buffer, 0, length);
     }
 
     @Override
-    public ByteBuf slice(int index, int length) {
-        if (index < 0 || length < 0 || index + length > buffer.length) {
-            throw new IndexOutOfBoundsException();
-        }
-        return new SlicedByteBuf(this, index, length);
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        return ByteBuffer.wrap(buffer, index, length).slice();
     }
 
     @Override
-    public ByteBuf duplicate() {
-        UnpooledByteBuf copy = new UnpooledByteBuf(buffer.length);
-        System.arraycopy(buffer, 0, copy.buffer, 0, buffer.length);
-        copy.readerIndex = readerIndex;
-        copy.writerIndex = writerIndex;
-        return copy;
-    }
-
-    public void clear() {
-        readerIndex = 0;
-        writerIndex = 0;
+    protected void deallocate() {
+        // 堆内存交给 GC 回收
     }
 }
\ No newline at end of file
@@ -1,13 +1,25 @@
 package cn.langya;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 
 /**
  * @author LangYa466
  * @date 2025/5/19
  */
 public class ByteBufTest {
-    public static void main(String[] args) throws IOException, ClassNotFoundException {
+    public static void main(String[] args) throws IOException, ClassNotFoundException, InterruptedException {
         // 测试基本读写功能
         testBasicReadWrite();
         
@@ -22,12 +34,81 @@ public class ByteBufTest {
         
         // 测试零拷贝 - duplicate
         testDuplicate();
+
+        // 测试切片与副本视图
+        testSliceViews();
         
         // 测试零拷贝 - composite
         testComposite();
 
+        // 测试组合ByteBuf跨组件编解码
+        testCompositeCodecs();
+
         // 测试清除缓冲区
         testClear();
+
+        // 测试引用计数
+        testRefCount();
+
+        // 测试泄漏检测
+        testLeakDetection();
+
+        // 测试堆外内存
+        testDirect();
+
+        // 测试绝对位置读写
+        testAbsoluteAccess();
+
+        // 测试小端序
+        testLittleEndian();
+
+        // 测试字符串编解码
+        testStrings();
+
+        // 测试 varint 编解码
+        testVarInt();
+
+        // 测试对象编解码器
+        testObjectCodec();
+
+        // 测试流适配器
+        testStreams();
+
+        // 测试 NIO 通道读写
+        testChannels();
+
+        // 测试内存映射文件
+        testMappedFile();
+
+        // 测试长度字段帧解码
+        testFrameDecoder();
+
+        // 测试容量增长与压缩
+        testCapacity();
+
+        // 测试基本类型数组整块读写
+        testBulkArrays();
+
+        // 测试查找与遍历
+        testSearch();
+
+        // 测试内存池指标
+        testMetrics();
+
+        // 测试环形队列与跨线程归还
+        testRingQueue();
+
+        // 测试并发追加
+        testConcurrentAppend();
+
+        // 测试批量写出
+        testBatchingWriter();
+
+        // 测试 flyweight 原地读写
+        testFlyweight();
+
+        // 测试压缩编解码
+        testCompression();
         
         System.out.println("所有测试通过");
     }
@@ -46,6 +127,7 @@ public class ByteBufTest {
         assert buf.readerIndex() == 2;
         
         // 重置指针进行正常测试
+        buf.writerIndex(0).readerIndex(0);
         buf.writeString("Hello")
            .writeInt(123)
            .writeLong(4567890123L)
@@ -87,6 +169,41 @@ public class ByteBufTest {
         
         ByteBuf buf2 = ByteBufPool.acquire(); // 应该获取到之前释放的buf1
         assert buf2.readableBytes() == 0; // 确保已被清理
+
+        // 容量向上取整到尺寸等级, 同一线程释放后再次获取命中线程缓存
+        UnpooledByteBuf buf3 = (UnpooledByteBuf) ByteBufPool.acquire(1000);
+        assert buf3.buffer.length == 1024;
+        byte[] memory = buf3.buffer;
+        ByteBufPool.release(buf3);
+        UnpooledByteBuf buf4 = (UnpooledByteBuf) ByteBufPool.acquire(600);
+        assert buf4.buffer == memory;
+
+        // 扩容时旧数组归还内存池
+        buf4.writeBytes(new byte[2000]);
+        assert buf4.buffer.length == 2048;
+        ByteBufPool.release(buf4);
+
+        // 超过最大池化容量的请求直接分配
+        UnpooledByteBuf huge = (UnpooledByteBuf) ByteBufPool.acquire(ByteBufPool.MAX_POOLED_CAPACITY + 1);
+        assert huge.buffer.length == ByteBufPool.MAX_POOLED_CAPACITY + 1;
+        ByteBufPool.release(huge);
+
+        // 线程结束后它的线程缓存被回收, arena 的线程计数随之减少
+        int caches = ByteBufPool.numThreadCaches();
+        Thread worker = new Thread(() -> ByteBufPool.release(ByteBufPool.acquire(100)));
+        worker.start();
+        try {
+            worker.join();
+            assert ByteBufPool.numThreadCaches() == caches + 1;
+            worker = null;
+            for (int i = 0; i < 100 && ByteBufPool.numThreadCaches() != caches; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        assert ByteBufPool.numThreadCaches() == caches;
         
         System.out.println("对象池测试通过");
     }
@@ -123,10 +240,78 @@ public class ByteBufTest {
                   .writeByte((byte)88)
                   .writeBytes(new byte[]{77, 66});
         assert duplicate.getByte(0) == (byte)99;
-        assert original.getByte(0) == 1; // 副本修改不应影响原buf
+        assert original.getByte(0) == (byte)99; // 副本与原buf共享内存
+        assert original.writerIndex() == 4; // 读写指针互相独立
+        assert duplicate.writerIndex() == 7;
+
+        // copy 才是独立的拷贝
+        ByteBuf copy = original.copy();
+        copy.setByte(0, (byte)1);
+        assert original.getByte(0) == (byte)99;
+        assert copy.readableBytes() == 4;
         
         System.out.println("副本测试通过");
     }
+
+    private static void testSliceViews() {
+        ByteBuf original = ByteBufPool.acquire(64);
+        original.writeInt(0x01020304).writeLong(42L).writeShort((short) 7);
+
+        // 切片上的宽读写直接落到原buf的内存
+        ByteBuf slice = original.slice(4, 8);
+        assert slice.readLong() == 42L;
+        slice.setLong(0, 43L);
+        assert original.getLong(4) == 43L;
+        try {
+            slice.writeByte((byte) 1);
+            assert false;
+        } catch (IndexOutOfBoundsException expected) {
+        }
+
+        // 切片的切片
+        ByteBuf nested = slice.slice(4, 4);
+        assert nested.readInt() == 43;
+        assert nested.getIntLE(0) == Integer.reverseBytes(43);
+
+        // 可读区域切片
+        original.readInt();
+        ByteBuf readable = original.slice();
+        assert readable.readableBytes() == 10;
+        assert readable.readLong() == 43L && readable.readShort() == 7;
+
+        // duplicate 写到原buf写指针之后, 原buf扩容后内容仍在
+        ByteBuf duplicate = original.duplicate();
+        duplicate.writeInt(99);
+        original.writerIndex(18);
+        original.writeBytes(new byte[256]);
+        assert original.getInt(14) == 99;
+        assert duplicate.getInt(14) == 99;
+
+        // retained 变体单独持有一个引用
+        ByteBuf retained = original.retainedSlice(0, 4);
+        assert original.refCnt() == 2;
+        assert !original.release();
+        assert retained.getInt(0) == 0x01020304;
+        assert retained.release();
+        assert original.refCnt() == 0;
+
+        // 组合ByteBuf的切片与副本
+        ByteBuf a = new UnpooledByteBuf(4);
+        ByteBuf b = new UnpooledByteBuf(4);
+        a.writeBytes(new byte[]{1, 2, 3, 4});
+        b.writeBytes(new byte[]{5, 6, 7, 8});
+        CompositeByteBuf composite = ByteBuf.compositeBuffer(a, b);
+        ByteBuf compositeSlice = composite.slice(2, 4);
+        assert compositeSlice.readInt() == 0x03040506;
+        ByteBuf compositeDuplicate = composite.retainedDuplicate();
+        compositeDuplicate.readerIndex(4);
+        assert compositeDuplicate.readInt() == 0x05060708;
+        assert composite.readerIndex() == 0;
+        assert !compositeDuplicate.release();
+        assert composite.release();
+
+        System.out.println("切片视图测试通过");
+    }
     
     private static void testComposite() {
         ByteBuf buf1 = new UnpooledByteBuf(8);
@@ -143,9 +328,90 @@ public class ByteBufTest {
             assert allBytes[i] == i + 1;
         }
         
+        // 多组件下的随机访问与跨组件整块读写
+        ByteBuf[] parts = new ByteBuf[64];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new UnpooledByteBuf(16);
+            for (int j = 0; j < i % 5 + 1; j++) { // 长度不等, 包含只有一个字节的组件
+                parts[i].writeByte((byte) 0);
+            }
+        }
+        parts[7].readerIndex(1); // 只取组件的可读区域
+        ByteBuf many = ByteBuf.compositeBuffer(parts);
+        int total = many.readableBytes();
+        for (int i = 0; i < total; i++) {
+            many.setByte(i, (byte) i);
+        }
+        for (int i = total - 1; i >= 0; i -= 3) {
+            assert many.getByte(i) == (byte) i;
+        }
+        byte[] all = many.readBytes(total);
+        for (int i = 0; i < total; i++) {
+            assert all[i] == (byte) i;
+        }
+        byte[] patch = {-1, -2, -3, -4, -5, -6, -7};
+        many.setBytes(10, patch, 1, 5);
+        byte[] read = new byte[7];
+        many.getBytes(9, read, 0, 7);
+        assert read[0] == 9 && read[1] == -2 && read[5] == -6 && read[6] == 15;
+        
         System.out.println("组合ByteBuf测试通过");
     }
 
+    private static void testCompositeCodecs() throws IOException, ClassNotFoundException {
+        // 一条消息被拆成多次网络读取, 值会跨越组件边界
+        ByteBuf flat = new UnpooledByteBuf(64);
+        flat.writeInt(0x01020304)
+            .writeLong(0x1122334455667788L)
+            .writeString("你好, composite")
+            .writeShortLE((short) 0x0A0B)
+            .writeDouble(3.5)
+            .writeObject("World");
+        byte[] data = flat.readBytes(flat.readableBytes());
+
+        CompositeByteBuf composite = new CompositeByteBuf();
+        for (int i = 0; i < data.length; i += 3) {
+            ByteBuf chunk = new UnpooledByteBuf(3);
+            chunk.writeBytes(data, i, Math.min(3, data.length - i));
+            composite.addComponent(chunk);
+        }
+        assert composite.readableBytes() == data.length;
+        assert composite.readInt() == 0x01020304;
+        assert composite.readLong() == 0x1122334455667788L;
+        assert "你好, composite".equals(composite.readString());
+        assert composite.readShortLE() == 0x0A0B;
+        assert composite.readDouble() == 3.5;
+        assert "World".equals(composite.readObject());
+        assert composite.readableBytes() == 0;
+
+        // 写入超出容量时追加新组件
+        int before = composite.numComponents();
+        composite.writeInt(42).writeLong(-7L);
+        assert composite.numComponents() == before + 1;
+        assert composite.readInt() == 42 && composite.readLong() == -7L;
+
+        // 移除组件后读写指针与后续组件前移
+        CompositeByteBuf parts = new CompositeByteBuf();
+        for (int i = 0; i < 4; i++) {
+            ByteBuf part = new UnpooledByteBuf(4);
+            part.writeInt(i);
+            parts.addComponent(part);
+        }
+        parts.readerIndex(8);
+        ByteBuf removed = parts.components.get(1);
+        parts.removeComponent(1);
+        assert removed.refCnt() == 0;
+        assert parts.numComponents() == 3 && parts.readerIndex() == 4 && parts.writerIndex() == 12;
+        assert parts.getInt(0) == 0 && parts.getInt(4) == 2 && parts.readInt() == 2;
+
+        // 合并为一块连续内存
+        parts.consolidate();
+        assert parts.numComponents() == 1;
+        assert parts.getInt(0) == 0 && parts.readInt() == 3 && parts.readableBytes() == 0;
+
+        System.out.println("组合ByteBuf编解码测试通过");
+    }
+
     private static void testClear() {
         UnpooledByteBuf buf = new UnpooledByteBuf(16);
         buf.writeBytes(new byte[]{1, 2, 3, 4});
@@ -161,4 +427,1575 @@ public class ByteBufTest {
 
         System.out.println("清除缓冲区测试通过");
     }
-}
\ No newline at end of file
+
+    private static void testRefCount() {
+        UnpooledByteBuf buf = (UnpooledByteBuf) ByteBufPool.acquire(128);
+        assert buf.refCnt() == 1;
+        buf.retain();
+        assert !buf.release(); // 还有一个引用, 内存不归还
+        assert buf.buffer.length == 128;
+
+        // 切片与父 ByteBuf 共享计数
+        buf.writeBytes(new byte[]{1, 2, 3, 4});
+        ByteBuf slice = buf.slice(0, 4);
+        slice.retain();
+        assert buf.refCnt() == 2;
+        assert !ByteBufPool.release(slice);
+        assert ByteBufPool.release(buf); // 归零, 内存回到池中
+        assert buf.buffer.length == 0;
+
+        // 重复释放必须报错
+        try {
+            buf.release();
+            assert false : "重复释放应该抛出异常";
+        } catch (IllegalReferenceCountException expected) {
+            // ignore
+        }
+        try {
+            slice.retain();
+            assert false : "已释放的 ByteBuf 不能 retain";
+        } catch (IllegalReferenceCountException expected) {
+            // ignore
+        }
+
+        System.out.println("引用计数测试通过");
+    }
+
+    private static void testLeakDetection() {
+        ResourceLeakDetector.DetectionLevel oldLevel = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.DetectionLevel.PARANOID);
+        List<String> leaks = new CopyOnWriteArrayList<>();
+        Logger logger = Logger.getLogger(ResourceLeakDetector.class.getName());
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                leaks.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        try {
+            // 正常释放不会报告
+            ByteBufPool.acquire(64).touch("released").release();
+            ByteBufPool.acquire(64).touch("leaked");
+            // 之前的测试中被抽样跟踪的 ByteBuf 也可能在这里被报告, 只检查本次泄漏的那一条
+            for (int i = 0; i < 50 && leaks.stream().noneMatch(leak -> leak.contains("leaked")); i++) {
+                System.gc();
+                ByteBufPool.acquire(64).release(); // 分配时顺带检查泄漏
+            }
+            assert leaks.stream().filter(leak -> leak.contains("leaked")).count() == 1 : "应该报告一次泄漏";
+            assert leaks.stream().noneMatch(leak -> leak.contains("released"));
+            assert leaks.stream().anyMatch(leak -> leak.contains("leaked") && leak.contains("testLeakDetection"));
+        } finally {
+            logger.removeHandler(handler);
+            logger.setUseParentHandlers(true);
+            ResourceLeakDetector.setLevel(oldLevel);
+        }
+
+        System.out.println("泄漏检测测试通过");
+    }
+
+    private static void testDirect() throws IOException, ClassNotFoundException {
+        DirectByteBuf buf = new DirectByteBuf(4);
+        assert buf.isDirect();
+        buf.writeString("Hello")
+           .writeInt(123)
+           .writeLong(4567890123L)
+           .writeDouble(6.28)
+           .writeChar('A')
+           .writeObject("World"); // 自动扩容
+        assert buf.capacity() >= buf.writerIndex();
+        assert "Hello".equals(buf.readString());
+
+        // nioBuffer 与 ByteBuf 共享内存
+        ByteBuffer nio = buf.nioBuffer();
+        assert nio.isDirect();
+        assert nio.remaining() == buf.readableBytes();
+        assert nio.getInt(0) == 123;
+
+        assert buf.readInt() == 123;
+        assert buf.readLong() == 4567890123L;
+        assert buf.readDouble() == 6.28;
+        assert buf.readChar() == 'A';
+        assert "World".equals(buf.readObject());
+        assert buf.release();
+        assert buf.capacity() == 0;
+
+        // 池化堆外内存在同一线程内复用
+        DirectByteBuf pooled = (DirectByteBuf) ByteBufPool.acquireDirect(100);
+        assert pooled.capacity() == 128;
+        ByteBuffer memory = pooled.buffer;
+        pooled.release();
+        DirectByteBuf pooled2 = (DirectByteBuf) ByteBufPool.acquireDirect(128);
+        assert pooled2.buffer == memory;
+        pooled2.release();
+
+        System.out.println("堆外内存测试通过");
+    }
+
+    private static void testAbsoluteAccess() {
+        ByteBuf[] bufs = {new UnpooledByteBuf(32), new DirectByteBuf(32)};
+        for (ByteBuf buf : bufs) {
+            // 非对齐位置的宽读写, 字节序为大端
+            buf.setInt(1, 0x01020304)
+               .setLong(5, 0x1122334455667788L)
+               .setShort(13, (short) -2)
+               .setChar(15, 'Z')
+               .setFloat(17, 1.5f)
+               .setDouble(21, -2.25);
+            assert buf.getByte(1) == 1 && buf.getByte(4) == 4;
+            assert buf.getInt(1) == 0x01020304;
+            assert buf.getLong(5) == 0x1122334455667788L;
+            assert buf.getByte(5) == 0x11;
+            assert buf.getShort(13) == -2;
+            assert buf.getChar(15) == 'Z';
+            assert buf.getFloat(17) == 1.5f;
+            assert buf.getDouble(21) == -2.25;
+            assert buf.writerIndex() == 0; // 绝对读写不移动指针
+
+            buf.writeShort((short) 0x0A0B).writeInt(-1).writeLong(Long.MIN_VALUE);
+            assert buf.readShort() == 0x0A0B;
+            assert buf.readInt() == -1;
+            assert buf.readLong() == Long.MIN_VALUE;
+
+            try {
+                buf.getLong(buf.capacity() - 7);
+                assert false : "越界读取应该抛出异常";
+            } catch (IndexOutOfBoundsException expected) {
+                // ignore
+            }
+            try {
+                buf.readInt();
+                assert false : "可读字节不足应该抛出异常";
+            } catch (IndexOutOfBoundsException expected) {
+                // ignore
+            }
+        }
+
+        // 写指针超出容量时读取也必须被拒绝
+        UnpooledByteBuf buf = new UnpooledByteBuf(8);
+        buf.writerIndex = 64;
+        try {
+            buf.readLong();
+            assert false : "写指针越界应该抛出异常";
+        } catch (IndexOutOfBoundsException expected) {
+            // ignore
+        }
+
+        System.out.println("绝对位置读写测试通过");
+    }
+
+    private static void testLittleEndian() {
+        ByteBuf[] bufs = {new UnpooledByteBuf(4), new DirectByteBuf(4)};
+        for (ByteBuf buf : bufs) {
+            buf.writeIntLE(0x01020304)
+               .writeShortLE((short) 0x0506)
+               .writeLongLE(0x1122334455667788L)
+               .writeFloatLE(1.5f)
+               .writeDoubleLE(-2.25);
+            assert buf.getByte(0) == 4 && buf.getByte(3) == 1; // 低位在前
+            assert buf.getInt(0) == 0x04030201;
+            assert buf.getShortLE(4) == 0x0506;
+            assert buf.readIntLE() == 0x01020304;
+            assert buf.readShortLE() == 0x0506;
+            assert buf.readLongLE() == 0x1122334455667788L;
+            assert buf.readFloatLE() == 1.5f;
+            assert buf.readDoubleLE() == -2.25;
+
+            // 字节序视图共享内存与指针
+            ByteBuf le = buf.order(ByteOrder.LITTLE_ENDIAN);
+            assert le.order() == ByteOrder.LITTLE_ENDIAN;
+            assert le.order(ByteOrder.BIG_ENDIAN) == buf;
+            le.writeInt(0x0A0B0C0D).writeChar('B');
+            assert buf.readIntLE() == 0x0A0B0C0D;
+            assert buf.readShortLE() == 'B';
+            assert le.readableBytes() == 0 && le.writerIndex() == buf.writerIndex();
+            le.setLong(0, 42L);
+            assert buf.getLongLE(0) == 42L && le.getLongLE(0) == Long.reverseBytes(42L);
+        }
+
+        System.out.println("小端序测试通过");
+    }
+
+    private static void testStrings() {
+        String[] samples = {"", "hello", "héllo wörld", "中文字符串", "emoji \uD83D\uDE00 end", "bad \uD800 surrogate"};
+        ByteBuf[] bufs = {new UnpooledByteBuf(4), new DirectByteBuf(4), new UnpooledByteBuf(64).slice(0, 64).writerIndex(0),
+                ByteBuf.compositeBuffer(new UnpooledByteBuf(7).writerIndex(7), new UnpooledByteBuf(25).writerIndex(25))};
+        for (ByteBuf buf : bufs) {
+            for (String sample : samples) {
+                buf.writerIndex(0).readerIndex(0);
+                // 组合ByteBuf和切片不会扩容, 写不下时跳过
+                byte[] expected = sample.getBytes(StandardCharsets.UTF_8);
+                if (buf.capacity() < 4 + expected.length && (buf instanceof CompositeByteBuf || buf instanceof SlicedByteBuf)) {
+                    continue;
+                }
+                buf.writeString(sample);
+                assert buf.readableBytes() == 4 + expected.length;
+                assert ByteBufUtil.utf8Length(sample) == expected.length;
+                for (int i = 0; i < expected.length; i++) {
+                    assert buf.getByte(4 + i) == expected[i];
+                }
+                assert buf.readString().equals(new String(expected, StandardCharsets.UTF_8));
+            }
+        }
+
+        ByteBuf buf = new UnpooledByteBuf(8);
+        assert buf.writeCharSequence("abc\u00e9", StandardCharsets.ISO_8859_1) == 4;
+        assert buf.writeCharSequence("abc\u00e9", StandardCharsets.US_ASCII) == 4;
+        assert buf.writeCharSequence("ab", StandardCharsets.UTF_16BE) == 4;
+        assert buf.readCharSequence(4, StandardCharsets.ISO_8859_1).toString().equals("abc\u00e9");
+        assert buf.readCharSequence(4, StandardCharsets.US_ASCII).toString().equals("abc?");
+        assert buf.readCharSequence(4, StandardCharsets.UTF_16BE).toString().equals("ab");
+
+        // 短字符串缓存命中时返回同一个对象
+        ByteBufUtil.StringCache cache = new ByteBufUtil.StringCache(64, 16);
+        UnpooledByteBuf cached = new UnpooledByteBuf(32);
+        cached.writeCharSequence("userId", StandardCharsets.UTF_8);
+        cached.writeCharSequence("\u00e9t\u00e9", StandardCharsets.UTF_8);
+        String first = cache.get(cached, 0, 6);
+        assert first.equals("userId");
+        assert cache.get(cached, 0, 6) == first;
+        assert cache.get(cached, 6, 5).equals("\u00e9t\u00e9");
+
+        System.out.println("字符串编解码测试通过");
+    }
+
+
+    private static void testVarInt() {
+        ByteBuf buf = new UnpooledByteBuf(4);
+        int[] ints = {0, 1, 127, 128, 300, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        long[] longs = {0L, 1L, 127L, 128L, 1L << 35, Long.MAX_VALUE, -1L, Long.MIN_VALUE};
+        for (int v : ints) {
+            buf.writeVarInt(v).writeSignedVarInt(v);
+        }
+        for (long v : longs) {
+            buf.writeVarLong(v).writeSignedVarLong(v);
+        }
+        for (int v : ints) {
+            assert buf.readVarInt() == v;
+            assert buf.readSignedVarInt() == v;
+        }
+        for (long v : longs) {
+            assert buf.readVarLong() == v;
+            assert buf.readSignedVarLong() == v;
+        }
+        assert buf.readableBytes() == 0;
+
+        // 编码与 protobuf 一致: 300 -> AC 02
+        buf.writerIndex(0).readerIndex(0);
+        buf.writeVarInt(300);
+        assert buf.readableBytes() == 2 && buf.getByte(0) == (byte) 0xAC && buf.getByte(1) == 0x02;
+        assert ByteBufUtil.varIntSize(0) == 1 && ByteBufUtil.varIntSize(-1) == 5;
+        assert ByteBufUtil.varLongSize(-1L) == 10;
+        assert ByteBufUtil.encodeZigZag32(-1) == 1 && ByteBufUtil.encodeZigZag32(1) == 2;
+
+        // protobuf 的 int32 负数按 64 位写出 10 字节, 读取时丢弃高位
+        buf.writerIndex(0).readerIndex(0);
+        buf.writeVarLong(-2L).writeVarLong(-2L);
+        assert buf.readVarInt() == -2;
+        buf.writeLong(0L);
+        assert buf.readVarInt() == -2;
+
+        // 非法 varint
+        buf.writerIndex(0).readerIndex(0);
+        buf.writeBytes(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1});
+        try {
+            buf.readVarLong();
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+
+        // 组合ByteBuf上跨组件读取
+        ByteBuf a = new UnpooledByteBuf(16);
+        a.writeVarLong(Long.MAX_VALUE).writeVarInt(1 << 30);
+        CompositeByteBuf composite = ByteBuf.compositeBuffer(a.slice(0, 3).retain(), a.slice(3, a.writerIndex() - 3).retain(), new UnpooledByteBuf(8).writerIndex(8));
+        assert composite.readVarLong() == Long.MAX_VALUE;
+        assert composite.readVarInt() == 1 << 30;
+
+        // varint 长度前缀的字符串
+        buf.writerIndex(0).readerIndex(0);
+        buf.writeString("hi", true).writeString("", true).writeString("\u4e2d\u6587", true);
+        assert buf.readableBytes() == 3 + 1 + 7;
+        assert buf.readString(true).equals("hi");
+        assert buf.readString(true).isEmpty();
+        assert buf.readString(true).equals("\u4e2d\u6587");
+
+        System.out.println("varint测试通过");
+    }
+
+
+    enum Color { RED, GREEN }
+
+    static class Base {
+        long id;
+    }
+
+    static class Point extends Base implements java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int x;
+        int y;
+        double weight;
+        boolean visible;
+        char tag;
+        String name;
+        Color color;
+        Point next;
+        transient int cached;
+        java.util.List<String> labels;
+    }
+
+    private static void testObjectCodec() throws IOException, ClassNotFoundException {
+        ByteBufCodecRegistry registry = new ByteBufCodecRegistry();
+        registry.register(32, Point.class);
+
+        Point p = new Point();
+        p.id = -5L;
+        p.x = 1;
+        p.y = -300;
+        p.weight = 0.5;
+        p.visible = true;
+        p.tag = 'Q';
+        p.name = "origin";
+        p.color = Color.GREEN;
+        p.cached = 42;
+        p.labels = new java.util.ArrayList<>(java.util.Arrays.asList("a", "b"));
+        p.next = new Point();
+        p.next.x = 7;
+
+        ByteBuf buf = new UnpooledByteBuf(16);
+        registry.writeObject(buf, p);
+        registry.writeObject(buf, null);
+        Point q = (Point) registry.readObject(buf);
+        assert q.id == -5L && q.x == 1 && q.y == -300 && q.weight == 0.5 && q.visible && q.tag == 'Q';
+        assert "origin".equals(q.name) && q.color == Color.GREEN;
+        assert q.cached == 0; // transient 字段不参与编码
+        assert q.labels.equals(p.labels); // 未注册类型退化为 Java 序列化
+        assert q.next.x == 7 && q.next.name == null && q.next.color == null && q.next.next == null;
+        assert registry.readObject(buf) == null;
+        assert buf.readableBytes() == 0;
+
+        // 直接使用 codec 时不写类 ID
+        ByteBufCodec<Point> codec = registry.codec(Point.class);
+        buf.writerIndex(0).readerIndex(0);
+        Point empty = new Point();
+        buf.writeObject(empty, codec);
+        int codecSize = buf.readableBytes();
+        assert buf.readObject(codec).name == null;
+
+        // 比 Java 序列化紧凑得多
+        buf.writerIndex(0).readerIndex(0);
+        buf.writeObject(empty);
+        assert buf.readableBytes() > 10 * codecSize;
+        assert buf.<Point>readObject().next == null;
+
+        // 内置类型通过全局注册表编码
+        buf.writerIndex(0).readerIndex(0);
+        buf.writeObject(12345).writeObject("abc").writeObject(new byte[]{1, 2});
+        assert buf.readableBytes() == (1 + 3) + (1 + 1 + 3) + (1 + 1 + 2);
+        assert buf.<Integer>readObject() == 12345;
+        assert "abc".equals(buf.readObject());
+        assert buf.<byte[]>readObject()[1] == 2;
+
+        // 重复注册和保留 ID
+        try {
+            registry.register(33, Point.class);
+            assert false;
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            registry.register(5, Base.class);
+            assert false;
+        } catch (IllegalArgumentException expected) {
+        }
+
+        // 旧版 "4 字节长度 + Java 序列化" 格式被拒绝, 而不是读成 null
+        java.io.ByteArrayOutputStream legacy = new java.io.ByteArrayOutputStream();
+        try (java.io.ObjectOutputStream oos = new java.io.ObjectOutputStream(legacy)) {
+            oos.writeObject("legacy");
+        }
+        buf.writerIndex(0).readerIndex(0);
+        buf.writeInt(legacy.size()).writeBytes(legacy.toByteArray());
+        try {
+            buf.readObject();
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+        assert buf.readerIndex() == 0;
+
+        // 循环引用直接报错, 不会栈溢出
+        Point loop = new Point();
+        loop.next = new Point();
+        loop.next.next = loop;
+        buf.writerIndex(0).readerIndex(0);
+        try {
+            registry.writeObject(buf, loop);
+            assert false;
+        } catch (IllegalArgumentException expected) {
+        }
+        loop.next.next = null;
+        buf.writerIndex(0).readerIndex(0);
+        registry.writeObject(buf, loop);
+        assert ((Point) registry.readObject(buf)).next.next == null;
+
+        System.out.println("对象编解码器测试通过");
+    }
+
+
+    private static void testStreams() throws IOException, ClassNotFoundException {
+        ByteBuf buf = new UnpooledByteBuf(8);
+        ByteBufOutputStream out = new ByteBufOutputStream(buf);
+        out.write(1);
+        out.write(new byte[]{2, 3, 4}, 1, 2);
+        assert out.writtenBytes() == 3;
+        buf.writeInt(99);
+
+        // 限定长度时不会读到后面的数据
+        ByteBufInputStream in = new ByteBufInputStream(buf, 3);
+        assert in.available() == 3;
+        in.mark(0);
+        assert in.read() == 1;
+        in.reset();
+        byte[] data = new byte[8];
+        assert in.read(data, 0, 8) == 3 && data[2] == 4;
+        assert in.read() == -1;
+        assert buf.readInt() == 99;
+
+        // Java 序列化直接写入 ByteBuf, 长度前缀回填, 读取后读指针跳过整段
+        java.util.HashMap<String, Integer> session = new java.util.HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            session.put("key" + i, i);
+        }
+        ByteBuf direct = new DirectByteBuf(16);
+        direct.writeObject(session).writeInt(7);
+        assert direct.readableBytes() == 1 + 4 + direct.getInt(1) + 4;
+        java.util.Map<String, Integer> restored = direct.readObject();
+        assert restored.equals(session);
+        assert direct.readInt() == 7;
+        direct.release();
+
+        System.out.println("流适配器测试通过");
+    }
+
+
+    private static void testChannels() throws IOException {
+        java.nio.file.Path file = java.nio.file.Files.createTempFile("bytebuf", ".bin");
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file,
+                java.nio.file.StandardOpenOption.READ, java.nio.file.StandardOpenOption.WRITE)) {
+            // 组合ByteBuf一次聚集写出所有组件
+            ByteBuf a = new UnpooledByteBuf(4).writeInt(1);
+            ByteBuf b = new DirectByteBuf(4).writeInt(2);
+            ByteBuf c = new UnpooledByteBuf(8).writeInt(3).writeInt(4);
+            c.readInt();
+            CompositeByteBuf composite = ByteBuf.compositeBuffer(a, b, c);
+            assert composite.nioBufferCount() == 3;
+            ByteBuffer[] views = composite.nioBuffers();
+            assert views.length == 3 && views[1].isDirect() && views[2].getInt(0) == 4;
+            // 只统计可读区域覆盖的组件
+            composite.readerIndex(4).writerIndex(8);
+            assert composite.nioBufferCount() == 1 && composite.nioBuffers().length == 1;
+            composite.readerIndex(2);
+            assert composite.nioBufferCount() == 2 && composite.nioBuffers().length == 2;
+            composite.readerIndex(0).writerIndex(12);
+            assert composite.readBytes(channel, composite.readableBytes()) == 12;
+            assert composite.readableBytes() == 0;
+            assert composite.nioBufferCount() == composite.nioBuffers().length;
+            composite.release();
+
+            // 按位置读写, 不影响通道位置
+            ByteBuf heap = new UnpooledByteBuf(4);
+            assert heap.writeBytes(channel, 4L, 8) == 8;
+            assert heap.readInt() == 2 && heap.readInt() == 4;
+            assert channel.position() == 12;
+            heap.writerIndex(0).readerIndex(0).writeInt(9);
+            assert heap.readBytes(channel, 0L, 4) == 4;
+
+            // 从通道读入, 到末尾返回 -1
+            channel.position(0);
+            ByteBuf direct = new DirectByteBuf(2);
+            assert direct.writeBytes(channel, 64) == 12;
+            assert direct.readInt() == 9 && direct.readInt() == 2 && direct.readInt() == 4;
+            assert direct.writeBytes(channel, 4) == -1;
+            direct.release();
+
+            // 切片通过父 ByteBuf 的内存写出
+            ByteBuf parent = new UnpooledByteBuf(8).writeLong(0x0102030405060708L);
+            java.io.ByteArrayOutputStream sink = new java.io.ByteArrayOutputStream();
+            assert parent.slice(2, 4).readBytes(java.nio.channels.Channels.newChannel(sink), 4) == 4;
+            assert java.util.Arrays.equals(sink.toByteArray(), new byte[]{3, 4, 5, 6});
+        } finally {
+            java.nio.file.Files.delete(file);
+        }
+
+        System.out.println("NIO通道测试通过");
+    }
+
+
+    private static void testMappedFile() throws IOException {
+        java.nio.file.Path file = java.nio.file.Files.createTempFile("bytebuf", ".map");
+        try {
+            byte[] content = new byte[100];
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) i;
+            }
+            java.nio.file.Files.write(file, content);
+
+            // 整个文件只读映射, 直接可读
+            MappedFileByteBuf whole = MappedFileByteBuf.open(file, java.nio.channels.FileChannel.MapMode.READ_ONLY);
+            assert whole.isDirect() && whole.isReadOnly();
+            assert whole.readableBytes() == 100 && whole.getByte(99) == 99;
+            try {
+                whole.setByte(0, (byte) 1);
+                assert false;
+            } catch (java.nio.ReadOnlyBufferException expected) {
+            }
+            assert whole.release();
+            assert whole.capacity() == 0;
+            try {
+                whole.getByte(0);
+                assert false;
+            } catch (IndexOutOfBoundsException expected) {
+            }
+
+            // 16 字节一块, 跨块读写与按窗口映射
+            MappedFileByteBuf window = MappedFileByteBuf.open(file, java.nio.channels.FileChannel.MapMode.READ_WRITE, 10, 40, 16);
+            assert window.filePosition == 10 && window.capacity() == 40;
+            assert window.nioBufferCount() == 3;
+            window.readerIndex(20);
+            assert window.nioBufferCount() == 2 && window.nioBuffers().length == 2;
+            window.readerIndex(0);
+            assert window.getInt(4) == 0x0E0F1011; // 跨越第一块末尾
+            assert window.getLong(12) == 0x161718191A1B1C1DL;
+            window.setLong(12, -1L);
+            window.setInt(30, 0x01020304);
+            byte[] bytes = new byte[20];
+            window.getBytes(10, bytes, 0, 20);
+            assert bytes[0] == 20 && bytes[2] == -1 && bytes[9] == -1 && bytes[10] == 30;
+            ByteBuffer[] views = window.nioBuffers(10, 20);
+            assert views.length == 2 && views[0].remaining() == 6 && views[1].remaining() == 14;
+            assert window.slice(28, 8).getInt(2) == 0x01020304;
+            window.force();
+            window.release();
+
+            byte[] onDisk = java.nio.file.Files.readAllBytes(file);
+            assert onDisk[22] == -1 && onDisk[29] == -1 && onDisk[40] == 1 && onDisk[43] == 4;
+            assert onDisk[21] == 21 && onDisk[30] == 30;
+
+            // PRIVATE 模式写时复制, 修改只在映射内可见, 不写回文件
+            MappedFileByteBuf copy = MappedFileByteBuf.open(file, java.nio.channels.FileChannel.MapMode.PRIVATE);
+            assert !copy.isReadOnly() && copy.getByte(22) == -1;
+            copy.setInt(0, 0x7F7F7F7F);
+            copy.setByte(99, (byte) 1);
+            assert copy.getInt(0) == 0x7F7F7F7F && copy.getByte(99) == 1;
+            copy.release();
+            assert java.util.Arrays.equals(java.nio.file.Files.readAllBytes(file), onDisk);
+        } finally {
+            java.nio.file.Files.delete(file);
+        }
+
+        System.out.println("内存映射文件测试通过");
+    }
+
+
+    private static void testFrameDecoder() {
+        // writeString 写出的记录逐字节到达
+        ByteBuf stream = new UnpooledByteBuf(64);
+        stream.writeString("hello").writeString("").writeString("\u4e16\u754c");
+        LengthFieldFrameDecoder decoder = new LengthFieldFrameDecoder(1024, 0, 4, 0, 4, ByteOrder.BIG_ENDIAN);
+        List<ByteBuf> frames = new java.util.ArrayList<>();
+        while (stream.readableBytes() > 0) {
+            ByteBuf chunk = new UnpooledByteBuf(1);
+            chunk.writeByte(stream.readByte());
+            decoder.decode(chunk, frames);
+        }
+        assert frames.size() == 3;
+        assert frames.get(0).readCharSequence(5, StandardCharsets.UTF_8).toString().equals("hello");
+        assert frames.get(1).readableBytes() == 0;
+        assert frames.get(2).readCharSequence(6, StandardCharsets.UTF_8).toString().equals("\u4e16\u754c");
+        assert decoder.cumulatedBytes() == 0;
+        for (ByteBuf frame : frames) {
+            frame.release();
+        }
+        frames.clear();
+
+        // 同一个块里的多个帧直接切片输出, 与块共享内存
+        ByteBuf batch = ByteBufPool.acquire(64);
+        batch.writeInt(2).writeShort((short) 1).writeInt(4).writeInt(7).writeInt(1);
+        decoder.decode(batch, frames);
+        assert frames.size() == 2 && decoder.cumulatedBytes() == 4;
+        assert batch.refCnt() == 3;
+        assert frames.get(1).readInt() == 7;
+        for (ByteBuf frame : frames) {
+            frame.release();
+        }
+        frames.clear();
+        decoder.release();
+        assert batch.refCnt() == 0;
+
+        // 小端序 3 字节长度, 带头部偏移和长度修正, 跨块的帧
+        LengthFieldFrameDecoder le = new LengthFieldFrameDecoder(64, 1, 3, 2, 0, ByteOrder.LITTLE_ENDIAN);
+        ByteBuf part1 = new UnpooledByteBuf(8).writeByte((byte) 0x7E).writeByte((byte) 3).writeShort((short) 0);
+        ByteBuf part2 = new UnpooledByteBuf(8).writeBytes(new byte[]{1, 2, 3, 4, 5});
+        le.decode(part1, frames);
+        assert frames.isEmpty();
+        le.decode(part2, frames);
+        assert frames.size() == 1 && frames.get(0).readableBytes() == 9;
+        assert frames.get(0).getByte(0) == 0x7E && frames.get(0).getByte(8) == 5;
+        frames.get(0).release();
+        frames.clear();
+        le.release();
+
+        // varint 长度字段, 过长的帧被丢弃后继续解码
+        LengthFieldFrameDecoder varint = new LengthFieldFrameDecoder(16, 0, LengthFieldFrameDecoder.VARINT, 0, 0, ByteOrder.BIG_ENDIAN);
+        ByteBuf big = new UnpooledByteBuf(8).writeVarInt(300).writeBytes(new byte[100]);
+        try {
+            varint.decode(big, frames);
+            assert false;
+        } catch (TooLongFrameException expected) {
+        }
+        assert varint.cumulatedBytes() == 0;
+        ByteBuf rest = new UnpooledByteBuf(256).writeBytes(new byte[200]).writeVarInt(3).writeBytes(new byte[]{9, 8, 7});
+        varint.decode(rest, frames);
+        assert frames.size() == 1 && frames.get(0).readableBytes() == 4 && frames.get(0).getByte(3) == 7;
+        frames.get(0).release();
+        frames.clear();
+
+        // 过长帧之后同一批到达的完整帧在抛出异常前已经输出
+        ByteBuf mixed = new UnpooledByteBuf(64).writeVarInt(20).writeBytes(new byte[20])
+                .writeVarInt(2).writeBytes(new byte[]{4, 5});
+        try {
+            varint.decode(mixed, frames);
+            assert false;
+        } catch (TooLongFrameException expected) {
+        }
+        assert frames.size() == 1 && frames.get(0).getByte(2) == 5 && varint.cumulatedBytes() == 0;
+        frames.get(0).release();
+        frames.clear();
+        varint.release();
+
+        // 5 个字节都带续位的 varint 立即报错, 不等待更多数据
+        LengthFieldFrameDecoder malformed = new LengthFieldFrameDecoder(16, 0, LengthFieldFrameDecoder.VARINT, 0, 0, ByteOrder.BIG_ENDIAN);
+        try {
+            malformed.decode(new UnpooledByteBuf(5).writeBytes(new byte[]{-1, -1, -1, -1, -1}), frames);
+            assert false;
+        } catch (TooLongFrameException unexpected) {
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+        malformed.release();
+
+        System.out.println("帧解码测试通过");
+    }
+
+
+    private static void testCapacity() {
+        // 阈值以下翻倍, 之后按阈值步进, 不超过上限
+        GrowthPolicy policy = GrowthPolicy.threshold(1024);
+        assert policy.newCapacity(0, 1, Integer.MAX_VALUE) == 64;
+        assert policy.newCapacity(64, 65, Integer.MAX_VALUE) == 128;
+        assert policy.newCapacity(512, 600, Integer.MAX_VALUE) == 1024;
+        assert policy.newCapacity(1024, 1025, Integer.MAX_VALUE) == 2048;
+        assert policy.newCapacity(2048, 2049, Integer.MAX_VALUE) == 3072;
+        assert policy.newCapacity(2048, 2049, 2500) == 2500;
+        assert policy.newCapacity(16, 40, 50) == 50;
+
+        UnpooledByteBuf buf = new UnpooledByteBuf(0);
+        buf.growthPolicy(policy).maxCapacity(3000);
+        buf.writeBytes(new byte[1500]);
+        assert buf.capacity() == 2048;
+        assert buf.maxWritableBytes() == 1500;
+        buf.writeBytes(new byte[1500]);
+        assert buf.capacity() == 3000;
+        try {
+            buf.writeByte((byte) 1);
+            assert false;
+        } catch (IndexOutOfBoundsException expected) {
+            assert buf.writerIndex() == 3000;
+        }
+        try {
+            buf.maxCapacity(100);
+            assert false;
+        } catch (IllegalArgumentException expected) {
+        }
+
+        // 丢弃已读字节
+        ByteBuf[] bufs = {new UnpooledByteBuf(64), ByteBufPool.acquire(64), new DirectByteBuf(64),
+                new UnpooledByteBuf(128).slice(0, 64), new CompositeByteBuf(fill(new UnpooledByteBuf(40), 40), fill(new UnpooledByteBuf(24), 24))};
+        for (ByteBuf b : bufs) {
+            b.writerIndex(0);
+            for (int i = 0; i < 40; i++) {
+                b.writeByte((byte) i);
+            }
+            b.readerIndex(25);
+            b.discardSomeReadBytes();
+            assert b.readerIndex() == 25;
+            b.readerIndex(33);
+            b.discardSomeReadBytes();
+            assert b.readerIndex() == 0 && b.writerIndex() == 7;
+            for (int i = 0; i < 7; i++) {
+                assert b.getByte(i) == 33 + i;
+            }
+            b.readerIndex(2).discardReadBytes();
+            assert b.readableBytes() == 5 && b.readByte() == 35;
+            b.readerIndex(b.writerIndex()).discardSomeReadBytes();
+            assert b.readerIndex() == 0 && b.writerIndex() == 0;
+            b.release();
+        }
+
+        // 缩容丢弃尾部内容, 读写指针收回
+        ByteBuf[] shrinkable = {new UnpooledByteBuf(64), ByteBufPool.acquire(256), new DirectByteBuf(64),
+                new CompositeByteBuf(fill(new UnpooledByteBuf(8), 8), fill(new UnpooledByteBuf(8), 8), fill(new UnpooledByteBuf(8), 8))};
+        for (ByteBuf b : shrinkable) {
+            b.writerIndex(0);
+            b.writeLong(1).writeLong(2).writeLong(3);
+            b.readerIndex(20);
+            b.capacity(12);
+            assert b.capacity() == 12;
+            assert b.readerIndex() == 12 && b.writerIndex() == 12;
+            assert b.getLong(0) == 1 && b.getInt(8) == 0;
+            b.capacity(40);
+            assert b.capacity() >= 40 && b.getLong(0) == 1;
+            b.release();
+        }
+
+        // 池化 ByteBuf 缩容后容量恰好为指定值, 即使底层内存仍是原来的尺寸等级
+        for (ByteBuf pooled : new ByteBuf[]{ByteBufPool.acquire(256), ByteBufPool.acquireDirect(256)}) {
+            pooled.capacity(200);
+            assert pooled.capacity() == 200 && pooled.writableBytes() == 200;
+            try {
+                pooled.setByte(200, (byte) 1);
+                assert false;
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            pooled.capacity(256);
+            assert pooled.capacity() == 256;
+            pooled.release();
+        }
+
+        // 视图共享父 ByteBuf 的容量上限和增长策略, 不能借此越过上限
+        ByteBuf capped = new UnpooledByteBuf(16).maxCapacity(16);
+        for (ByteBuf view : new ByteBuf[]{capped.duplicate(), capped.retainedDuplicate()}) {
+            assert view.maxCapacity() == 16;
+            try {
+                view.writeBytes(new byte[64]);
+                assert false;
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            assert capped.capacity() == 16 && capped.maxCapacity() == 16;
+        }
+        capped.release();
+        capped.maxCapacity(1024);
+        ByteBuf view = capped.duplicate().growthPolicy(GrowthPolicy.threshold(32));
+        view.writeBytes(new byte[40]);
+        assert view.maxCapacity() == 1024 && capped.capacity() == 64 && view.capacity() == 64;
+
+        System.out.println("容量测试通过");
+    }
+
+    private static void testBulkArrays() {
+        short[] shorts = {1, -2, Short.MAX_VALUE, Short.MIN_VALUE};
+        char[] chars = {'a', '中', '\uffff'};
+        int[] ints = {1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 0x12345678};
+        long[] longs = {1L, -1L, Long.MAX_VALUE, 0x0102030405060708L};
+        float[] floats = {1.5f, -0f, Float.NaN, Float.MAX_VALUE};
+        double[] doubles = {6.28, Double.MIN_VALUE, Double.NEGATIVE_INFINITY};
+        ByteBuf[] bufs = {new UnpooledByteBuf(4), new DirectByteBuf(4), ByteBufPool.acquire(4), new UnpooledByteBuf(256).slice(0, 256),
+                new CompositeByteBuf(fill(new UnpooledByteBuf(7), 7), fill(new DirectByteBuf(13), 13), fill(new UnpooledByteBuf(200), 200))};
+        for (ByteBuf base : bufs) {
+            for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                base.readerIndex(0).writerIndex(0);
+                ByteBuf buf = base.order(order);
+                buf.writeByte((byte) 9) // 使后续数据不对齐
+                   .writeShorts(shorts, 0, shorts.length)
+                   .writeChars(chars, 1, 2)
+                   .writeInts(ints, 0, ints.length)
+                   .writeLongs(longs, 0, longs.length)
+                   .writeFloats(floats, 0, floats.length)
+                   .writeDoubles(doubles, 0, doubles.length);
+
+                // 与逐个写入的结果逐字节一致
+                int index = 1;
+                for (short v : shorts) {
+                    assert buf.getShort(index) == v;
+                    index += 2;
+                }
+                assert buf.getChar(index) == '中' && buf.getChar(index + 2) == '\uffff';
+                index += 4;
+                for (int v : ints) {
+                    assert buf.getInt(index) == v;
+                    index += 4;
+                }
+                assert buf.asIntBuffer(index - 20, 5).get(4) == 0x12345678;
+                for (long v : longs) {
+                    assert buf.getLong(index) == v;
+                    index += 8;
+                }
+                index += 16;
+                for (double v : doubles) {
+                    assert Double.compare(buf.getDouble(index), v) == 0;
+                    index += 8;
+                }
+                assert index == buf.writerIndex();
+
+                short[] shorts2 = new short[shorts.length];
+                char[] chars2 = new char[3];
+                int[] ints2 = new int[ints.length + 1];
+                long[] longs2 = new long[longs.length];
+                float[] floats2 = new float[floats.length];
+                double[] doubles2 = new double[doubles.length];
+                assert buf.readByte() == 9;
+                buf.readShorts(shorts2, 0, shorts2.length)
+                   .readChars(chars2, 0, 2)
+                   .readInts(ints2, 1, ints.length)
+                   .readLongs(longs2, 0, longs2.length)
+                   .readFloats(floats2, 0, floats2.length)
+                   .readDoubles(doubles2, 0, doubles2.length);
+                assert Arrays.equals(shorts, shorts2);
+                assert chars2[0] == '中' && chars2[1] == '\uffff';
+                assert Arrays.equals(ints, Arrays.copyOfRange(ints2, 1, ints2.length));
+                assert Arrays.equals(longs, longs2);
+                assert Arrays.equals(floats, floats2);
+                assert Arrays.equals(doubles, doubles2);
+                assert buf.readableBytes() == 0;
+                try {
+                    buf.readInts(ints2, 0, 1);
+                    assert false;
+                } catch (IndexOutOfBoundsException expected) {
+                }
+                try {
+                    buf.writeInts(ints, 3, 3);
+                    assert false;
+                } catch (IndexOutOfBoundsException expected) {
+                }
+            }
+            base.release();
+        }
+
+        // 单段内存的视图与 ByteBuf 共享内容
+        ByteBuf buf = new UnpooledByteBuf(16).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asIntBuffer(0, 4).put(2, 7);
+        assert buf.getInt(8) == 7;
+        System.out.println("数组整块读写测试通过");
+    }
+
+    private static void testSearch() {
+        byte[] data = new byte[100];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (random.nextInt(8) - 4); // 含负数, 检查 SWAR 不会误报
+        }
+        ByteBuf[] bufs = {new UnpooledByteBuf(100), new DirectByteBuf(100), new UnpooledByteBuf(120).slice(10, 100),
+                new CompositeByteBuf(new UnpooledByteBuf(0), fill(new UnpooledByteBuf(13), 13), fill(new DirectByteBuf(30), 30), fill(new UnpooledByteBuf(57), 57)),
+                new CompositeByteBuf(fill(new UnpooledByteBuf(50), 50), fill(new UnpooledByteBuf(50), 50)).slice(0, 100)};
+        for (ByteBuf buf : bufs) {
+            buf.writerIndex(0);
+            buf.writeBytes(data);
+            for (int from = 0; from <= 100; from += 3) {
+                for (int to = 0; to <= 100; to += 7) {
+                    for (byte value = -5; value <= 4; value++) {
+                        assert buf.indexOf(from, to, value) == naiveIndexOf(data, from, to, value);
+                    }
+                }
+            }
+            assert buf.indexOf(-10, 1000, data[99]) == naiveIndexOf(data, 0, 100, data[99]);
+            assert buf.indexOf(1000, -10, data[0]) == naiveIndexOf(data, 100, 0, data[0]);
+
+            buf.readerIndex(20);
+            int expected = naiveIndexOf(data, 20, 100, (byte) 3);
+            assert buf.bytesBefore((byte) 3) == expected - 20;
+            assert buf.bytesBefore(expected - 20, (byte) 3) == -1;
+            assert buf.bytesBefore(5, 10, (byte) -5) == -1;
+
+            // 遍历顺序与停止位置
+            int[] count = {0};
+            assert buf.forEachByte(value -> ++count[0] > 0) == -1 && count[0] == 80;
+            int firstPositive = -1;
+            int lastPositive = -1;
+            for (int i = 20; i < 100; i++) {
+                if (data[i] > 0) {
+                    lastPositive = i;
+                    if (firstPositive < 0) {
+                        firstPositive = i;
+                    }
+                }
+            }
+            assert buf.forEachByte(value -> value <= 0) == firstPositive;
+            assert buf.forEachByteDesc(value -> value <= 0) == lastPositive;
+            assert buf.forEachByte(30, 0, value -> false) == -1;
+            try {
+                buf.forEachByte(90, 20, value -> true);
+                assert false;
+            } catch (IndexOutOfBoundsException expectedException) {
+            }
+            buf.release();
+        }
+
+        ByteBuf line = new UnpooledByteBuf(32);
+        line.writeCharSequence("GET / HTTP/1.1\r\nHost", StandardCharsets.US_ASCII);
+        assert line.forEachByte(ByteProcessor.FIND_CRLF) == 14;
+        assert line.bytesBefore((byte) '\n') == 15;
+        assert line.forEachByte(ByteProcessor.FIND_LINEAR_WHITESPACE) == 3;
+        System.out.println("查找测试通过");
+    }
+
+    private static int naiveIndexOf(byte[] data, int from, int to, byte value) {
+        if (from <= to) {
+            for (int i = Math.max(from, 0); i < Math.min(to, data.length); i++) {
+                if (data[i] == value) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = Math.min(from, data.length) - 1; i >= Math.max(to, 0); i--) {
+                if (data[i] == value) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void testMetrics() {
+        ByteBufMetrics metrics = ByteBufPool.metrics();
+        List<String> events = new CopyOnWriteArrayList<>();
+        ByteBufMetricsListener listener = new ByteBufMetricsListener() {
+            @Override
+            public void onReallocate(ByteBuf buf, int oldCapacity, int newCapacity, int bytesCopied) {
+                events.add("reallocate " + oldCapacity + "->" + newCapacity + " " + bytesCopied);
+            }
+
+            @Override
+            public void onConsolidate(CompositeByteBuf buf, int numComponents, int bytesCopied) {
+                events.add("consolidate " + numComponents + " " + bytesCopied);
+            }
+        };
+        ByteBufMetrics.addListener(listener);
+        metrics.setEnabled(true);
+        metrics.reset();
+        try {
+            // 每次分配按来源和尺寸等级计数
+            ByteBufPool.acquire(64).release();
+            long hits = metrics.getThreadCacheHits() + metrics.getArenaHits() + metrics.getMisses();
+            assert hits == 1;
+            assert metrics.getHeapAllocationsBySizeClass()[0] == 1;
+
+            ByteBuf buf = ByteBufPool.acquire(64);
+            assert metrics.getActiveHeapBuffers() == 1;
+            buf.writeBytes(new byte[100]);
+            assert metrics.getReallocations() == 1 && metrics.getReallocationBytesCopied() == 64;
+            assert events.contains("reallocate 64->128 64");
+            assert metrics.getHeapAllocationsBySizeClass()[1] == 1;
+            buf.release();
+            assert metrics.getActiveHeapBuffers() == 0;
+
+            // reset 只清零累计计数, 重置前借出的 ByteBuf 释放后活跃数不会变成负数
+            ByteBuf outstanding = ByteBufPool.acquire(64);
+            metrics.reset();
+            assert metrics.getActiveHeapBuffers() == 1 && metrics.getHeapAllocations() == 0;
+            outstanding.release();
+            assert metrics.getActiveHeapBuffers() == 0;
+
+            // 同一线程释放后再次获取命中线程缓存
+            long cacheHits = metrics.getThreadCacheHits();
+            ByteBufPool.acquire(100).release();
+            assert metrics.getThreadCacheHits() == cacheHits + 1;
+            assert metrics.getHitRatio() > 0;
+
+            ByteBufPool.acquireDirect(ByteBufPool.MAX_POOLED_CAPACITY + 1).release();
+            assert metrics.getUnpooledAllocations() == 1;
+            assert metrics.getActiveDirectBuffers() == 0;
+
+            CompositeByteBuf composite = new CompositeByteBuf(fill(new UnpooledByteBuf(4), 4), fill(new UnpooledByteBuf(6), 6));
+            composite.consolidate();
+            assert metrics.getConsolidations() == 1 && metrics.getConsolidationBytesCopied() == 10;
+            assert events.contains("consolidate 2 10");
+            composite.release();
+
+            // JMX 导出
+            ByteBufMetrics.registerMBean();
+            ByteBufMetrics.registerMBean();
+            javax.management.MBeanServer server = java.lang.management.ManagementFactory.getPlatformMBeanServer();
+            javax.management.ObjectName name = new javax.management.ObjectName(ByteBufMetrics.OBJECT_NAME);
+            assert (Long) server.getAttribute(name, "Consolidations") == 1;
+            assert ((long[]) server.getAttribute(name, "HeapAllocationsBySizeClass")).length == ByteBufPool.sizeClass(ByteBufPool.MAX_POOLED_CAPACITY) + 1;
+            ByteBufMetrics.unregisterMBean();
+            assert !server.isRegistered(name);
+        } catch (javax.management.JMException e) {
+            throw new AssertionError(e);
+        } finally {
+            metrics.setEnabled(false);
+            ByteBufMetrics.removeListener(listener);
+        }
+
+        long reallocations = metrics.getReallocations();
+        new UnpooledByteBuf(1).writeLong(1);
+        assert metrics.getReallocations() == reallocations;
+        System.out.println("内存池指标测试通过");
+    }
+
+    private static ByteBuf fill(ByteBuf buf, int length) {
+        return buf.writerIndex(length);
+    }
+
+    private static void testRingQueue() throws InterruptedException {
+        // 容量向上取整为 2 的幂, 满时 offer 失败, 空时 poll 返回 null
+        RingQueue<Integer> small = new SpscRingQueue<>(3);
+        assert small.capacity() == 4;
+        assert small.poll() == null && small.isEmpty();
+        for (int i = 0; i < 4; i++) {
+            assert small.offer(i);
+        }
+        assert !small.offer(4);
+        assert small.size() == 4;
+        List<Integer> drained = new ArrayList<>();
+        assert small.drain(drained::add, 3) == 3;
+        assert drained.equals(Arrays.asList(0, 1, 2));
+        assert small.offer(4) && small.offer(5);
+        assert small.drain(drained::add) == 3;
+        assert drained.equals(Arrays.asList(0, 1, 2, 3, 4, 5));
+        try {
+            small.offer(null);
+            assert false;
+        } catch (NullPointerException expected) {
+        }
+
+        // 单生产者单消费者跨线程保持顺序
+        int count = 100000;
+        SpscRingQueue<Integer> spsc = new SpscRingQueue<>(64);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!spsc.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        int nextValue = 0;
+        while (nextValue < count) {
+            Integer value = spsc.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            assert value == nextValue++;
+        }
+        producer.join();
+        assert spsc.isEmpty();
+
+        // 多生产者: 每个生产者自己的元素保持顺序, 总数不丢不重
+        int producers = 4;
+        int perProducer = 20000;
+        MpscRingQueue<long[]> mpsc = new MpscRingQueue<>(128);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {id, i};
+                    while (!mpsc.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            int n = mpsc.drain(element -> {
+                int id = (int) element[0];
+                assert element[1] == next[id]++;
+            }, 32);
+            if (n == 0) {
+                Thread.yield();
+            }
+            received += n;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int p = 0; p < producers; p++) {
+            assert next[p] == perProducer;
+        }
+        assert mpsc.poll() == null;
+
+        // 消费者抛出异常时已交出的元素不会重复出现
+        MpscRingQueue<Integer> failing = new MpscRingQueue<>(8);
+        failing.offer(1);
+        failing.offer(2);
+        try {
+            failing.drain(value -> {
+                throw new IllegalStateException();
+            });
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+        assert failing.poll() == 2 && failing.isEmpty();
+
+        // 其他线程释放的池化内存回到分配它的线程缓存
+        byte[][] memory = new byte[2][];
+        Throwable[] failure = new Throwable[1];
+        Thread owner = new Thread(() -> {
+            try {
+                ByteBuf buf = ByteBufPool.acquire(1000);
+                memory[0] = ((PooledByteBuf) buf).buffer;
+                Thread releaser = new Thread(buf::release);
+                releaser.start();
+                releaser.join();
+                ByteBuf again = ByteBufPool.acquire(1000);
+                memory[1] = ((PooledByteBuf) again).buffer;
+                again.release();
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        });
+        owner.start();
+        owner.join();
+        assert failure[0] == null;
+        assert memory[0] == memory[1];
+
+        System.out.println("环形队列测试通过");
+    }
+
+    private static void testConcurrentAppend() throws InterruptedException {
+        // 记录按 4 字节对齐, 未提交的记录挡住其后的记录
+        ConcurrentAppendByteBuf buf = new ConcurrentAppendByteBuf(64);
+        int first = buf.claim(5);
+        assert first == 4;
+        int second = buf.claim(2);
+        assert second == 16;
+        buf.setBytes(second, new byte[]{7, 8}, 0, 2);
+        buf.commit(second);
+        assert buf.readRecord() == null;
+        buf.setBytes(first, "hello".getBytes(StandardCharsets.US_ASCII), 0, 5);
+        buf.commit(first);
+        ByteBuf record = buf.readRecord();
+        assert record.readableBytes() == 5 && record.getByte(0) == 'h' && record.getByte(4) == 'o';
+        record = buf.readRecord();
+        assert record.readableBytes() == 2 && record.getByte(1) == 8;
+        assert buf.readRecord() == null;
+        try {
+            buf.commit(first);
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+
+        // 放弃的记录被跳过, 空间不足时 claim 返回 -1
+        int aborted = buf.claim(4);
+        buf.abort(aborted);
+        assert buf.append(new byte[]{1, 2, 3});
+        record = buf.readRecord();
+        assert record.readableBytes() == 3 && record.getByte(2) == 3;
+        assert buf.claim(64) == -1;
+        try {
+            buf.writeBytes(new byte[64]);
+            assert false;
+        } catch (IndexOutOfBoundsException expected) {
+        }
+
+        // 有未提交的记录时不能清空, 清空后可以复用
+        int pending = buf.claim(0);
+        try {
+            buf.clear();
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+        buf.commit(pending);
+        assert buf.readRecord().readableBytes() == 0;
+        buf.clear();
+        assert buf.claimedBytes() == 0 && buf.readRecord() == null;
+        ByteBuf src = new UnpooledByteBuf(8);
+        src.writeInt(42);
+        assert buf.append(src) && src.readableBytes() == 0;
+        assert buf.readRecord().getInt(0) == 42;
+
+        // 多个线程并发追加, 读取方同时读取, 每条记录完整且每个线程的记录保持顺序
+        int writers = 4;
+        int perWriter = 20000;
+        ConcurrentAppendByteBuf shared = new ConcurrentAppendByteBuf(writers * perWriter * 16);
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            threads[w] = new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    int length = 8 + i % 5;
+                    int index = shared.claim(length);
+                    shared.setInt(index, id);
+                    shared.setInt(index + 4, i);
+                    for (int j = 8; j < length; j++) {
+                        shared.setByte(index + j, (byte) i);
+                    }
+                    shared.commit(index);
+                }
+            });
+            threads[w].start();
+        }
+        int[] next = new int[writers];
+        int received = 0;
+        while (received < writers * perWriter) {
+            ByteBuf r = shared.readRecord();
+            if (r == null) {
+                Thread.yield();
+                continue;
+            }
+            int id = r.getInt(0);
+            int i = r.getInt(4);
+            assert i == next[id]++;
+            assert r.readableBytes() == 8 + i % 5;
+            for (int j = 8; j < r.readableBytes(); j++) {
+                assert r.getByte(j) == (byte) i;
+            }
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assert shared.readRecord() == null;
+        assert shared.writerIndex() == shared.claimedBytes();
+
+        System.out.println("并发追加测试通过");
+    }
+
+    /**
+     * 记录每次 write 调用的聚集写通道, maxPerWrite 限制单次写出的字节数以模拟非阻塞通道
+     */
+    private static final class RecordingChannel implements GatheringByteChannel {
+        final ByteBuf written = new UnpooledByteBuf(256);
+        int writeCalls;
+        int maxPerWrite = Integer.MAX_VALUE;
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            writeCalls++;
+            long total = 0;
+            for (int i = offset; i < offset + length && total < maxPerWrite; i++) {
+                int n = (int) Math.min(srcs[i].remaining(), maxPerWrite - total);
+                byte[] bytes = new byte[n];
+                srcs[i].get(bytes);
+                written.writeBytes(bytes);
+                total += n;
+            }
+            return total;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[]{src});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static void testBatchingWriter() throws IOException {
+        // 小消息复制进聚合缓冲区, 大消息直接挂上, 达到字节阈值时一次写出
+        RecordingChannel channel = new RecordingChannel();
+        BatchingChannelWriter writer = new BatchingChannelWriter(channel, 16, 64, 200, Long.MAX_VALUE);
+        ByteBuf expectedBytes = new UnpooledByteBuf(256);
+        for (int i = 0; i < 10; i++) {
+            ByteBuf small = new UnpooledByteBuf(8);
+            small.writeInt(i);
+            expectedBytes.writeInt(i);
+            writer.write(small);
+            assert small.refCnt() == 0;
+        }
+        ByteBuf large = ByteBufPool.acquire(100);
+        fill(large, 100);
+        expectedBytes.writeBytes(large.array(), large.arrayOffset(), 100);
+        writer.write(large);
+        assert large.refCnt() == 1 && channel.writeCalls == 0;
+        assert writer.pendingBytes() == 140;
+        ByteBuf direct = new DirectByteBuf(8);
+        direct.writeLong(-1L);
+        expectedBytes.writeLong(-1L);
+        writer.write(direct);
+        assert channel.writeCalls == 0;
+        ByteBuf trigger = new UnpooledByteBuf(64);
+        fill(trigger, 60);
+        expectedBytes.writeBytes(trigger.array(), 0, 60);
+        writer.write(trigger);
+        assert channel.writeCalls == 1 && writer.pendingBytes() == 0;
+        assert large.refCnt() == 0 && direct.refCnt() == 0;
+        assert channel.written.readableBytes() == 208;
+        for (int i = 0; i < 208; i++) {
+            assert channel.written.getByte(i) == expectedBytes.getByte(i);
+        }
+
+        // 非阻塞通道写不下时保留剩余数据, 之后继续写出
+        channel.maxPerWrite = 5;
+        ByteBuf msg = new UnpooledByteBuf(8);
+        msg.writeLong(0x0102030405060708L);
+        writer.write(msg);
+        assert writer.flush() == 8 && channel.writeCalls == 3;
+        assert channel.written.getLong(208) == 0x0102030405060708L;
+        channel.maxPerWrite = 0;
+        msg = new UnpooledByteBuf(8);
+        msg.writeInt(9);
+        writer.write(msg);
+        assert writer.flush() == 0 && writer.pendingBytes() == 4;
+        channel.maxPerWrite = Integer.MAX_VALUE;
+        writer.close();
+        assert writer.pendingBytes() == 0 && channel.written.getInt(216) == 9;
+        try {
+            writer.write(new UnpooledByteBuf(4).writeInt(1));
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+
+        // 时间阈值: 间隔为 0 时每次写入都立即写出, flushIfDue 只在有待写数据时写出
+        RecordingChannel timed = new RecordingChannel();
+        BatchingChannelWriter timedWriter = new BatchingChannelWriter(timed, 16, 64, Integer.MAX_VALUE, 0);
+        timedWriter.write(new UnpooledByteBuf(4).writeInt(1));
+        timedWriter.write(new UnpooledByteBuf(4).writeInt(2));
+        assert timed.writeCalls == 2 && timed.written.readableBytes() == 8;
+        assert timedWriter.flushIfDue() == 0 && timed.writeCalls == 2;
+        timedWriter.close();
+
+        System.out.println("批量写出测试通过");
+    }
+
+    private static void testFlyweight() {
+        FlyweightSchema schema = FlyweightSchema.builder()
+                .int64("seq")
+                .bytes("symbol", 8)
+                .int8("side")
+                .pad(3)
+                .int32("qty")
+                .float64("price")
+                .int16("flags")
+                .float32("ratio")
+                .var("venue")
+                .var("note")
+                .build();
+        assert schema.fixedLength() == 8 + 8 + 1 + 3 + 4 + 8 + 2 + 4;
+        FlyweightSchema.Field seq = schema.field("seq");
+        FlyweightSchema.Field symbol = schema.field("symbol");
+        FlyweightSchema.Field side = schema.field("side");
+        FlyweightSchema.Field qty = schema.field("qty");
+        FlyweightSchema.Field price = schema.field("price");
+        FlyweightSchema.Field flags = schema.field("flags");
+        FlyweightSchema.Field ratio = schema.field("ratio");
+        FlyweightSchema.Field venue = schema.field("venue");
+        FlyweightSchema.Field note = schema.field("note");
+        assert qty.offset == 20 && price.offset == 24;
+
+        // 写入三条消息, 同一个 flyweight 依次指向每条消息
+        ByteBuf buf = new UnpooledByteBuf(512);
+        Flyweight fw = schema.newFlyweight();
+        int[] offsets = new int[3];
+        for (int i = 0; i < 3; i++) {
+            offsets[i] = buf.writerIndex();
+            fw.wrap(buf, buf.writerIndex())
+                    .setLong(seq, 1000L + i)
+                    .setBytes(symbol, "AAPL".getBytes(StandardCharsets.US_ASCII), 0, 4)
+                    .setByte(side, (byte) i)
+                    .setInt(qty, 100 * i)
+                    .setDouble(price, 189.25 + i)
+                    .setShort(flags, (short) -1)
+                    .setFloat(ratio, 0.5f);
+            fw.setVar(venue, "XNAS".getBytes(StandardCharsets.US_ASCII), 0, 4);
+            byte[] text = new byte[i * 3];
+            Arrays.fill(text, (byte) 'x');
+            int end = fw.setVar(note, text, 0, text.length);
+            assert end - offsets[i] == fw.length();
+            buf.writerIndex(end);
+        }
+
+        // 与顺序读取的结果一致, 不改变读写指针
+        int writerIndex = buf.writerIndex();
+        for (int i = 0; i < 3; i++) {
+            fw.wrap(buf, offsets[i]);
+            assert fw.getLong(seq) == 1000L + i;
+            assert fw.getString(symbol).equals("AAPL");
+            assert fw.getByte(side) == i;
+            assert fw.getInt(qty) == 100 * i;
+            assert fw.getDouble(price) == 189.25 + i;
+            assert fw.getShort(flags) == -1;
+            assert fw.getFloat(ratio) == 0.5f;
+            assert fw.varLength(venue) == 4 && fw.varLength(note) == i * 3;
+            assert buf.getByte(fw.varContentIndex(venue)) == 'X';
+            byte[] v = new byte[4];
+            fw.getVar(venue, v, 0);
+            assert new String(v, StandardCharsets.US_ASCII).equals("XNAS");
+            assert fw.varSlice(note).readableBytes() == i * 3;
+
+            buf.readerIndex(offsets[i]);
+            assert buf.readLong() == 1000L + i;
+            buf.readerIndex(buf.readerIndex() + 8);
+            assert buf.readByte() == i;
+            buf.readerIndex(buf.readerIndex() + 3);
+            assert buf.readInt() == 100 * i;
+            assert buf.readDouble() == 189.25 + i;
+        }
+        assert buf.writerIndex() == writerIndex;
+
+        // 小端布局, 也可以指向 CompositeByteBuf 中跨组件的区域
+        FlyweightSchema le = FlyweightSchema.builder().order(ByteOrder.LITTLE_ENDIAN).int32("a").int64("b").build();
+        FlyweightSchema.Field a = le.field("a");
+        FlyweightSchema.Field b = le.field("b");
+        ByteBuf part1 = new UnpooledByteBuf(8);
+        part1.writeIntLE(7);
+        part1.writeIntLE(0x11223344);
+        ByteBuf part2 = new UnpooledByteBuf(8);
+        part2.writeIntLE(0x55667788);
+        CompositeByteBuf composite = new CompositeByteBuf(part1, part2);
+        Flyweight lfw = le.newFlyweight().wrap(composite, 0);
+        assert lfw.getInt(a) == 7;
+        assert lfw.getLong(b) == 0x5566778811223344L;
+        lfw.setLong(b, 1L);
+        assert part1.getIntLE(4) == 1 && part2.getIntLE(0) == 0;
+        composite.release();
+
+        // 类型不符、其他 schema 的字段和越界位置都会被拒绝
+        try {
+            fw.getLong(qty);
+            assert false;
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            fw.getInt(a);
+            assert false;
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            fw.wrap(buf, buf.capacity() - 10);
+            assert false;
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        try {
+            FlyweightSchema.builder().var("x").int32("y");
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+
+        System.out.println("flyweight 测试通过");
+    }
+
+    private static void testCompression() {
+        Random random = new Random(42);
+        int[] sizes = {0, 1, 12, 13, 100, 5000, 200000};
+        for (int size : sizes) {
+            byte[] text = new byte[size];
+            for (int i = 0; i < size; i++) {
+                // 可压缩的数据: 少量字母表上的重复片段
+                text[i] = (byte) ('a' + (i % 7 == 0 ? random.nextInt(3) : i % 5));
+            }
+            byte[] noise = new byte[size];
+            random.nextBytes(noise);
+            for (byte[] data : new byte[][]{text, noise}) {
+                try (CompressionCodec lz4 = new Lz4Codec(4096); CompressionCodec deflate = new DeflateCodec()) {
+                    for (CompressionCodec codec : new CompressionCodec[]{lz4, deflate}) {
+                        checkRoundTrip(codec, data, new UnpooledByteBuf(16), new UnpooledByteBuf(16));
+                        checkRoundTrip(codec, data, new DirectByteBuf(16), new DirectByteBuf(16));
+                        checkRoundTrip(codec, data, ByteBufPool.acquire(16), new CompositeByteBuf(new UnpooledByteBuf(8)));
+                    }
+                }
+            }
+        }
+
+        // 压缩效果: 重复数据明显变小, 不可压缩的数据只多出块头
+        byte[] repeated = new byte[100000];
+        Arrays.fill(repeated, (byte) 'x');
+        try (Lz4Codec lz4 = new Lz4Codec()) {
+            ByteBuf out = new UnpooledByteBuf(16);
+            lz4.compress(wrap(repeated), out);
+            assert out.readableBytes() < 1000;
+            byte[] noise = new byte[100000];
+            random.nextBytes(noise);
+            out = new UnpooledByteBuf(16);
+            lz4.compress(wrap(noise), out);
+            assert out.readableBytes() == noise.length + 2 * 8 + 4;
+
+            // 大量小组件的 CompositeByteBuf 跨组件凑满一块, 与连续内存压缩结果一致
+            byte[] record = "record-0123456789-abcdefghijklmn\n".getBytes(StandardCharsets.US_ASCII);
+            CompositeByteBuf parts = new CompositeByteBuf();
+            ByteBuf flat = new UnpooledByteBuf(record.length * 1000);
+            for (int i = 0; i < 1000; i++) {
+                ByteBuf part = i % 2 == 0 ? new UnpooledByteBuf(record.length) : new DirectByteBuf(record.length);
+                parts.addComponent(part.writeBytes(record));
+                flat.writeBytes(record);
+            }
+            ByteBuf fromComposite = new UnpooledByteBuf(16);
+            ByteBuf fromFlat = new UnpooledByteBuf(16);
+            lz4.compress(parts, fromComposite);
+            lz4.compress(flat, fromFlat);
+            assert fromComposite.readableBytes() == fromFlat.readableBytes();
+            assert fromComposite.readableBytes() < 1000;
+            ByteBuf restored = new UnpooledByteBuf(16);
+            lz4.decompress(fromComposite, restored);
+            assert restored.readableBytes() == record.length * 1000 && restored.getByte(33 * 999) == 'r';
+        }
+
+        // 损坏或不完整的数据抛出 IllegalStateException
+        for (CompressionCodec codec : new CompressionCodec[]{new Lz4Codec(), new DeflateCodec()}) {
+            ByteBuf compressed = new UnpooledByteBuf(16);
+            codec.compress(wrap("hello hello hello hello hello".getBytes(StandardCharsets.US_ASCII)), compressed);
+            ByteBuf truncated = compressed.slice(0, compressed.readableBytes() - 3);
+            try {
+                codec.decompress(truncated, new UnpooledByteBuf(16));
+                assert false;
+            } catch (IllegalStateException expected) {
+            }
+            codec.close();
+        }
+        byte[] block = new byte[64];
+        assert Lz4Codec.compressBlock("abcabcabcabcabcabcabcabc".getBytes(StandardCharsets.US_ASCII), 0, 24, block, 0, new int[4096]) < 24;
+        try {
+            // 匹配距离超出已输出的数据
+            Lz4Codec.decompressBlock(new byte[]{0x10, 'a', 5, 0, 0x50, 'a', 'a', 'a', 'a', 'a'}, 0, 10, new byte[15], 0, 15);
+            assert false;
+        } catch (IllegalStateException expected) {
+        }
+
+        System.out.println("压缩测试通过");
+    }
+
+    /**
+     * 输入拆成三个组件的 CompositeByteBuf, 压缩后追加一个尾部字节, 解压后尾部字节保持未读
+     */
+    private static void checkRoundTrip(CompressionCodec codec, byte[] data, ByteBuf compressed, ByteBuf restored) {
+        int a = data.length / 3;
+        int b = data.length * 2 / 3;
+        ByteBuf part2 = new DirectByteBuf(Math.max(1, b - a));
+        part2.writeBytes(data, a, b - a);
+        CompositeByteBuf src = new CompositeByteBuf(wrap(Arrays.copyOfRange(data, 0, a)), part2,
+                wrap(Arrays.copyOfRange(data, b, data.length)));
+        int written = codec.compress(src, compressed);
+        assert src.readableBytes() == 0 && written == compressed.readableBytes();
+        compressed.writeByte((byte) 0x7F);
+        int restoredBytes = codec.decompress(compressed, restored);
+        assert restoredBytes == data.length && restored.readableBytes() == data.length;
+        assert compressed.readableBytes() == 1 && compressed.readByte() == 0x7F;
+        byte[] result = new byte[data.length];
+        restored.readBytes(result, 0, result.length);
+        assert Arrays.equals(result, data);
+        src.release();
+        compressed.release();
+        restored.release();
+    }
+
+    private static ByteBuf wrap(byte[] data) {
+        ByteBuf buf = new UnpooledByteBuf(Math.max(1, data.length));
+        buf.writeBytes(data);
+        return buf;
+    }
+}